@@ -30,18 +30,21 @@ public class BootstrapData implements CommandLineRunner {
     private final InstallmentRepository installmentRepository;
     private final PaymentRepository paymentRepository;
     private final PayeeRepository payeeRepository;
+    private final SeedSnapshotLoader seedSnapshotLoader;
 
     @Override
 //    @Transactional
     public void run(String... args) {
         try {
-            initializeCurrencies();
-            initializeExchangeRates();
-            if (accountRepository.count() == 0) {
-                addInitialAccounts();
-                initializeAccountsAndTransactions();
-                initializeBankAccounts();
-            }
+            seedSnapshotLoader.seed(() -> {
+                initializeCurrencies();
+                initializeExchangeRates();
+                if (accountRepository.count() == 0) {
+                    addInitialAccounts();
+                    initializeAccountsAndTransactions();
+                    initializeBankAccounts();
+                }
+            });
 
         } catch (Exception e) {
             // Log the error but don't throw it to prevent application shutdown
@@ -245,13 +248,8 @@ public class BootstrapData implements CommandLineRunner {
             }
         }
 
-        // Save payments in batches
-        int batchSize = 10;
-        for (int i = 0; i < newPayments.size(); i += batchSize) {
-            int end = Math.min(i + batchSize, newPayments.size());
-            List<Payment> batch = newPayments.subList(i, end);
-            paymentRepository.saveAll(batch);
-        }
+        // Hibernate salje insert-e u JDBC batch-evima (hibernate.jdbc.batch_size)
+        paymentRepository.saveAll(newPayments);
 
 //          addInitialAccounts();
         int x = 0;
@@ -429,7 +427,6 @@ public class BootstrapData implements CommandLineRunner {
                                 .expectedDueDate(actualPaymentDate)
                                 .build();
 
-                        installment = installmentRepository.save(installment);
                         newInstallments.add(installment);
                     }
 
@@ -459,7 +456,7 @@ public class BootstrapData implements CommandLineRunner {
             }
         }
 
-        // Save all installments
+        // Save all installments in one batched transaction
         installmentRepository.saveAll(newInstallments);
 
     }
@@ -0,0 +1,32 @@
+package rs.raf.bank_service.bootstrap;
+
+import org.springframework.stereotype.Component;
+import rs.raf.bank_service.domain.entity.SeedSnapshot;
+import rs.raf.bank_service.repository.SeedSnapshotRepository;
+import rs.raf.seed_snapshot.AbstractSeedSnapshotLoader;
+import rs.raf.seed_snapshot.SeedSnapshotMarker;
+
+import javax.sql.DataSource;
+
+/// Seed snapshot (vidi AbstractSeedSnapshotLoader) sa oznakom poslednjeg punjenja u seed_snapshot tabeli ovog servisa
+@Component
+public class SeedSnapshotLoader extends AbstractSeedSnapshotLoader {
+
+    private final SeedSnapshotRepository seedSnapshotRepository;
+
+    public SeedSnapshotLoader(DataSource dataSource, SeedSnapshotRepository seedSnapshotRepository) {
+        super(dataSource);
+        this.seedSnapshotRepository = seedSnapshotRepository;
+    }
+
+    @Override
+    protected void saveMarker(SeedSnapshotMarker marker) {
+        seedSnapshotRepository.save(SeedSnapshot.builder()
+                .version(marker.getKey())
+                .checksum(marker.getChecksum())
+                .mode(marker.getMode())
+                .durationMs(marker.getDurationMs())
+                .loadedAt(marker.getLoadedAt())
+                .build());
+    }
+}
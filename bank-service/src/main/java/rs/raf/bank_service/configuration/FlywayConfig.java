@@ -0,0 +1,27 @@
+package rs.raf.bank_service.configuration;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+
+/// Tabele i dalje pravi Hibernate (ddl-auto), a indeksi su verzionisane migracije u db/migration. Spring Boot bi
+/// Flyway pustio pre JPA, kada tabele jos ne postoje, pa se migracije pokrecu tek posle entityManagerFactory-ja;
+/// baseline-on-migrate (verzija 0) dozvoljava prvu migraciju nad semom koju je Hibernate vec napravio.
+@Configuration
+public class FlywayConfig {
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy() {
+        return flyway -> {
+        };
+    }
+
+    @Bean
+    @DependsOn("entityManagerFactory")
+    public InitializingBean flywayMigrateAfterJpa(Flyway flyway) {
+        return flyway::migrate;
+    }
+}
@@ -16,6 +16,7 @@ import org.springframework.boot.autoconfigure.amqp.RabbitRetryTemplateCustomizer
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.retry.policy.SimpleRetryPolicy;
+import rs.raf.bank_service.domain.enums.TransactionPriority;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -27,9 +28,17 @@ public class RabbitMQConfig {
     public static final String EXTERNAL_PROCESS_QUEUE = "external.process.queue";
     public static final String EXTERNAL_DL_EXCHANGE = "external.dlx";
 
+    @Value("${spring.rabbitmq.listener.simple.auto-startup:true}")
+    private boolean listenerAutoStartup;
+
+    /// Priority queue: interaktivne poruke preticu batch poruke (rate, sistemska placanja) koje cekaju u redu,
+    /// a i dalje ih obradjuje jedan consumer pa redosled izmena stanja ostaje serijalizovan.
+    /// Postojeci red bez x-max-priority mora da se obrise pre prvog starta, RabbitMQ ne menja argumente reda.
     @Bean
     public Queue transactionQueue() {
-        return new Queue(TRANSACTION_QUEUE, true);
+        Map<String, Object> args = new HashMap<>();
+        args.put("x-max-priority", TransactionPriority.MAX_LEVEL);
+        return new Queue(TRANSACTION_QUEUE, true, false, false, args);
     }
 
     @Bean
@@ -45,6 +54,7 @@ public class RabbitMQConfig {
         factory.setPrefetchCount(1);
         factory.setConcurrentConsumers(1);
         factory.setMaxConcurrentConsumers(1);
+        factory.setAutoStartup(listenerAutoStartup);
 
         factory.setDefaultRequeueRejected(false);
         factory.setAdviceChain();
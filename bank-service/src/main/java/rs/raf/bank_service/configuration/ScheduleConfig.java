@@ -1,7 +1,9 @@
 package rs.raf.bank_service.configuration;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -12,4 +14,14 @@ public class ScheduleConfig {
     public ScheduledExecutorService scheduledExecutorService() {
         return Executors.newSingleThreadScheduledExecutor();
     }
+
+    /// Scheduler za @Scheduled poslove. Bez njega bi Spring uzeo jednonitni scheduledExecutorService iznad, pa bi
+    /// spor posao (rate, netting) zadrzao osvezavanje pregleda, relay i uzorkovanje reda koji rade na ~1s.
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${spring.task.scheduling.pool.size:4}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("scheduling-");
+        return scheduler;
+    }
 }
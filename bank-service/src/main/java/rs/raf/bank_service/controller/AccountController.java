@@ -20,6 +20,7 @@ import rs.raf.bank_service.domain.dto.*;
 import rs.raf.bank_service.exceptions.*;
 import rs.raf.bank_service.repository.ChangeLimitRequestRepository;
 import rs.raf.bank_service.service.AccountService;
+import rs.raf.bank_service.service.ClientOverviewService;
 import rs.raf.bank_service.utils.JwtTokenUtil;
 
 import javax.validation.Valid;
@@ -36,6 +37,7 @@ public class AccountController {
     private final JwtTokenUtil jwtTokenUtil;
     private final UserClient userClient;
     private final ChangeLimitRequestRepository changeLimitRequestRepository;
+    private final ClientOverviewService clientOverviewService;
     private AccountService accountService;
 
     /// Refaktorisano tako da getAccounts bude jedna GET metoda a ne dve jer tako kod ne radi
@@ -74,6 +76,16 @@ public class AccountController {
         }
     }
 
+    /// Racuni, kartice, krediti i poslednja placanja ulogovanog klijenta iz kesiranog read modela
+    @Operation(summary = "Get client dashboard overview")
+    @ApiResponses({@ApiResponse(responseCode = "200", description = "Overview retrieved successfully")})
+    @PreAuthorize("hasRole('CLIENT')")
+    @GetMapping("/overview")
+    public ResponseEntity<ClientOverviewDto> getOverview(@RequestHeader("Authorization") String auth) {
+        Long clientId = jwtTokenUtil.getUserIdFromAuthHeader(auth);
+        return ResponseEntity.ok(clientOverviewService.getOverview(clientId));
+    }
+
     @PreAuthorize("hasRole('EMPLOYEE')")
     @GetMapping("/bank")
     public ResponseEntity<?> getBankAccounts(
@@ -1,5 +1,6 @@
 package rs.raf.bank_service.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -9,6 +10,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -22,6 +24,7 @@ import rs.raf.bank_service.repository.AccountRepository;
 import rs.raf.bank_service.repository.CompanyAccountRepository;
 import rs.raf.bank_service.service.AccountService;
 import rs.raf.bank_service.service.PaymentService;
+import rs.raf.bank_service.service.TransactionAdmissionService;
 import rs.raf.bank_service.service.TransactionQueueService;
 import rs.raf.bank_service.utils.JwtTokenUtil;
 
@@ -36,6 +39,7 @@ public class PaymentController {
 
     private final PaymentService paymentService;
     private final TransactionQueueService transactionQueueService;
+    private final TransactionAdmissionService transactionAdmissionService;
     private final JwtTokenUtil jwtTokenUtil;
     private final AccountService accountService;
     private final AccountRepository accountRepository;
@@ -57,6 +61,7 @@ public class PaymentController {
             @RequestHeader("Authorization") String token) {
 
         Long clientId = jwtTokenUtil.getUserIdFromAuthHeader(token);
+        transactionAdmissionService.admit(TransactionType.CREATE_TRANSFER);
 
         try {
             transactionQueueService.queueTransaction(TransactionType.CREATE_TRANSFER, dto, clientId);
@@ -87,6 +92,7 @@ public class PaymentController {
             @Valid @RequestBody CreatePaymentDto dto,
             @RequestHeader("Authorization") String token) {
         Long clientId = jwtTokenUtil.getUserIdFromAuthHeader(token);
+        transactionAdmissionService.admit(TransactionType.CREATE_PAYMENT);
         try {
             transactionQueueService.queueTransaction(TransactionType.CREATE_PAYMENT, dto, clientId);
             return ResponseEntity.status(HttpStatus.OK).body("Payment created successfully.");
@@ -107,6 +113,7 @@ public class PaymentController {
     })
     public ResponseEntity<?> createIncomingExternalPayment(
             @Valid @RequestBody CreatePaymentDto dto) {
+        transactionAdmissionService.admit(TransactionType.DELAY_EXTERNAL_PAYMENT);
         try {
             PaymentDto payment = paymentService.initializeIncomingExternalPayment(dto);
             return ResponseEntity.status(HttpStatus.OK).body(payment);
@@ -139,6 +146,7 @@ public class PaymentController {
     @PostMapping("/tax")
     public ResponseEntity<?> handleTax(
             @RequestBody ExecutePaymentDto executePaymentDto) {
+        transactionAdmissionService.admit(TransactionType.SYSTEM_PAYMENT);
         try {
             Account stateAccount = companyAccountRepository.findByCompanyId(2L);
             executePaymentDto.getCreatePaymentDto().setReceiverAccountNumber(stateAccount.getAccountNumber());
@@ -160,6 +168,7 @@ public class PaymentController {
             @ApiResponse(responseCode = "500", description = "Internal server error while processing payment")
     })
     public ResponseEntity<String> confirmPayment(@PathVariable Long paymentId) {
+        transactionAdmissionService.admit(TransactionType.CONFIRM_PAYMENT);
         try {
             transactionQueueService.queueTransaction(TransactionType.CONFIRM_PAYMENT, paymentId);
             return ResponseEntity.status(HttpStatus.OK).body("Payment completed successfully.");
@@ -180,6 +189,7 @@ public class PaymentController {
             @ApiResponse(responseCode = "404", description = "Payment not found, or rejecting a non pending request."),
     })
     public ResponseEntity<String> rejectPayment(@PathVariable Long paymentId) {
+        transactionAdmissionService.admit(TransactionType.REJECT_PAYMENT);
         try {
             transactionQueueService.queueTransaction(TransactionType.REJECT_PAYMENT, paymentId);
             return ResponseEntity.status(HttpStatus.OK).body("Payment rejected successfully.");
@@ -188,6 +198,44 @@ public class PaymentController {
         }
     }
 
+    @PreAuthorize("hasRole('EMPLOYEE')")
+    @PostMapping("/review/{paymentId}/approve")
+    @Operation(summary = "Approve payment under review", description = "Releases a payment held by velocity rules back to client verification.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Payment released for verification"),
+            @ApiResponse(responseCode = "400", description = "Payment not found or not under review"),
+    })
+    public ResponseEntity<String> approveReviewedPayment(@PathVariable Long paymentId) {
+        try {
+            paymentService.approveReviewedPayment(paymentId);
+            return ResponseEntity.status(HttpStatus.OK).body("Payment released for verification.");
+        } catch (PaymentNotFoundException | RejectNonPendingRequestException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (JsonProcessingException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+
+    @PreAuthorize("hasRole('EMPLOYEE')")
+    @PostMapping("/review/{paymentId}/reject")
+    @Operation(summary = "Reject payment under review", description = "Cancels a payment held by velocity rules and releases the reserved funds.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Payment rejected successfully"),
+            @ApiResponse(responseCode = "400", description = "Payment not under review"),
+            @ApiResponse(responseCode = "404", description = "Payment not found"),
+    })
+    public ResponseEntity<String> rejectReviewedPayment(@PathVariable Long paymentId) {
+        transactionAdmissionService.admit(TransactionType.REJECT_PAYMENT);
+        try {
+            paymentService.rejectReviewedPayment(paymentId);
+            return ResponseEntity.status(HttpStatus.OK).body("Payment rejected successfully.");
+        } catch (PaymentNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (RejectNonPendingRequestException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
     @PreAuthorize("hasRole('CLIENT') or hasRole('EMPLOYEE')")
     @GetMapping
     @Operation(summary = "Get payments page filtered", description = "Get filtered page of payments.")
@@ -232,6 +280,7 @@ public class PaymentController {
     @PostMapping("/execute-system-payment")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> executeSystemPayment(@RequestBody ExecutePaymentDto dto) {
+        transactionAdmissionService.admit(TransactionType.SYSTEM_PAYMENT);
         try {
             transactionQueueService.queueTransaction(TransactionType.SYSTEM_PAYMENT, dto.getCreatePaymentDto(), dto.getClientId());
             return ResponseEntity.ok().build();
@@ -247,6 +296,13 @@ public class PaymentController {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
     }
 
+    @ExceptionHandler(TransactionBacklogException.class)
+    public ResponseEntity<String> handleTransactionBacklogException(TransactionBacklogException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(e.getMessage());
+    }
+
     @ExceptionHandler(UnauthorizedPaymentException.class)
     public ResponseEntity<String> handleUnauthorizedPaymentException(UnauthorizedPaymentException e) {
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage());
@@ -0,0 +1,23 @@
+package rs.raf.bank_service.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/// Denormalizovan pregled klijenta koji se cuva u Redis-u pod overview:client:{id}
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientOverviewDto {
+    private Long clientId;
+    private List<AccountDto> accounts;
+    private List<CardDto> cards;
+    private List<LoanShortDto> loans;
+    private List<PaymentOverviewDto> recentPayments;
+    private LocalDateTime builtAt;
+}
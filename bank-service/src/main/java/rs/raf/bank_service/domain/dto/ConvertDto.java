@@ -7,6 +7,7 @@ import lombok.Setter;
 
 import javax.validation.constraints.NotNull;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Getter
 @Setter
@@ -22,4 +23,11 @@ public class ConvertDto {
 
     @NotNull(message = "Amount cannot be null")
     private BigDecimal amount;
+
+    /// Ako je zadato, konvertuje se po kursu koji je vazio u tom trenutku
+    private LocalDateTime at;
+
+    public ConvertDto(String fromCurrencyCode, String toCurrencyCode, BigDecimal amount) {
+        this(fromCurrencyCode, toCurrencyCode, amount, null);
+    }
 }
@@ -23,6 +23,8 @@ public class PaymentDetailsDto {
     private String cardNumber;
     private String senderCurrencyCode;
     private String receiverCurrencyCode;
+    /// Prodajni kurs koji je vazio u trenutku placanja, samo za placanja izmedju razlicitih valuta
+    private BigDecimal exchangeRate;
 
     @Override
     public String toString() {
@@ -40,6 +42,7 @@ public class PaymentDetailsDto {
                 ", cardNumber='" + cardNumber + '\'' +
                 ", senderCurrencyCode='" + senderCurrencyCode + '\'' +
                 ", receiverCurrencyCode='" + receiverCurrencyCode + '\'' +
+                ", exchangeRate=" + exchangeRate +
                 '}';
     }
 }
\ No newline at end of file
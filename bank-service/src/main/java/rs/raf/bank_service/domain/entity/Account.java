@@ -16,6 +16,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity(name = "accounts")
+@Table(name = "accounts", indexes = @Index(name = "idx_accounts_client_id", columnList = "clientId"))
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @DiscriminatorColumn(name = "account_type", discriminatorType = DiscriminatorType.STRING)
 @Getter
@@ -61,7 +62,7 @@ public abstract class Account {
     private String externalId;
 
 
-    @OneToMany(mappedBy = "account", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "account", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Card> cards = new ArrayList<>();
 
     public Account(Long clientId, Long createdByEmployeeId, LocalDate creationDate, LocalDate expirationDate,
@@ -103,7 +104,6 @@ public abstract class Account {
                 ", monthlyLimit=" + monthlyLimit +
                 ", dailySpending=" + dailySpending +
                 ", monthlySpending=" + monthlySpending +
-                ", cards=" + cards +
                 '}';
     }
 }
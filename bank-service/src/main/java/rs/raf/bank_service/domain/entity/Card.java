@@ -12,12 +12,14 @@ import java.time.LocalDate;
 @Getter
 @Setter
 @Entity
+@Table(indexes = @Index(name = "idx_card_account_number", columnList = "account_number"))
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Card {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "card_seq")
+    @SequenceGenerator(name = "card_seq", sequenceName = "card_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, length = 16)
@@ -18,7 +18,8 @@ import java.time.LocalDateTime;
 @Builder
 public class CardRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "card_request_seq")
+    @SequenceGenerator(name = "card_request_seq", sequenceName = "card_request_seq", allocationSize = 50)
     private Long id;
 
     private Long clientId;
@@ -15,7 +15,8 @@ import java.math.BigDecimal;
 public class ChangeLimitRequest {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "change_limit_request_seq")
+    @SequenceGenerator(name = "change_limit_request_seq", sequenceName = "change_limit_request_seq", allocationSize = 50)
     private Long id;
 
     private String accountNumber;
@@ -0,0 +1,44 @@
+package rs.raf.bank_service.domain.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/// Verzija kursa koja vazi od validFrom do sledece verzije istog para. Redovi se samo dodaju, nikad ne menjaju,
+/// pa se svaka ranija konverzija moze ponoviti tacno.
+@Entity
+@Table(name = "exchange_rate_history", indexes = {
+        @Index(name = "idx_exchange_rate_history_pair_valid_from", columnList = "from_currency_code, to_currency_code, validFrom")
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ExchangeRateHistory {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "exchange_rate_history_seq")
+    @SequenceGenerator(name = "exchange_rate_history_seq", sequenceName = "exchange_rate_history_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "from_currency_code", nullable = false, updatable = false)
+    private Currency fromCurrency;
+
+    @ManyToOne
+    @JoinColumn(name = "to_currency_code", nullable = false, updatable = false)
+    private Currency toCurrency;
+
+    @Column(precision = 20, scale = 6, nullable = false, updatable = false)
+    private BigDecimal exchangeRate;
+
+    @Column(precision = 20, scale = 6, nullable = false, updatable = false)
+    private BigDecimal sellRate;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime validFrom;
+}
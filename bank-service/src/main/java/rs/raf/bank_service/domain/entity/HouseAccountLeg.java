@@ -0,0 +1,37 @@
+package rs.raf.bank_service.domain.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/// Neposlata promena stanja bankinog racuna u datoj valuti (netting mod za konverzije).
+/// Pozitivan iznos je priliv na bankin racun, negativan odliv. HouseAccountNettingService ih periodicno
+/// sabira po valuti i knjizi jednom promenom po racunu.
+@Entity
+@Table(name = "house_account_legs")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class HouseAccountLeg {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "house_account_leg_seq")
+    @SequenceGenerator(name = "house_account_leg_seq", sequenceName = "house_account_leg_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "currency_code")
+    private Currency currency;
+
+    @Column(nullable = false, precision = 20, scale = 6)
+    private BigDecimal amount;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+}
@@ -8,7 +8,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "installments")
+@Table(name = "installments", indexes = @Index(name = "idx_installments_loan_id", columnList = "loan_id"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -16,7 +16,8 @@ import java.time.LocalDate;
 @Builder
 public class Installment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "installment_seq")
+    @SequenceGenerator(name = "installment_seq", sequenceName = "installment_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
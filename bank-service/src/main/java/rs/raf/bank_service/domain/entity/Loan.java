@@ -11,7 +11,10 @@ import java.time.LocalDate;
 import java.util.List;
 
 @Entity
-@Table(name = "loans")
+@Table(name = "loans", indexes = {
+        @Index(name = "idx_loans_account_number", columnList = "account_number"),
+        @Index(name = "idx_loans_next_installment_date", columnList = "nextInstallmentDate")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -20,7 +23,8 @@ import java.util.List;
 public class Loan {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loan_seq")
+    @SequenceGenerator(name = "loan_seq", sequenceName = "loan_seq", allocationSize = 50)
     private Long id;
 
     private String loanNumber;
@@ -20,7 +20,8 @@ import java.time.LocalDateTime;
 @Builder
 public class LoanRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loan_request_seq")
+    @SequenceGenerator(name = "loan_request_seq", sequenceName = "loan_request_seq", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -7,14 +7,15 @@ import javax.persistence.*;
 @Getter
 @Setter
 @Entity
-@Table(name = "payees")
+@Table(name = "payees", indexes = @Index(name = "idx_payees_client_id", columnList = "clientId"))
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 public class Payee {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payee_seq")
+    @SequenceGenerator(name = "payee_seq", sequenceName = "payee_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -18,11 +18,17 @@ import java.time.LocalDateTime;
 @RequiredArgsConstructor
 @AllArgsConstructor
 @Entity(name = "payments")
+@Table(name = "payments", indexes = {
+        @Index(name = "idx_payments_client_date", columnList = "clientId, date"),
+        @Index(name = "idx_payments_receiver_client_date", columnList = "receiverClientId, date"),
+        @Index(name = "idx_payments_sender_account", columnList = "senderAccountNumber")
+})
 ///  TRANSAKCIJA
 public class Payment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_seq")
+    @SequenceGenerator(name = "payment_seq", sequenceName = "payment_seq", allocationSize = 50)
     private Long id;
 
     private String senderName;
@@ -0,0 +1,48 @@
+package rs.raf.bank_service.domain.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import rs.raf.bank_service.domain.enums.OutboxStatus;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/// Callback ka stock-service-u koji ceka slanje. Upisuje se u istoj transakciji kao i placanje,
+/// a PaymentCallbackRelay ga salje asinhrono sa ponovnim pokusajima.
+@Entity
+@Table(name = "payment_callback_outbox", indexes = @Index(name = "idx_callback_outbox_due", columnList = "status, nextAttemptAt"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PaymentCallbackOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_callback_outbox_seq")
+    @SequenceGenerator(name = "payment_callback_outbox_seq", sequenceName = "payment_callback_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long callbackId;
+
+    /// true -> /api/tracked-payment/success, false -> /api/tracked-payment/fail
+    @Column(nullable = false)
+    private boolean success;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxStatus status;
+
+    private int attempts;
+
+    private LocalDateTime nextAttemptAt;
+
+    private String lastError;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
+}
@@ -0,0 +1,5 @@
+package rs.raf.bank_service.domain.enums;
+
+public enum OutboxStatus {
+    PENDING, IN_FLIGHT, SENT, FAILED
+}
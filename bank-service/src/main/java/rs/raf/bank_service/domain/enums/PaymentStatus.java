@@ -1,5 +1,5 @@
 package rs.raf.bank_service.domain.enums;
 
 public enum PaymentStatus {
-    COMPLETED, CANCELED, PENDING_CONFIRMATION, PENDING, ROLLBACK
+    COMPLETED, CANCELED, PENDING_CONFIRMATION, PENDING, ROLLBACK, UNDER_REVIEW
 }
\ No newline at end of file
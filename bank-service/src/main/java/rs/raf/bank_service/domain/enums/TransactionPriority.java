@@ -0,0 +1,17 @@
+package rs.raf.bank_service.domain.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/// Interaktivne poruke (korisnik ceka odgovor) i batch poruke (rate, sistemska placanja, eksterna placanja).
+/// Level je AMQP prioritet poruke na transaction-queue, veci se isporucuje pre.
+@Getter
+@RequiredArgsConstructor
+public enum TransactionPriority {
+    INTERACTIVE(2),
+    BATCH(1);
+
+    public static final int MAX_LEVEL = 2;
+
+    private final int level;
+}
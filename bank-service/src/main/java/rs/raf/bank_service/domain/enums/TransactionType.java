@@ -1,19 +1,26 @@
 package rs.raf.bank_service.domain.enums;
 
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
 public enum TransactionType {
-    CONFIRM_PAYMENT,
-    CONFIRM_TRANSFER,
-    APPROVE_LOAN,
-    PAY_INSTALLMENT,
-    CREATE_PAYMENT,
-    CREATE_TRANSFER,
-    REJECT_PAYMENT,
+    CONFIRM_PAYMENT(TransactionPriority.INTERACTIVE),
+    CONFIRM_TRANSFER(TransactionPriority.INTERACTIVE),
+    APPROVE_LOAN(TransactionPriority.INTERACTIVE),
+    PAY_INSTALLMENT(TransactionPriority.BATCH),
+    CREATE_PAYMENT(TransactionPriority.INTERACTIVE),
+    CREATE_TRANSFER(TransactionPriority.INTERACTIVE),
+    REJECT_PAYMENT(TransactionPriority.INTERACTIVE),
 
-    RESERVE_BALANCE,
-    FREE_BALANCE,
-    UPDATE_BALANCE,
-    SYSTEM_PAYMENT,
-    DELAY_EXTERNAL_PAYMENT,
-    PROCESS_EXTERNAL_PAYMENT,
+    RESERVE_BALANCE(TransactionPriority.INTERACTIVE),
+    FREE_BALANCE(TransactionPriority.INTERACTIVE),
+    UPDATE_BALANCE(TransactionPriority.INTERACTIVE),
+    SYSTEM_PAYMENT(TransactionPriority.BATCH),
+    DELAY_EXTERNAL_PAYMENT(TransactionPriority.BATCH),
+    PROCESS_EXTERNAL_PAYMENT(TransactionPriority.BATCH),
+    SETTLE_HOUSE_ACCOUNTS(TransactionPriority.BATCH);
 
+    private final TransactionPriority priority;
 }
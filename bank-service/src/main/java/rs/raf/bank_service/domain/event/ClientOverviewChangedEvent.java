@@ -0,0 +1,12 @@
+package rs.raf.bank_service.domain.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/// Emituje se kada se promeni nesto sto ulazi u pregled klijenta (stanje racuna, placanja, krediti, kartice).
+/// ClientOverviewService osvezava read model tek posle commit-a transakcije koja je event objavila.
+@Getter
+@AllArgsConstructor
+public class ClientOverviewChangedEvent {
+    private final Long clientId;
+}
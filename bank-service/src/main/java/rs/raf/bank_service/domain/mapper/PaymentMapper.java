@@ -1,16 +1,21 @@
 package rs.raf.bank_service.domain.mapper;
 
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Component;
 import rs.raf.bank_service.domain.dto.PaymentDetailsDto;
 import rs.raf.bank_service.domain.dto.PaymentDto;
 import rs.raf.bank_service.domain.dto.PaymentOverviewDto;
 import rs.raf.bank_service.domain.entity.Account;
 import rs.raf.bank_service.domain.entity.Payment;
+import rs.raf.bank_service.domain.projection.AccountCurrencyView;
 import rs.raf.bank_service.exceptions.AccountNotFoundException;
 import rs.raf.bank_service.repository.AccountRepository;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Component
 @AllArgsConstructor
@@ -18,6 +23,25 @@ public class PaymentMapper {
     private final AccountRepository accountRepository;
 
     public PaymentOverviewDto toOverviewDto(Payment payment) {
+        Account receiverAccount = accountRepository.findByAccountNumber(payment.getAccountNumberReceiver()).orElse(null);
+        return toOverviewDto(payment, receiverAccount != null ? receiverAccount.getCurrency().getCode() : null);
+    }
+
+    // valute primalaca za celu stranu se dohvataju jednim upitom umesto po jednom za svako placanje
+    public Page<PaymentOverviewDto> toOverviewPage(Page<Payment> payments) {
+        Set<String> receiverAccountNumbers = payments.getContent().stream()
+                .map(Payment::getAccountNumberReceiver)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        Map<String, String> receiverCurrencies = receiverAccountNumbers.isEmpty() ? Map.of() :
+                accountRepository.findCurrencyCodesByAccountNumberIn(receiverAccountNumbers).stream()
+                        .collect(Collectors.toMap(AccountCurrencyView::getAccountNumber, AccountCurrencyView::getCurrencyCode));
+
+        return payments.map(payment -> toOverviewDto(payment, receiverCurrencies.get(payment.getAccountNumberReceiver())));
+    }
+
+    private PaymentOverviewDto toOverviewDto(Payment payment, String receiverCurrencyCode) {
         PaymentOverviewDto dto = new PaymentOverviewDto();
         dto.setId(payment.getId());
         dto.setSenderName(payment.getSenderName());
@@ -27,9 +51,7 @@ public class PaymentMapper {
         dto.setAmount(payment.getAmount());
         dto.setReceivedAmount(payment.getOutAmount());
         dto.setSenderCurrencyCode(payment.getSenderAccount().getCurrency().getCode());
-
-        Account receiverAccount = accountRepository.findByAccountNumber(payment.getAccountNumberReceiver()).orElse(null);
-        dto.setReceiverCurrencyCode(receiverAccount != null ? receiverAccount.getCurrency().getCode() : null);
+        dto.setReceiverCurrencyCode(receiverCurrencyCode);
 
         // Dodajte podatke o kartici
         if (payment.getCard() != null) {
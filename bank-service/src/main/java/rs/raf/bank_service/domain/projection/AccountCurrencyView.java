@@ -0,0 +1,8 @@
+package rs.raf.bank_service.domain.projection;
+
+/// Projekcija racuna na broj racuna i kod valute, za liste gde ne treba ceo Account.
+public interface AccountCurrencyView {
+    String getAccountNumber();
+
+    String getCurrencyCode();
+}
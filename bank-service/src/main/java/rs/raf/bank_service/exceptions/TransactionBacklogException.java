@@ -0,0 +1,13 @@
+package rs.raf.bank_service.exceptions;
+
+import lombok.Getter;
+
+@Getter
+public class TransactionBacklogException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public TransactionBacklogException(long retryAfterSeconds) {
+        super("Transaction queue is overloaded, retry in " + retryAfterSeconds + " seconds.");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -1,5 +1,9 @@
 package rs.raf.bank_service.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Lock;
@@ -8,8 +12,10 @@ import org.springframework.data.repository.query.Param;
 import rs.raf.bank_service.domain.entity.Account;
 import rs.raf.bank_service.domain.entity.CompanyAccount;
 import rs.raf.bank_service.domain.entity.Currency;
+import rs.raf.bank_service.domain.projection.AccountCurrencyView;
 
 import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,6 +36,14 @@ public interface AccountRepository extends JpaRepository<Account, Long>, JpaSpec
 
     boolean existsByNameAndClientId(String name, Long clientId);
 
+    // valuta se dovlaci u istom upitu umesto posebnog select-a po racunu
+    @Override
+    @EntityGraph(attributePaths = "currency")
+    Page<Account> findAll(Specification<Account> spec, Pageable pageable);
+
+    @Query("SELECT a.accountNumber AS accountNumber, a.currency.code AS currencyCode FROM accounts a WHERE a.accountNumber IN :accountNumbers")
+    List<AccountCurrencyView> findCurrencyCodesByAccountNumberIn(@Param("accountNumbers") Collection<String> accountNumbers);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT a FROM accounts a WHERE a.accountNumber = :accountNumber")
     Account findByIdForUpdate(@Param("accountNumber") String accountNumber);
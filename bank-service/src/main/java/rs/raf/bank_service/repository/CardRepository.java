@@ -14,4 +14,6 @@ public interface CardRepository extends JpaRepository<Card, Long> {
     List<Card> findByAccount_AccountNumber(String accountNumber);
 
     Optional<Card> findByCardNumber(String cardNumber);
+
+    List<Card> findByAccount_ClientId(Long clientId);
 }
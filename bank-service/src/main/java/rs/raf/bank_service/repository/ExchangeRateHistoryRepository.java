@@ -0,0 +1,10 @@
+package rs.raf.bank_service.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import rs.raf.bank_service.domain.entity.ExchangeRateHistory;
+
+import java.util.List;
+
+public interface ExchangeRateHistoryRepository extends JpaRepository<ExchangeRateHistory, Long> {
+    List<ExchangeRateHistory> findAllByOrderByValidFromAsc();
+}
@@ -0,0 +1,17 @@
+package rs.raf.bank_service.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import rs.raf.bank_service.domain.entity.HouseAccountLeg;
+
+import javax.persistence.LockModeType;
+import java.util.List;
+
+public interface HouseAccountLegRepository extends JpaRepository<HouseAccountLeg, Long> {
+
+    // zakljucani redovi se sabiraju i brisu u istoj transakciji, pa se nijedna stavka ne knjizi dva puta
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM HouseAccountLeg l")
+    List<HouseAccountLeg> findAllForSettlement();
+}
@@ -4,7 +4,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import rs.raf.bank_service.domain.dto.LoanShortDto;
 import rs.raf.bank_service.domain.entity.Account;
 import rs.raf.bank_service.domain.entity.Loan;
 import rs.raf.bank_service.domain.enums.LoanStatus;
@@ -17,6 +20,12 @@ import java.util.List;
 public interface LoanRepository extends JpaRepository<Loan, Long>, JpaSpecificationExecutor<Loan> {
     Page<Loan> findByAccountIn(Collection<Account> accounts, Pageable pageable);
 
+    // lista kredita klijenta bez ucitavanja racuna, kartica i valute
+    @Query(value = "SELECT new rs.raf.bank_service.domain.dto.LoanShortDto(l.id, l.loanNumber, l.type, l.amount) " +
+            "FROM Loan l WHERE l.account.clientId = :clientId",
+            countQuery = "SELECT count(l) FROM Loan l WHERE l.account.clientId = :clientId")
+    Page<LoanShortDto> findShortByClientId(@Param("clientId") Long clientId, Pageable pageable);
+
     List<Loan> findByStatus(LoanStatus loanStatus);
 
     List<Loan> findByNextInstallmentDate(LocalDate localDate);
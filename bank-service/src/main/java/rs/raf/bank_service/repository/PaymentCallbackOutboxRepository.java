@@ -0,0 +1,24 @@
+package rs.raf.bank_service.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.QueryHints;
+import rs.raf.bank_service.domain.entity.PaymentCallbackOutbox;
+import rs.raf.bank_service.domain.enums.OutboxStatus;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface PaymentCallbackOutboxRepository extends JpaRepository<PaymentCallbackOutbox, Long> {
+
+    // SELECT ... FOR UPDATE SKIP LOCKED (-2), vise instanci relay-a ne uzima iste redove
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    List<PaymentCallbackOutbox> findByStatusInAndNextAttemptAtLessThanEqualOrderByIdAsc(Collection<OutboxStatus> statuses, LocalDateTime now, Pageable pageable);
+
+    long countByStatus(OutboxStatus status);
+}
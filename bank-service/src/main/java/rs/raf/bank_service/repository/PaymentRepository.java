@@ -1,11 +1,16 @@
 package rs.raf.bank_service.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import rs.raf.bank_service.domain.entity.Payment;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
 public interface PaymentRepository extends JpaRepository<Payment, Long>, JpaSpecificationExecutor<Payment> {
@@ -14,4 +19,11 @@ public interface PaymentRepository extends JpaRepository<Payment, Long>, JpaSpec
     @Query("SELECT SUM(p.exchangeProfit) FROM payments p WHERE p.exchangeProfit IS NOT NULL AND p.status = 'COMPLETED'")
     BigDecimal getBankProfitFromExchange();
 
-}
\ No newline at end of file
+    // pregled placanja: racun posiljaoca, njegova valuta i kartica u jednom upitu
+    @Override
+    @EntityGraph(attributePaths = {"senderAccount", "senderAccount.currency", "card"})
+    Page<Payment> findAll(Specification<Payment> spec, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"senderAccount", "senderAccount.currency", "card"})
+    List<Payment> findByClientIdOrReceiverClientIdOrderByDateDesc(Long clientId, Long receiverClientId, Pageable pageable);
+}
@@ -6,6 +6,7 @@ import feign.FeignException;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -16,6 +17,7 @@ import rs.raf.bank_service.domain.dto.*;
 import rs.raf.bank_service.domain.entity.*;
 import rs.raf.bank_service.domain.entity.Currency;
 import rs.raf.bank_service.domain.enums.*;
+import rs.raf.bank_service.domain.event.ClientOverviewChangedEvent;
 import rs.raf.bank_service.domain.mapper.AccountMapper;
 import rs.raf.bank_service.exceptions.*;
 import rs.raf.bank_service.repository.AccountRepository;
@@ -44,6 +46,7 @@ public class AccountService {
     @Autowired
     private final UserClient userClient;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     public Page<AccountDto> getBankAccounts(Pageable pageable) {
         CompanyAccount stateAccount = companyAccountRepository.findByCompanyId(2L);
@@ -189,7 +192,9 @@ public class AccountService {
         String accountNumber = "3330000" + random + accountOwnerTypeNumber;
         newAccount.setAccountNumber(accountNumber);
 
-        return AccountMapper.toDto(accountRepository.save(newAccount), clientDto);
+        Account saved = accountRepository.save(newAccount);
+        eventPublisher.publishEvent(new ClientOverviewChangedEvent(saved.getClientId()));
+        return AccountMapper.toDto(saved, clientDto);
     }
 
     public List<AccountDto> getMyAccounts(Long clientId) {
@@ -300,6 +305,7 @@ public class AccountService {
         System.out.println(">>> Changing account name from '" + account.getName() + "' to '" + newName + "'");
         account.setName(newName);
         accountRepository.save(account);
+        eventPublisher.publishEvent(new ClientOverviewChangedEvent(account.getClientId()));
 
         System.out.println(">>> SUCCESS: Account name changed to '" + newName + "'");
     }
@@ -357,6 +363,7 @@ public class AccountService {
 
         account.setDailyLimit(request.getNewLimit());
         accountRepository.save(account);
+        eventPublisher.publishEvent(new ClientOverviewChangedEvent(account.getClientId()));
 
 
         request.setStatus(VerificationStatus.APPROVED);
@@ -405,6 +412,7 @@ public class AccountService {
         //  Postavi authorizedPersonId i sačuvaj
         companyAccount.setAuthorizedPersonId(authorizedPerson.getId());
         accountRepository.save(companyAccount);
+        eventPublisher.publishEvent(new ClientOverviewChangedEvent(companyAccount.getClientId()));
 
         System.out.println("Uspešno postavljeno ovlašćeno lice " + authorizedPerson.getFirstName() + " za račun " + accountId);
 
@@ -6,6 +6,7 @@ import io.swagger.v3.oas.annotations.Parameter;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import rs.raf.bank_service.client.UserClient;
 import rs.raf.bank_service.domain.dto.*;
@@ -13,6 +14,7 @@ import rs.raf.bank_service.domain.entity.Account;
 import rs.raf.bank_service.domain.entity.Card;
 import rs.raf.bank_service.domain.entity.CardRequest;
 import rs.raf.bank_service.domain.enums.*;
+import rs.raf.bank_service.domain.event.ClientOverviewChangedEvent;
 import rs.raf.bank_service.domain.mapper.AccountMapper;
 import rs.raf.bank_service.domain.mapper.CardMapper;
 import rs.raf.bank_service.exceptions.*;
@@ -41,6 +43,7 @@ public class CardService {
     private final JwtTokenUtil jwtTokenUtil;
     private final CardRequestRepository CardRequestRepository;
     private final CardRequestRepository cardRequestRepository;
+    private final ApplicationEventPublisher eventPublisher;
     AccountMapper accountMapper;
     ObjectMapper objectMapper;
 
@@ -82,6 +85,7 @@ public class CardService {
         card.setCardLimit(createCardDto.getCardLimit());
 
         cardRepository.save(card);
+        eventPublisher.publishEvent(new ClientOverviewChangedEvent(account.getClientId()));
 
         return CardMapper.toCardDtoNoOwner(card);
     }
@@ -165,6 +169,7 @@ public class CardService {
 
         card.setStatus(newStatus);
         cardRepository.save(card);
+        eventPublisher.publishEvent(new ClientOverviewChangedEvent(card.getAccount().getClientId()));
 
         ClientDto owner = userClient.getClientById(card.getAccount().getClientId());
 
@@ -219,6 +224,7 @@ public class CardService {
 
         card.setStatus(CardStatus.BLOCKED);
         cardRepository.save(card);
+        eventPublisher.publishEvent(new ClientOverviewChangedEvent(clientId));
 
         ClientDto owner = userClient.getClientById(card.getAccount().getClientId());
         EmailRequestDto emailRequestDto = new EmailRequestDto();
@@ -309,6 +315,7 @@ public class CardService {
         card.setCardLimit(cardRequest.getCardLimit());
 
         cardRepository.save(card);
+        eventPublisher.publishEvent(new ClientOverviewChangedEvent(account.getClientId()));
 
         log.info("Card created for request {} and client {}", id, cardRequest.getClientId());
     }
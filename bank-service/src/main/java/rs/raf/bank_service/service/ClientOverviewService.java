@@ -0,0 +1,214 @@
+package rs.raf.bank_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import rs.raf.bank_service.domain.dto.AccountDto;
+import rs.raf.bank_service.domain.dto.CardDto;
+import rs.raf.bank_service.domain.dto.ClientOverviewDto;
+import rs.raf.bank_service.domain.entity.Card;
+import rs.raf.bank_service.domain.event.ClientOverviewChangedEvent;
+import rs.raf.bank_service.domain.mapper.AccountMapper;
+import rs.raf.bank_service.domain.mapper.CardMapper;
+import rs.raf.bank_service.domain.mapper.PaymentMapper;
+import rs.raf.bank_service.repository.AccountRepository;
+import rs.raf.bank_service.repository.CardRepository;
+import rs.raf.bank_service.repository.LoanRepository;
+import rs.raf.bank_service.repository.PaymentRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/// Read model pregleda klijenta: racuni, kartice, krediti i poslednja placanja u jednom Redis kljucu.
+/// Dokument se osvezava posle commit-a transakcije koja je objavila ClientOverviewChangedEvent (spojeno po klijentu,
+/// van niti placanja), a ako ga nema u kesu gradi se iz baze.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClientOverviewService {
+
+    private static final String PREFIX = "overview:client:";
+    /// Skup klijenata cije je pregled u kesu, da provera konzistentnosti ne bi koristila KEYS
+    private static final String INDEX_KEY = "overview:clients";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final AccountRepository accountRepository;
+    private final CardRepository cardRepository;
+    private final LoanRepository loanRepository;
+    private final PaymentRepository paymentRepository;
+    private final PaymentMapper paymentMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    @Value("${overview.ttl-minutes:30}")
+    private long ttlMinutes;
+
+    @Value("${overview.recent-payments:10}")
+    private int recentPayments;
+
+    @Transactional(readOnly = true)
+    public ClientOverviewDto getOverview(Long clientId) {
+        ClientOverviewDto cached = read(clientId);
+        if (cached != null) {
+            return cached;
+        }
+
+        ClientOverviewDto overview = build(clientId);
+        write(overview);
+        return overview;
+    }
+
+    /// Samo belezi klijenta; pregled se gradi kasnije u refreshPending, van niti koja je obradila placanje.
+    /// Vise promena istog klijenta pre osvezavanja (npr. oba racuna iz jednog placanja) se spajaju u jedno.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOverviewChanged(ClientOverviewChangedEvent event) {
+        if (event.getClientId() == null) return;
+        pending.add(event.getClientId());
+    }
+
+    @Scheduled(fixedDelayString = "${overview.refresh-delay-ms:200}")
+    public void refreshPending() {
+        Iterator<Long> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            Long clientId = iterator.next();
+            iterator.remove();
+            refresh(clientId);
+        }
+    }
+
+    // u novoj transakciji bez readOnly: cita odmah posle commit-a, pa mora na primary (replika moze da kasni)
+    private void refresh(Long clientId) {
+        try {
+            ClientOverviewDto overview = transactionTemplate.execute(status -> build(clientId));
+            write(overview);
+        } catch (RuntimeException e) {
+            // sledece citanje ce izgraditi pregled iz baze
+            log.warn("Failed to refresh overview for client {}: {}", clientId, e.getMessage());
+            evict(clientId);
+        }
+    }
+
+    /// Poredi kesirane preglede sa bazom i ispravlja one koji su se razisli (npr. izgubljen event)
+    @Scheduled(fixedDelayString = "${overview.consistency-check-ms:300000}")
+    @Transactional
+    public void checkConsistency() {
+        Set<String> clientIds;
+        try {
+            clientIds = redisTemplate.opsForSet().members(INDEX_KEY);
+        } catch (RuntimeException e) {
+            log.warn("Overview consistency check skipped: {}", e.getMessage());
+            return;
+        }
+        if (clientIds == null || clientIds.isEmpty()) return;
+
+        int repaired = 0;
+        for (String id : clientIds) {
+            Long clientId = Long.valueOf(id);
+            ClientOverviewDto cached = read(clientId);
+            if (cached == null) {
+                redisTemplate.opsForSet().remove(INDEX_KEY, id);
+                continue;
+            }
+
+            ClientOverviewDto fresh = build(clientId);
+            if (!Objects.equals(fingerprint(cached), fingerprint(fresh))) {
+                write(fresh);
+                repaired++;
+            }
+        }
+
+        if (repaired > 0) {
+            log.warn("Overview consistency check repaired {} of {} cached overviews", repaired, clientIds.size());
+        }
+    }
+
+    public void evict(Long clientId) {
+        try {
+            redisTemplate.delete(PREFIX + clientId);
+            redisTemplate.opsForSet().remove(INDEX_KEY, clientId.toString());
+        } catch (RuntimeException e) {
+            log.warn("Failed to evict overview for client {}: {}", clientId, e.getMessage());
+        }
+    }
+
+    private ClientOverviewDto build(Long clientId) {
+        Pageable lastPayments = PageRequest.of(0, recentPayments);
+
+        return ClientOverviewDto.builder()
+                .clientId(clientId)
+                .accounts(accountRepository.findAllByClientId(clientId).stream()
+                        .map(account -> AccountMapper.toDto(account, null))
+                        .sorted(Comparator.comparing(AccountDto::getAvailableBalance,
+                                Comparator.nullsLast(Comparator.naturalOrder())).reversed())
+                        .collect(Collectors.toList()))
+                .cards(cardRepository.findByAccount_ClientId(clientId).stream()
+                        .map(this::toCachedCard)
+                        .collect(Collectors.toList()))
+                .loans(loanRepository.findShortByClientId(clientId, Pageable.unpaged()).getContent())
+                .recentPayments(paymentMapper.toOverviewPage(new PageImpl<>(
+                        paymentRepository.findByClientIdOrReceiverClientIdOrderByDateDesc(clientId, clientId, lastPayments)))
+                        .getContent())
+                .builtAt(LocalDateTime.now())
+                .build();
+    }
+
+    private CardDto toCachedCard(Card card) {
+        CardDto dto = CardMapper.toDto(card, null);
+        // CVV ne izlazi iz baze u kes
+        dto.setCvv(null);
+        return dto;
+    }
+
+    private ClientOverviewDto read(Long clientId) {
+        try {
+            String json = redisTemplate.opsForValue().get(PREFIX + clientId);
+            return json != null ? objectMapper.readValue(json, ClientOverviewDto.class) : null;
+        } catch (JsonProcessingException e) {
+            log.warn("Corrupt overview for client {}, rebuilding", clientId);
+            return null;
+        } catch (RuntimeException e) {
+            log.warn("Overview cache unavailable: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void write(ClientOverviewDto overview) {
+        try {
+            String json = objectMapper.writeValueAsString(overview);
+            redisTemplate.opsForValue().set(PREFIX + overview.getClientId(), json, Duration.ofMinutes(ttlMinutes));
+            redisTemplate.opsForSet().add(INDEX_KEY, overview.getClientId().toString());
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize ClientOverviewDto", e);
+        } catch (RuntimeException e) {
+            log.warn("Overview cache unavailable: {}", e.getMessage());
+        }
+    }
+
+    private String fingerprint(ClientOverviewDto overview) {
+        try {
+            ClientOverviewDto copy = overview.toBuilder().builtAt(null).build();
+            return objectMapper.writeValueAsString(copy);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize ClientOverviewDto", e);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package rs.raf.bank_service.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import rs.raf.bank_service.domain.entity.ExchangeRate;
+import rs.raf.bank_service.domain.entity.ExchangeRateHistory;
+import rs.raf.bank_service.exceptions.ExchangeRateNotFoundException;
+import rs.raf.bank_service.repository.ExchangeRateHistoryRepository;
+import rs.raf.bank_service.repository.ExchangeRateRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/// Istorija kurseva za konverzije "na dan". Svaka promena kursa se dodaje kao nova verzija u exchange_rate_history
+/// (osvezavanje sa istim kursom ne pravi novu verziju),
+/// a u memoriji se za svaki par drzi mapa validFrom -> kurs, pa je lookup floorEntry bez upita ka bazi.
+/// Indeks se puni na startu; kursevi koji jos nemaju istoriju (BootstrapData) dobijaju prvu verziju od updatedAt.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExchangeRateHistoryService {
+
+    private static final String BASE_CURRENCY = "RSD";
+
+    private final ExchangeRateHistoryRepository exchangeRateHistoryRepository;
+    private final ExchangeRateRepository exchangeRateRepository;
+
+    private final Map<String, NavigableMap<LocalDateTime, RateVersion>> index = new ConcurrentHashMap<>();
+
+    @Getter
+    @AllArgsConstructor
+    public static class RateVersion {
+        private final BigDecimal exchangeRate;
+        private final BigDecimal sellRate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        index.clear();
+        for (ExchangeRateHistory version : exchangeRateHistoryRepository.findAllByOrderByValidFromAsc()) {
+            put(version);
+        }
+
+        int backfilled = 0;
+        for (ExchangeRate rate : exchangeRateRepository.findAll()) {
+            if (!index.containsKey(key(rate.getFromCurrency().getCode(), rate.getToCurrency().getCode()))) {
+                record(rate, rate.getUpdatedAt() != null ? rate.getUpdatedAt() : LocalDateTime.now());
+                backfilled++;
+            }
+        }
+        log.info("Loaded exchange rate history for {} currency pairs ({} backfilled)", index.size(), backfilled);
+    }
+
+    /// Dodaje novu verziju kursa koja vazi od validFrom, samo ako se kurs razlikuje od verzije koja tada vec vazi
+    public boolean record(ExchangeRate rate, LocalDateTime validFrom) {
+        RateVersion current = find(rate.getFromCurrency().getCode(), rate.getToCurrency().getCode(), validFrom);
+        if (current != null
+                && current.getExchangeRate().compareTo(rate.getExchangeRate()) == 0
+                && current.getSellRate().compareTo(rate.getSellRate()) == 0) {
+            return false;
+        }
+
+        ExchangeRateHistory version = exchangeRateHistoryRepository.save(ExchangeRateHistory.builder()
+                .fromCurrency(rate.getFromCurrency())
+                .toCurrency(rate.getToCurrency())
+                .exchangeRate(rate.getExchangeRate())
+                .sellRate(rate.getSellRate())
+                .validFrom(validFrom)
+                .build());
+        put(version);
+        return true;
+    }
+
+    /// Kurs koji je vazio u trenutku at, direktno ili preko RSD kao i ExchangeRateService.getExchangeRate
+    public RateVersion getRateAt(String fromCurrencyCode, String toCurrencyCode, LocalDateTime at) {
+        RateVersion direct = find(fromCurrencyCode, toCurrencyCode, at);
+        if (direct != null) {
+            return direct;
+        }
+
+        RateVersion toBase = find(fromCurrencyCode, BASE_CURRENCY, at);
+        RateVersion fromBase = find(BASE_CURRENCY, toCurrencyCode, at);
+        if (toBase != null && fromBase != null) {
+            return new RateVersion(
+                    toBase.getExchangeRate().multiply(fromBase.getExchangeRate()),
+                    toBase.getSellRate().multiply(fromBase.getSellRate()));
+        }
+
+        throw new ExchangeRateNotFoundException(fromCurrencyCode, toCurrencyCode);
+    }
+
+    public BigDecimal convert(BigDecimal amount, String fromCurrencyCode, String toCurrencyCode, LocalDateTime at) {
+        if (fromCurrencyCode.equals(toCurrencyCode)) {
+            return amount;
+        }
+        return amount.multiply(getRateAt(fromCurrencyCode, toCurrencyCode, at).getExchangeRate());
+    }
+
+    private RateVersion find(String fromCurrencyCode, String toCurrencyCode, LocalDateTime at) {
+        NavigableMap<LocalDateTime, RateVersion> versions = index.get(key(fromCurrencyCode, toCurrencyCode));
+        if (versions == null) {
+            return null;
+        }
+        Map.Entry<LocalDateTime, RateVersion> entry = versions.floorEntry(at);
+        return entry != null ? entry.getValue() : null;
+    }
+
+    private void put(ExchangeRateHistory version) {
+        index.computeIfAbsent(key(version.getFromCurrency().getCode(), version.getToCurrency().getCode()),
+                        k -> new ConcurrentSkipListMap<>())
+                .put(version.getValidFrom(), new RateVersion(version.getExchangeRate(), version.getSellRate()));
+    }
+
+    private static String key(String fromCurrencyCode, String toCurrencyCode) {
+        return fromCurrencyCode + ":" + toCurrencyCode;
+    }
+}
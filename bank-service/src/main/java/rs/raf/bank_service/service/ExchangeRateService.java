@@ -19,6 +19,7 @@ import rs.raf.bank_service.repository.ExchangeRateRepository;
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -32,6 +33,7 @@ public class ExchangeRateService {
     private final ExchangeRateRepository exchangeRateRepository;
     private final CurrencyRepository currencyRepository;
     private final ExchangeRateClient exchangeRateClient;
+    private final ExchangeRateHistoryService exchangeRateHistoryService;
 
     public void updateExchangeRates() {
         UpdateExchangeRateDto response = null;
@@ -52,6 +54,7 @@ public class ExchangeRateService {
         }
 
         Map<String, BigDecimal> conversionRates = response.getConversionRates();
+        LocalDateTime validFrom = LocalDateTime.now();
 
         for (String currencyCode : conversionRates.keySet()) {
             //Ne znam da li treba ili ne treba da se cuva ExchangeRate Valute u istu Valutu - ako treba izbrisati
@@ -77,6 +80,7 @@ public class ExchangeRateService {
 
             exchangeRate.setSellRate(rate.multiply(new BigDecimal("1.01")));
             exchangeRateRepository.save(exchangeRate);
+            exchangeRateHistoryService.record(exchangeRate, validFrom);
 
             ExchangeRate mirrored = ExchangeRate.builder()
                     .fromCurrency(exchangeRate.getToCurrency())
@@ -88,6 +92,7 @@ public class ExchangeRateService {
                     .build();
 
             exchangeRateRepository.save(mirrored);
+            exchangeRateHistoryService.record(mirrored, validFrom);
         }
 
 
@@ -110,7 +115,10 @@ public class ExchangeRateService {
 
 
     public BigDecimal convert(ConvertDto convertDto) {
-
+        if (convertDto.getAt() != null) {
+            return exchangeRateHistoryService.convert(convertDto.getAmount(), convertDto.getFromCurrencyCode(),
+                    convertDto.getToCurrencyCode(), convertDto.getAt());
+        }
 
         ExchangeRateDto exchangeRateDto = getExchangeRate(convertDto.getFromCurrencyCode(), convertDto.getToCurrencyCode());
 
@@ -0,0 +1,86 @@
+package rs.raf.bank_service.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import rs.raf.bank_service.domain.entity.CompanyAccount;
+import rs.raf.bank_service.domain.entity.Currency;
+import rs.raf.bank_service.domain.entity.HouseAccountLeg;
+import rs.raf.bank_service.domain.enums.TransactionType;
+import rs.raf.bank_service.exceptions.BankAccountNotFoundException;
+import rs.raf.bank_service.repository.AccountRepository;
+import rs.raf.bank_service.repository.HouseAccountLegRepository;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/// Netting bankinih (house) strana konverzija: umesto dva update-a CompanyAccount-a po placanju,
+/// svaka strana se upisuje kao HouseAccountLeg u istoj transakciji kao i placanje,
+/// a settle() jednom po intervalu knjizi neto iznos po valuti.
+/// Settle ide kroz transaction queue kao i sve ostale promene stanja, pa ga izvrsava isti consumer koji menja
+/// bankine racune za placanja i kredite i ne moze da pregazi njihov upis (Account nema @Version).
+/// Stanje bankinih racuna u tom intervalu kasni za najvise payment.netting.settle-interval-ms plus cekanje u redu.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HouseAccountNettingService {
+
+    private static final Long BANK_COMPANY_ID = 1L;
+
+    private final HouseAccountLegRepository legRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionQueueService transactionQueueService;
+
+    @Value("${payment.netting.enabled:false}")
+    private boolean enabled;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void record(Currency currency, BigDecimal amount) {
+        legRepository.save(HouseAccountLeg.builder()
+                .currency(currency)
+                .amount(amount)
+                .build());
+    }
+
+    @Scheduled(fixedDelayString = "${payment.netting.settle-interval-ms:60000}")
+    public void requestSettlement() {
+        if (legRepository.count() == 0) return;
+        transactionQueueService.queueTransaction(TransactionType.SETTLE_HOUSE_ACCOUNTS, BANK_COMPANY_ID);
+    }
+
+    /// Poziva ga TransactionProcessor za SETTLE_HOUSE_ACCOUNTS
+    @Transactional
+    public void settle() {
+        List<HouseAccountLeg> legs = legRepository.findAllForSettlement();
+        if (legs.isEmpty()) return;
+
+        Map<String, BigDecimal> net = new LinkedHashMap<>();
+        Map<String, Currency> currencies = new LinkedHashMap<>();
+        for (HouseAccountLeg leg : legs) {
+            String code = leg.getCurrency().getCode();
+            net.merge(code, leg.getAmount(), BigDecimal::add);
+            currencies.putIfAbsent(code, leg.getCurrency());
+        }
+
+        net.forEach((code, amount) -> {
+            if (amount.signum() == 0) return;
+
+            CompanyAccount bankAccount = accountRepository.findFirstByCurrencyAndCompanyId(currencies.get(code), BANK_COMPANY_ID)
+                    .orElseThrow(() -> new BankAccountNotFoundException("No bank account found for currency: " + code));
+            bankAccount.setBalance(bankAccount.getBalance().add(amount));
+            bankAccount.setAvailableBalance(bankAccount.getAvailableBalance().add(amount));
+            accountRepository.save(bankAccount);
+        });
+
+        legRepository.deleteAllInBatch(legs);
+        log.info("Settled {} house account legs into {} currency postings: {}", legs.size(), net.size(), net);
+    }
+}
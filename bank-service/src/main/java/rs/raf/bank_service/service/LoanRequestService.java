@@ -1,6 +1,7 @@
 package rs.raf.bank_service.service;
 
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -14,6 +15,7 @@ import rs.raf.bank_service.domain.enums.InstallmentStatus;
 import rs.raf.bank_service.domain.enums.LoanRequestStatus;
 import rs.raf.bank_service.domain.enums.LoanStatus;
 import rs.raf.bank_service.domain.enums.LoanType;
+import rs.raf.bank_service.domain.event.ClientOverviewChangedEvent;
 import rs.raf.bank_service.domain.mapper.LoanMapper;
 import rs.raf.bank_service.domain.mapper.LoanRequestMapper;
 import rs.raf.bank_service.exceptions.AccountNotFoundException;
@@ -42,6 +44,7 @@ public class LoanRequestService {
     private final CurrencyRepository currencyRepository;
     private final InstallmentRepository installmentRepository;
     private final JwtTokenUtil jwtTokenUtil;
+    private final ApplicationEventPublisher eventPublisher;
 
     public LoanDto returnLoanDto(Long id) {
         LoanRequest loanRequest = loanRequestRepository.findByIdAndStatus(id, LoanRequestStatus.PENDING)
@@ -121,6 +124,7 @@ public class LoanRequestService {
         loanRepository.save(loan);
         installmentRepository.save(installment);
 
+        eventPublisher.publishEvent(new ClientOverviewChangedEvent(userAccount.getClientId()));
         return loanMapper.toDto(loan);
     }
 
@@ -2,6 +2,7 @@ package rs.raf.bank_service.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -15,6 +16,7 @@ import rs.raf.bank_service.domain.entity.CompanyAccount;
 import rs.raf.bank_service.domain.entity.Installment;
 import rs.raf.bank_service.domain.entity.Loan;
 import rs.raf.bank_service.domain.enums.*;
+import rs.raf.bank_service.domain.event.ClientOverviewChangedEvent;
 import rs.raf.bank_service.domain.mapper.InstallmentMapper;
 import rs.raf.bank_service.domain.mapper.LoanMapper;
 import rs.raf.bank_service.exceptions.BankAccountNotFoundException;
@@ -51,6 +53,7 @@ public class LoanService {
     private final InstallmentRepository installmentRepository;
     private final InstallmentMapper installmentMapper;
     private final TransactionQueueService transactionQueueService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<InstallmentDto> getLoanInstallments(Long loanId) {
         return installmentRepository.findByLoanId(loanId).stream().map(installmentMapper::toDto).collect(Collectors.toList());
@@ -58,9 +61,8 @@ public class LoanService {
 
     public Page<LoanShortDto> getClientLoans(String authHeader, Pageable pageable) {
         Long clientId = jwtTokenUtil.getUserIdFromAuthHeader(authHeader);
-        List<Account> accounts = accountRepository.findByClientId(clientId);
 
-        return loanRepository.findByAccountIn(accounts, pageable).map(loanMapper::toShortDto);
+        return loanRepository.findShortByClientId(clientId, pageable);
     }
 
     public Optional<LoanDto> getLoanById(Long id) {
@@ -142,6 +144,7 @@ public class LoanService {
         }
 
         loanRepository.save(loan);
+        eventPublisher.publishEvent(new ClientOverviewChangedEvent(account.getClientId()));
     }
 
 //    @Scheduled(cron = "*/15 * * * * *")
@@ -216,6 +219,7 @@ public class LoanService {
             }
 
             loanRepository.save(loan);
+            eventPublisher.publishEvent(new ClientOverviewChangedEvent(currAccount.getClientId()));
 
         } else {
             EmailRequestDto emailRequestDto = new EmailRequestDto();
@@ -0,0 +1,108 @@
+package rs.raf.bank_service.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import rs.raf.bank_service.client.StockClient;
+import rs.raf.bank_service.domain.dto.TrackedPaymentNotifyDto;
+import rs.raf.bank_service.domain.entity.PaymentCallbackOutbox;
+import rs.raf.bank_service.domain.enums.OutboxStatus;
+import rs.raf.bank_service.repository.PaymentCallbackOutboxRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/// Salje callback-ove iz outbox-a ka stock-service-u u batch-evima.
+/// Redovi se preuzimaju u kratkoj transakciji (IN_FLIGHT sa rokom leaseMs), salju van nje, a ishod svakog se upisuje
+/// posebno, pa zakljucani redovi i konekcija iz pool-a ne cekaju na stock-service. Red ciji je rok istekao (pad
+/// instance usred slanja) ponovo je dostupan, tj. isporuka je at-least-once kao i ranije.
+/// Neuspeli pokusaji se ponavljaju sa eksponencijalnim backoff-om, posle maxAttempts red ostaje FAILED.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PaymentCallbackRelay {
+
+    private final PaymentCallbackOutboxRepository outboxRepository;
+    private final StockClient stockClient;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${callback.relay.batch-size:50}")
+    private int batchSize;
+
+    @Value("${callback.relay.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${callback.relay.base-backoff-ms:1000}")
+    private long baseBackoffMs;
+
+    @Value("${callback.relay.max-backoff-ms:300000}")
+    private long maxBackoffMs;
+
+    @Value("${callback.relay.lease-ms:60000}")
+    private long leaseMs;
+
+    @Scheduled(fixedDelayString = "${callback.relay.interval-ms:1000}")
+    public void relayPending() {
+        List<PaymentCallbackOutbox> batch = claim(LocalDateTime.now());
+        if (batch.isEmpty()) return;
+
+        int sent = 0;
+        for (PaymentCallbackOutbox callback : batch) {
+            if (send(callback, LocalDateTime.now())) sent++;
+            outboxRepository.save(callback);
+        }
+
+        log.info("Relayed {}/{} payment callbacks to stock-service", sent, batch.size());
+    }
+
+    private List<PaymentCallbackOutbox> claim(LocalDateTime now) {
+        return transactionTemplate.execute(status -> {
+            List<PaymentCallbackOutbox> batch = outboxRepository.findByStatusInAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                    List.of(OutboxStatus.PENDING, OutboxStatus.IN_FLIGHT), now, PageRequest.of(0, batchSize));
+            for (PaymentCallbackOutbox callback : batch) {
+                callback.setStatus(OutboxStatus.IN_FLIGHT);
+                callback.setNextAttemptAt(now.plusNanos(leaseMs * 1_000_000));
+            }
+            return outboxRepository.saveAll(batch);
+        });
+    }
+
+    private boolean send(PaymentCallbackOutbox callback, LocalDateTime now) {
+        TrackedPaymentNotifyDto dto = new TrackedPaymentNotifyDto(callback.getCallbackId());
+        try {
+            if (callback.isSuccess()) {
+                stockClient.notifySuccess(dto);
+            } else {
+                stockClient.notifyFail(dto);
+            }
+            callback.setStatus(OutboxStatus.SENT);
+            callback.setSentAt(now);
+            callback.setLastError(null);
+            return true;
+        } catch (Exception e) {
+            int attempts = callback.getAttempts() + 1;
+            callback.setAttempts(attempts);
+            callback.setLastError(e.getMessage() == null ? e.getClass().getSimpleName()
+                    : e.getMessage().substring(0, Math.min(255, e.getMessage().length())));
+
+            if (attempts >= maxAttempts) {
+                callback.setStatus(OutboxStatus.FAILED);
+                log.error("Giving up on callback {} after {} attempts: {}", callback.getCallbackId(), attempts, e.getMessage());
+            } else {
+                callback.setStatus(OutboxStatus.PENDING);
+                callback.setNextAttemptAt(now.plusNanos(backoffMs(attempts) * 1_000_000));
+                log.warn("Callback {} failed (attempt {}), retrying: {}", callback.getCallbackId(), attempts, e.getMessage());
+            }
+            return false;
+        }
+    }
+
+    private long backoffMs(int attempts) {
+        long backoff = baseBackoffMs << Math.min(attempts - 1, 20);
+        return Math.min(backoff, maxBackoffMs);
+    }
+}
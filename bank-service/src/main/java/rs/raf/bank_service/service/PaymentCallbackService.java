@@ -2,34 +2,42 @@ package rs.raf.bank_service.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import rs.raf.bank_service.client.StockClient;
-import rs.raf.bank_service.domain.dto.TrackedPaymentNotifyDto;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import rs.raf.bank_service.domain.entity.PaymentCallbackOutbox;
+import rs.raf.bank_service.domain.enums.OutboxStatus;
+import rs.raf.bank_service.repository.PaymentCallbackOutboxRepository;
 
+import java.time.LocalDateTime;
+
+/// Callback-ovi ka stock-service-u se ne salju iz consumer-a transaction-queue vec se upisuju u outbox,
+/// a PaymentCallbackRelay ih salje. Tako spor ili nedostupan stock-service ne blokira obradu placanja.
 @Slf4j
 @Service
 @AllArgsConstructor
 public class PaymentCallbackService {
-    private final StockClient stockClient;
+    private final PaymentCallbackOutboxRepository outboxRepository;
 
+    /// Ulazi u transakciju placanja: callback postoji ako i samo ako je placanje commit-ovano
+    @Transactional
     public void notifySuccess(Long callbackId) {
-        try {
-            stockClient.notifySuccess(new TrackedPaymentNotifyDto(callbackId));
-        } catch (Exception e) {
-            log.error("Failed to notify successful payment with callbackId {}, error: {}", callbackId, e.getMessage());
-        }
+        enqueue(callbackId, true);
     }
 
+    /// Neuspelo placanje je vec oznacilo transakciju za rollback, pa se callback upisuje u zasebnoj
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void notifyFailure(Long callbackId) {
-        try {
-            stockClient.notifyFail(new TrackedPaymentNotifyDto(callbackId));
-        } catch (Exception e) {
-            log.error("Failed to notify failed payment with callbackId {}, error: {}", callbackId, e.getMessage());
-        }
+        enqueue(callbackId, false);
+    }
+
+    private void enqueue(Long callbackId, boolean success) {
+        outboxRepository.save(PaymentCallbackOutbox.builder()
+                .callbackId(callbackId)
+                .success(success)
+                .status(OutboxStatus.PENDING)
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+        log.info("Queued {} callback {} for stock-service", success ? "success" : "failure", callbackId);
     }
-}
\ No newline at end of file
+}
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import feign.codec.DecodeException;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -17,6 +18,7 @@ import rs.raf.bank_service.domain.entity.*;
 import rs.raf.bank_service.domain.enums.PaymentStatus;
 import rs.raf.bank_service.domain.enums.TransactionType;
 import rs.raf.bank_service.domain.enums.VerificationType;
+import rs.raf.bank_service.domain.event.ClientOverviewChangedEvent;
 import rs.raf.bank_service.domain.mapper.PaymentMapper;
 import rs.raf.bank_service.exceptions.*;
 import rs.raf.bank_service.repository.*;
@@ -40,10 +42,15 @@ public class PaymentService {
     private final Bank2Client bank2Client;
     private final AccountService accountService;
     private final TransactionQueueService transactionQueueService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PaymentVelocityService paymentVelocityService;
+    private final HouseAccountNettingService houseAccountNettingService;
+    private final ExchangeRateHistoryService exchangeRateHistoryService;
     private PaymentRepository paymentRepository;
     private CardRepository cardRepository;
 
     // Dohvatanje svih transakcija za određenog klijenta sa filtriranjem
+    @Transactional(readOnly = true)
     public Page<PaymentOverviewDto> getPayments(
             String token,
             LocalDateTime startDate, LocalDateTime endDate,
@@ -67,21 +74,39 @@ public class PaymentService {
 
         Specification<Payment> spec = PaymentSpecification.filterPayments(clientId, startDate, endDate, minAmount, maxAmount, paymentStatus, accountNumber, cardNumber);
         Page<Payment> payments = paymentRepository.findAll(spec, pageable);
-        return payments.map(paymentMapper::toOverviewDto);
+        return paymentMapper.toOverviewPage(payments);
     }
 
+    @Transactional(readOnly = true)
     public PaymentDetailsDto getPaymentDetails(String token, Long id) {
         Long clientId = jwtTokenUtil.getUserIdFromAuthHeader(token);
         Payment payment = paymentRepository.findByIdAndClientId(id, clientId)
                 .orElseThrow(() -> new PaymentNotFoundException(id));
-        return paymentMapper.toDetailsDto(payment);
+        PaymentDetailsDto dto = paymentMapper.toDetailsDto(payment);
+        dto.setExchangeRate(getExchangeRateAtPaymentTime(payment, dto));
+        return dto;
+    }
+
+    // kurs iz istorije kurseva, a ne danasnji, da bi se iznos placanja mogao proveriti i posle promene kursa
+    private BigDecimal getExchangeRateAtPaymentTime(Payment payment, PaymentDetailsDto dto) {
+        if (payment.getDate() == null || dto.getSenderCurrencyCode() == null || dto.getReceiverCurrencyCode() == null
+                || dto.getSenderCurrencyCode().equals(dto.getReceiverCurrencyCode())) {
+            return null;
+        }
+        try {
+            return exchangeRateHistoryService.getRateAt(
+                    dto.getSenderCurrencyCode(), dto.getReceiverCurrencyCode(), payment.getDate()).getSellRate();
+        } catch (ExchangeRateNotFoundException e) {
+            return null;
+        }
     }
 
     public void rejectPayment(Long paymentId) {
         Payment payment = paymentRepository.findById(paymentId)
                 .orElseThrow(() -> new PaymentNotFoundException(paymentId));
 
-        if (!payment.getStatus().equals(PaymentStatus.PENDING_CONFIRMATION))
+        if (!payment.getStatus().equals(PaymentStatus.PENDING_CONFIRMATION)
+                && !payment.getStatus().equals(PaymentStatus.UNDER_REVIEW))
             throw new RejectNonPendingRequestException();
 
         payment.setStatus(PaymentStatus.CANCELED);
@@ -91,6 +116,7 @@ public class PaymentService {
         sender.setAvailableBalance(sender.getAvailableBalance().add(payment.getAmount()));
 
         accountRepository.save(sender);
+        publishOverviewChanged(payment);
     }
 
     public BigDecimal getExchangeProfit() {
@@ -108,9 +134,10 @@ public class PaymentService {
                         .receiverAccountNumber(transferDto.getReceiverAccountNumber())
                         .amount(transferDto.getAmount())
                         .build(),
-                clientId);
+                clientId, true);
 
-        createPaymentVerificationRequest(payment, clientId);
+        if (payment.getStatus() == PaymentStatus.PENDING_CONFIRMATION)
+            createPaymentVerificationRequest(payment, clientId);
 
         return paymentMapper.toPaymentDto(payment, "Receiver");
     }
@@ -119,21 +146,23 @@ public class PaymentService {
     public PaymentDetailsDto createAndExecuteSystemPayment(CreatePaymentDto paymentDto, Long clientId) throws JsonProcessingException, AgentLimitExceededException, UpdateUsedLimitException {
         checkAndUpdateLimit(paymentDto, clientId);
 
-        Payment payment = createPayment(paymentDto, clientId);
+        Payment payment = createPayment(paymentDto, clientId, false);
         return confirmPayment(payment.getId());
     }
 
     public PaymentDto createPaymentAndVerificationRequest(CreatePaymentDto createPaymentDto, Long clientId) throws JsonProcessingException {
         validatePaymentData(createPaymentDto);
-        Payment payment = createPayment(createPaymentDto, clientId);
-        createPaymentVerificationRequest(payment, clientId);
+        Payment payment = createPayment(createPaymentDto, clientId, true);
+        if (payment.getStatus() == PaymentStatus.PENDING_CONFIRMATION)
+            createPaymentVerificationRequest(payment, clientId);
 
 //        Account receiver = getReceiverAccount(createPaymentDto.getReceiverAccountNumber());
 
         return paymentMapper.toPaymentDto(payment, "Receiver");
     }
 
-    private Payment createPayment(CreatePaymentDto paymentDto, Long clientId) throws JsonProcessingException {
+    /// screen = true za placanja koja pokrece klijent; sistemska placanja (porez, berza) ne prolaze velocity pravila
+    private Payment createPayment(CreatePaymentDto paymentDto, Long clientId, boolean screen) throws JsonProcessingException {
         Account sender = getSenderAccount(paymentDto.getSenderAccountNumber(), clientId);
         Account receiver = getReceiverAccount(paymentDto.getReceiverAccountNumber());
 
@@ -163,11 +192,43 @@ public class PaymentService {
             payment.setReceiverClientId(receiver.getClientId());
         }
 
+        boolean houseReceiver = receiver instanceof CompanyAccount
+                && Long.valueOf(1L).equals(((CompanyAccount) receiver).getCompanyId());
+        if (screen && paymentVelocityService.screen(clientId, sender.getAccountNumber(),
+                paymentDto.getReceiverAccountNumber(), houseReceiver, paymentDto.getAmount()) != null) {
+            payment.setStatus(PaymentStatus.UNDER_REVIEW);
+        }
+
         paymentRepository.save(payment);
+        publishOverviewChanged(payment);
 
         return payment;
     }
 
+    /// Placanje zadrzano velocity pravilima vraca se u normalan tok: klijent dobija zahtev za verifikaciju
+    public void approveReviewedPayment(Long paymentId) throws JsonProcessingException {
+        Payment payment = getPaymentById(paymentId);
+
+        if (!payment.getStatus().equals(PaymentStatus.UNDER_REVIEW))
+            throw new RejectNonPendingRequestException();
+
+        payment.setStatus(PaymentStatus.PENDING_CONFIRMATION);
+        paymentRepository.save(payment);
+
+        createPaymentVerificationRequest(payment, payment.getClientId());
+        publishOverviewChanged(payment);
+    }
+
+    /// Odbijanje placanja sa pregleda ide kroz red kao REJECT_PAYMENT, ali samo dok je placanje jos UNDER_REVIEW
+    public void rejectReviewedPayment(Long paymentId) {
+        Payment payment = getPaymentById(paymentId);
+
+        if (!payment.getStatus().equals(PaymentStatus.UNDER_REVIEW))
+            throw new RejectNonPendingRequestException();
+
+        transactionQueueService.queueTransaction(TransactionType.REJECT_PAYMENT, paymentId);
+    }
+
     private void createPaymentVerificationRequest(Payment payment, Long clientId) throws JsonProcessingException {
         PaymentVerificationDetailsDto paymentVerificationDetailsDto = PaymentVerificationDetailsDto.builder()
                 .fromAccountNumber(payment.getSenderAccount().getAccountNumber())
@@ -203,8 +264,7 @@ public class PaymentService {
             transactionQueueService.queueTransaction(TransactionType.DELAY_EXTERNAL_PAYMENT, paymentId);
         }
 
-
-
+        publishOverviewChanged(payment);
         return paymentMapper.toDetailsDto(paymentRepository.save(payment));
     }
 
@@ -374,6 +434,15 @@ public class PaymentService {
     }
 
     private void processDifferentCurrencyPayment(Account sender, Account receiver, BigDecimal amount, BigDecimal convertedAmount) {
+        if (houseAccountNettingService.isEnabled()) {
+            // klijentske strane odmah, bankine strane se knjize neto po valuti (HouseAccountNettingService.settle)
+            updateAccountBalance(sender, sender.getBalance().subtract(amount));
+            updateAccountBalance(receiver, receiver.getBalance().add(convertedAmount), receiver.getAvailableBalance().add(convertedAmount));
+            houseAccountNettingService.record(sender.getCurrency(), amount);
+            houseAccountNettingService.record(receiver.getCurrency(), convertedAmount.negate());
+            return;
+        }
+
         CompanyAccount bankAccountFrom = getBankCompanyAccount(sender.getCurrency());
         CompanyAccount bankAccountTo = getBankCompanyAccount(receiver.getCurrency());
 
@@ -432,6 +501,7 @@ public class PaymentService {
         }
 
         payment = paymentRepository.save(payment);
+        publishOverviewChanged(payment);
 
         transactionQueueService.queueTransaction(TransactionType.DELAY_EXTERNAL_PAYMENT, payment.getId());
 
@@ -464,6 +534,7 @@ public class PaymentService {
         payment.setStatus(PaymentStatus.COMPLETED);
 
         paymentRepository.save(payment);
+        publishOverviewChanged(payment);
     }
 
     public void processOutgoingExternalPayment(Payment payment) {
@@ -491,6 +562,7 @@ public class PaymentService {
 
         payment.setStatus(PaymentStatus.PENDING);
         paymentRepository.save(payment);
+        publishOverviewChanged(payment);
     }
 
     public void handleExternalPaymentStatusUpdate(Long id, NotifyPaymentStatusDto dto) {
@@ -514,5 +586,14 @@ public class PaymentService {
         }
 
         paymentRepository.save(payment);
+        publishOverviewChanged(payment);
+    }
+
+    /// Pregled klijenta (ClientOverviewService) se osvezava posle commit-a i za posiljaoca i za primaoca
+    private void publishOverviewChanged(Payment payment) {
+        eventPublisher.publishEvent(new ClientOverviewChangedEvent(payment.getClientId()));
+        if (payment.getReceiverClientId() != null && !payment.getReceiverClientId().equals(payment.getClientId())) {
+            eventPublisher.publishEvent(new ClientOverviewChangedEvent(payment.getReceiverClientId()));
+        }
     }
 }
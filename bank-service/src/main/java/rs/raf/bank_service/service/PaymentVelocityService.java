@@ -0,0 +1,111 @@
+package rs.raf.bank_service.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import rs.raf.bank_service.utils.SlidingWindowCounter;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/// Velocity pravila za placanja, racunata u memoriji bez upita ka bazi.
+/// Prati broj placanja po racunu posiljaoca, po racunu primaoca i po klijentu, i zbir iznosa po racunu posiljaoca.
+/// Placanje koje probije neko pravilo ne odbija se vec ide na pregled (PaymentStatus.UNDER_REVIEW).
+/// Pravilo po primaocu ne vazi za primaoce kojima mnogo razlicitih klijenata placa po prirodi posla (bankini racuni,
+/// trgovci iz payment.velocity.receiver.exempt-accounts), jer bi inace na pregled isao svaki posiljalac.
+@Slf4j
+@Service
+public class PaymentVelocityService {
+
+    private final Map<String, SlidingWindowCounter> windows = new ConcurrentHashMap<>();
+    private final Clock clock;
+
+    @Value("${payment.velocity.enabled:true}")
+    private boolean enabled;
+
+    @Value("${payment.velocity.window-seconds:60}")
+    private int windowSeconds;
+
+    @Value("${payment.velocity.account.max-count:10}")
+    private long accountMaxCount;
+
+    @Value("${payment.velocity.account.max-amount:1000000}")
+    private BigDecimal accountMaxAmount;
+
+    @Value("${payment.velocity.receiver.max-count:20}")
+    private long receiverMaxCount;
+
+    @Value("${payment.velocity.client.max-count:20}")
+    private long clientMaxCount;
+
+    @Value("${payment.velocity.receiver.exempt-accounts:}")
+    private Set<String> exemptReceivers = Set.of();
+
+    public PaymentVelocityService() {
+        this(Clock.systemUTC());
+    }
+
+    public PaymentVelocityService(Clock clock) {
+        this.clock = clock;
+    }
+
+    /// Belezi placanje i vraca razlog ako je neko pravilo prekoraceno, inace null.
+    /// Placanja koja idu na pregled se takodje broje, pa napad ne moze da "resetuje" prozor.
+    /// houseReceiver = primalac je bankin racun, pa se pravilo po primaocu preskace kao za exempt-accounts
+    public String screen(Long clientId, String senderAccountNumber, String receiverAccountNumber,
+                         boolean houseReceiver, BigDecimal amount) {
+        if (!enabled) return null;
+
+        long now = clock.millis() / 1000;
+        String reason = null;
+
+        SlidingWindowCounter account = record("account:" + senderAccountNumber, now, amount);
+        if (account.count(now) > accountMaxCount) {
+            reason = "sender account exceeded " + accountMaxCount + " payments in " + windowSeconds + "s";
+        } else if (account.amount(now).compareTo(accountMaxAmount) > 0) {
+            reason = "sender account exceeded amount " + accountMaxAmount + " in " + windowSeconds + "s";
+        }
+
+        if (!houseReceiver && !exemptReceivers.contains(receiverAccountNumber)) {
+            SlidingWindowCounter receiver = record("receiver:" + receiverAccountNumber, now, amount);
+            if (reason == null && receiver.count(now) > receiverMaxCount) {
+                reason = "receiver account exceeded " + receiverMaxCount + " incoming payments in " + windowSeconds + "s";
+            }
+        }
+
+        if (clientId != null) {
+            SlidingWindowCounter client = record("client:" + clientId, now, amount);
+            if (reason == null && client.count(now) > clientMaxCount) {
+                reason = "client exceeded " + clientMaxCount + " payments in " + windowSeconds + "s";
+            }
+        }
+
+        if (reason != null) {
+            log.warn("Payment from {} to {} flagged for review: {}", senderAccountNumber, receiverAccountNumber, reason);
+        }
+        return reason;
+    }
+
+    /// Uklanja prozore bez aktivnosti da mapa ne bi rasla sa brojem racuna. Provera i brisanje idu kroz
+    /// computeIfPresent, pod istim zakljucavanjem kljuca kao record, pa se prozor ne moze izbaciti izmedju
+    /// pronalazenja i upisa placanja.
+    @Scheduled(fixedDelayString = "${payment.velocity.cleanup-ms:60000}")
+    public void evictIdle() {
+        long now = clock.millis() / 1000;
+        for (String key : windows.keySet()) {
+            windows.computeIfPresent(key, (k, window) -> window.isIdle(now) ? null : window);
+        }
+    }
+
+    private SlidingWindowCounter record(String key, long now, BigDecimal amount) {
+        return windows.compute(key, (k, window) -> {
+            SlidingWindowCounter counter = window != null ? window : new SlidingWindowCounter(windowSeconds, now);
+            counter.add(now, amount);
+            return counter;
+        });
+    }
+}
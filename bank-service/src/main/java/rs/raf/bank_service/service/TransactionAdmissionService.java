@@ -0,0 +1,141 @@
+package rs.raf.bank_service.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import rs.raf.bank_service.configuration.RabbitMQConfig;
+import rs.raf.bank_service.domain.enums.TransactionPriority;
+import rs.raf.bank_service.domain.enums.TransactionType;
+import rs.raf.bank_service.exceptions.TransactionBacklogException;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/// Admission control za transaction-queue. Periodicno uzorkuje dubinu reda, a consumer prijavljuje koliko je
+/// poruka cekala; dok red nije prazan a consumer ne napreduje, zaostajanje raste sa vremenom od poslednje obrade.
+/// Kada se predje prag, HTTP endpoint-i dobijaju TransactionBacklogException (429 + Retry-After).
+/// Batch tipovi imaju nize pragove, pa se oni odbijaju prvi; od HTTP ulaza to su dolazna placanja druge banke
+/// (/external), koja druga banka moze da ponovi.
+/// Sistemska placanja (/tax, /execute-system-payment) se nikad ne odbijaju: stock-service ih salje usred settlement-a
+/// (fill naloga, OTC opcija, porez) i tada je nalog vec upisan, pa bi 429 ostavio izvrsenje bez placanja.
+@Slf4j
+@Service
+public class TransactionAdmissionService {
+
+    private static final Set<TransactionType> NEVER_SHED = EnumSet.of(TransactionType.SYSTEM_PAYMENT);
+
+    private final AmqpAdmin amqpAdmin;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${transaction.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${transaction.admission.interactive.max-depth:5000}")
+    private long interactiveMaxDepth;
+
+    @Value("${transaction.admission.interactive.max-lag-ms:30000}")
+    private long interactiveMaxLagMs;
+
+    @Value("${transaction.admission.batch.max-depth:1000}")
+    private long batchMaxDepth;
+
+    @Value("${transaction.admission.batch.max-lag-ms:10000}")
+    private long batchMaxLagMs;
+
+    @Value("${transaction.admission.max-retry-after-seconds:60}")
+    private long maxRetryAfterSeconds;
+
+    private volatile long queueDepth;
+    private volatile long consumerLagMs;
+    private volatile double drainRatePerSecond;
+
+    private final AtomicLong consumed = new AtomicLong();
+    private long lastConsumed;
+    private long lastSampleAt;
+    private volatile long lastMessageLagMs;
+    /// Poslednja obrada poruke ili poslednji uzorak praznog reda
+    private volatile long lastProgressAt = System.currentTimeMillis();
+
+    public TransactionAdmissionService(AmqpAdmin amqpAdmin, MeterRegistry meterRegistry) {
+        this.amqpAdmin = amqpAdmin;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("transaction.queue.depth", this, s -> s.queueDepth).register(meterRegistry);
+        Gauge.builder("transaction.queue.consumer.lag", this, s -> s.consumerLagMs).baseUnit("milliseconds").register(meterRegistry);
+        Gauge.builder("transaction.queue.drain.rate", this, s -> s.drainRatePerSecond).baseUnit("messages/s").register(meterRegistry);
+        Gauge.builder("transaction.admission.threshold", this, s -> s.interactiveMaxDepth)
+                .tags("priority", "interactive", "kind", "depth").register(meterRegistry);
+        Gauge.builder("transaction.admission.threshold", this, s -> s.interactiveMaxLagMs)
+                .tags("priority", "interactive", "kind", "lag-ms").register(meterRegistry);
+        Gauge.builder("transaction.admission.threshold", this, s -> s.batchMaxDepth)
+                .tags("priority", "batch", "kind", "depth").register(meterRegistry);
+        Gauge.builder("transaction.admission.threshold", this, s -> s.batchMaxLagMs)
+                .tags("priority", "batch", "kind", "lag-ms").register(meterRegistry);
+    }
+
+    /// Baca TransactionBacklogException ako red trenutno ne prima poruke ovog prioriteta
+    public void admit(TransactionType type) {
+        if (!enabled || NEVER_SHED.contains(type)) return;
+
+        boolean batch = type.getPriority() == TransactionPriority.BATCH;
+        long maxDepth = batch ? batchMaxDepth : interactiveMaxDepth;
+        long maxLagMs = batch ? batchMaxLagMs : interactiveMaxLagMs;
+        if (queueDepth < maxDepth && consumerLagMs < maxLagMs) return;
+
+        meterRegistry.counter("transaction.admission.rejected", "type", type.name()).increment();
+        throw new TransactionBacklogException(retryAfterSeconds(maxDepth));
+    }
+
+    /// Poziva ga consumer za svaku poruku, sa vremenom kada je poruka stavljena u red
+    public void recordConsumed(Long enqueuedAt) {
+        long now = System.currentTimeMillis();
+        consumed.incrementAndGet();
+        lastProgressAt = now;
+        if (enqueuedAt != null) {
+            lastMessageLagMs = Math.max(0, now - enqueuedAt);
+            consumerLagMs = lastMessageLagMs;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${transaction.admission.sample-ms:1000}")
+    public synchronized void sample() {
+        long now = System.currentTimeMillis();
+        long consumedNow = consumed.get();
+        if (lastSampleAt > 0 && now > lastSampleAt) {
+            drainRatePerSecond = (consumedNow - lastConsumed) * 1000.0 / (now - lastSampleAt);
+        }
+        lastConsumed = consumedNow;
+        lastSampleAt = now;
+
+        try {
+            QueueInformation info = amqpAdmin.getQueueInfo(RabbitMQConfig.TRANSACTION_QUEUE);
+            queueDepth = info != null ? info.getMessageCount() : 0;
+            if (queueDepth == 0) {
+                // prazan red nema zaostajanje, poslednja izmerena vrednost vise ne vazi
+                lastMessageLagMs = 0;
+                lastProgressAt = now;
+                consumerLagMs = 0;
+            } else {
+                // consumer koji stoji ne prijavljuje nista, pa zaostajanje mora da raste i bez novih poruka
+                consumerLagMs = Math.max(lastMessageLagMs, now - lastProgressAt);
+            }
+        } catch (AmqpException e) {
+            log.debug("Transaction queue depth sample failed: {}", e.getMessage());
+        }
+    }
+
+    /// Procena koliko treba da se red isprazni ispod praga, po trenutnoj brzini obrade
+    private long retryAfterSeconds(long maxDepth) {
+        long excess = Math.max(1, queueDepth - maxDepth + 1);
+        double rate = Math.max(1.0, drainRatePerSecond);
+        long seconds = (long) Math.ceil(excess / rate);
+        return Math.max(1, Math.min(maxRetryAfterSeconds, seconds));
+    }
+}
@@ -22,10 +22,13 @@ public class TransactionProcessor {
     private final ObjectMapper objectMapper;
     private final PaymentCallbackService paymentCallbackService;
     private final TransactionQueueService transactionQueueService;
+    private final TransactionAdmissionService transactionAdmissionService;
+    private final HouseAccountNettingService houseAccountNettingService;
 
-    @RabbitListener(queues = "transaction-queue")
+    @RabbitListener(queues = RabbitMQConfig.TRANSACTION_QUEUE)
     @Transactional
     public void processTransaction(TransactionMessageDto message) {
+        transactionAdmissionService.recordConsumed(message.getTimestamp());
         try {
             switch (message.getType()) {
                 case CONFIRM_PAYMENT: {
@@ -100,6 +103,11 @@ public class TransactionProcessor {
                 }
 
 
+                case SETTLE_HOUSE_ACCOUNTS: {
+                    houseAccountNettingService.settle();
+                    break;
+                }
+
                 default: {
                     log.warn("Unknown transaction type: {}", message.getType());
                 }
@@ -14,7 +14,7 @@ import rs.raf.bank_service.domain.enums.TransactionType;
 @RequiredArgsConstructor
 public class TransactionQueueService {
 
-    private static final String QUEUE_NAME = "transaction-queue";
+    private static final String QUEUE_NAME = RabbitMQConfig.TRANSACTION_QUEUE;
     private static final String DELAY_QUEUE_NAME = RabbitMQConfig.EXTERNAL_DELAY_QUEUE;
     private final RabbitTemplate rabbitTemplate;
     private final ObjectMapper objectMapper;
@@ -25,7 +25,11 @@ public class TransactionQueueService {
             String jsonPayload = objectMapper.writeValueAsString(dto);
             TransactionMessageDto message = new TransactionMessageDto(type, jsonPayload, userId, System.currentTimeMillis());
             rabbitTemplate.convertAndSend(
-                    type.equals(TransactionType.DELAY_EXTERNAL_PAYMENT) ? DELAY_QUEUE_NAME : QUEUE_NAME, message
+                    type.equals(TransactionType.DELAY_EXTERNAL_PAYMENT) ? DELAY_QUEUE_NAME : QUEUE_NAME, message,
+                    amqpMessage -> {
+                        amqpMessage.getMessageProperties().setPriority(type.getPriority().getLevel());
+                        return amqpMessage;
+                    }
             );
             return true;
         } catch (JsonProcessingException e) {
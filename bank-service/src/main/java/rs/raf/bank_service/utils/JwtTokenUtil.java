@@ -1,28 +1,56 @@
 package rs.raf.bank_service.utils;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import rs.raf.bank_service.security.JwtPrincipal;
 
 import java.security.Key;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Component
 public class JwtTokenUtil {
 
     private static final Key secret = Keys.hmacShaKeyFor("si-2024-banka-3-tajni-kljuc-za-jwt-generisanje-tokena-mora-biti-512-bitova-valjda-je-dovoljno".getBytes());
     private final long expiration = 86400000;
+    private static final int MAX_VERIFIED_TOKENS = 10_000;
+
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(secret).build();
+
+    /// Ograniceni LRU kes verifikovanih tokena, kljuc je potpis (treci deo JWT-a)
+    private final Map<String, VerifiedToken> verifiedTokens = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                    return size() > MAX_VERIFIED_TOKENS;
+                }
+            });
 
     public String getSubjectFromToken(String token) {
         return getClaimsFromToken(token).getSubject();
     }
 
+    /// Verifikacija potpisa se radi jednom po tokenu; kesirani claim-ovi vaze do isteka tokena
     public Claims getClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secret)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        String signature = token.substring(token.lastIndexOf('.') + 1);
+        VerifiedToken cached = verifiedTokens.get(signature);
+        if (cached != null && cached.token.equals(token)) {
+            if (System.currentTimeMillis() < cached.expiresAt) {
+                return cached.claims;
+            }
+            verifiedTokens.remove(signature);
+        }
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        long expiresAt = claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE;
+        verifiedTokens.put(signature, new VerifiedToken(token, claims, expiresAt));
+        return claims;
     }
 
     public boolean validateToken(String token) {
@@ -41,6 +69,11 @@ public class JwtTokenUtil {
 
         String token = authHeader.replace("Bearer ", "").trim();
 
+        JwtPrincipal principal = currentPrincipal(token);
+        if (principal != null) {
+            return principal.getUserId();
+        }
+
         // Parsiramo token i vadimo userId
         return getClaimsFromToken(token).get("userId", Long.class);
     }
@@ -52,7 +85,33 @@ public class JwtTokenUtil {
 
         String token = authHeader.replace("Bearer ", "").trim();
 
-        // Parsiramo token i vadimo userId
+        JwtPrincipal principal = currentPrincipal(token);
+        if (principal != null) {
+            return principal.getRole();
+        }
+
         return getClaimsFromToken(token).get("role", String.class);
     }
+
+    /// Principal koji je filter postavio za tekuci zahtev, ako je za isti token
+    private JwtPrincipal currentPrincipal(String token) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof JwtPrincipal principal
+                && principal.getToken().equals(token)) {
+            return principal;
+        }
+        return null;
+    }
+
+    private static class VerifiedToken {
+        private final String token;
+        private final Claims claims;
+        private final long expiresAt;
+
+        private VerifiedToken(String token, Claims claims, long expiresAt) {
+            this.token = token;
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+        }
+    }
 }
@@ -0,0 +1,65 @@
+package rs.raf.bank_service.utils;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/// Brojac dogadjaja i zbira iznosa u kliznom prozoru od windowSeconds sekundi.
+/// Prozor je podeljen na sekundne bucket-e u prstenu; dodavanje i citanje su O(1)
+/// (istekli bucket-i se brisu pri pomeranju, najvise jednom po sekundi).
+public class SlidingWindowCounter {
+
+    private final long[] counts;
+    private final BigDecimal[] amounts;
+    private long lastSecond;
+    private long totalCount;
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    public SlidingWindowCounter(int windowSeconds, long nowSecond) {
+        this.counts = new long[windowSeconds];
+        this.amounts = new BigDecimal[windowSeconds];
+        Arrays.fill(amounts, BigDecimal.ZERO);
+        this.lastSecond = nowSecond;
+    }
+
+    public synchronized void add(long nowSecond, BigDecimal amount) {
+        advance(nowSecond);
+        int idx = index(lastSecond);
+        counts[idx]++;
+        amounts[idx] = amounts[idx].add(amount);
+        totalCount++;
+        totalAmount = totalAmount.add(amount);
+    }
+
+    public synchronized long count(long nowSecond) {
+        advance(nowSecond);
+        return totalCount;
+    }
+
+    public synchronized BigDecimal amount(long nowSecond) {
+        advance(nowSecond);
+        return totalAmount;
+    }
+
+    public synchronized boolean isIdle(long nowSecond) {
+        advance(nowSecond);
+        return totalCount == 0;
+    }
+
+    private void advance(long nowSecond) {
+        if (nowSecond <= lastSecond) return;
+
+        long steps = Math.min(nowSecond - lastSecond, counts.length);
+        for (long s = 1; s <= steps; s++) {
+            int idx = index(lastSecond + s);
+            totalCount -= counts[idx];
+            totalAmount = totalAmount.subtract(amounts[idx]);
+            counts[idx] = 0;
+            amounts[idx] = BigDecimal.ZERO;
+        }
+        lastSecond = nowSecond;
+    }
+
+    private int index(long second) {
+        return (int) (second % counts.length);
+    }
+}
@@ -0,0 +1,18 @@
+-- Indeksi za kolone po kojima filtriraju repository metode i specifikacije (vidi load/QueryPlanTest).
+-- Iste definicije su i u @Table(indexes) entiteta, pa IF NOT EXISTS preskace one koje je vec napravio Hibernate.
+
+CREATE INDEX IF NOT EXISTS idx_accounts_client_id ON accounts (client_id);
+
+CREATE INDEX IF NOT EXISTS idx_payments_client_date ON payments (client_id, date);
+CREATE INDEX IF NOT EXISTS idx_payments_receiver_client_date ON payments (receiver_client_id, date);
+CREATE INDEX IF NOT EXISTS idx_payments_sender_account ON payments (sender_account_number);
+
+CREATE INDEX IF NOT EXISTS idx_card_account_number ON card (account_number);
+
+CREATE INDEX IF NOT EXISTS idx_loans_account_number ON loans (account_number);
+CREATE INDEX IF NOT EXISTS idx_loans_next_installment_date ON loans (next_installment_date);
+CREATE INDEX IF NOT EXISTS idx_installments_loan_id ON installments (loan_id);
+
+CREATE INDEX IF NOT EXISTS idx_payees_client_id ON payees (client_id);
+
+CREATE INDEX IF NOT EXISTS idx_callback_outbox_due ON payment_callback_outbox (status, next_attempt_at);
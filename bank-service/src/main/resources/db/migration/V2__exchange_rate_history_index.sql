@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS idx_exchange_rate_history_pair_valid_from
+    ON exchange_rate_history (from_currency_code, to_currency_code, valid_from);
@@ -0,0 +1,39 @@
+package rs.raf.bank_service.load;
+
+import rs.raf.bank_service.client.Bank2Client;
+import rs.raf.bank_service.domain.dto.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/// In-process zamena za Banku 2. Svi racuni sa prefiksom 222 postoje i vode se u RSD.
+public class Bank2StandIn implements Bank2Client {
+
+    private final AtomicLong sentPayments = new AtomicLong();
+
+    @Override
+    public Boolean notifySuccess(String id) {
+        return true;
+    }
+
+    @Override
+    public ExternalPaymentResponseDto sendExternalPayment(ExternalPaymentCreateDto request) {
+        sentPayments.incrementAndGet();
+        return new ExternalPaymentResponseDto(UUID.randomUUID().toString());
+    }
+
+    @Override
+    public Bank2AccountDetailsDto getAccountDetailsByNumber(String accountNumber) {
+        return new Bank2AccountDetailsDto("ext-" + accountNumber, accountNumber, new Bank2CurrencyDetailsDto("ext-RSD", "RSD"));
+    }
+
+    @Override
+    public Bank2TransactionCodeListDto getTransactionCodeDetails() {
+        return new Bank2TransactionCodeListDto(List.of(new Bank2TransactionCodeDetailsDto("289")));
+    }
+
+    public long getSentPayments() {
+        return sentPayments.get();
+    }
+}
@@ -0,0 +1,91 @@
+package rs.raf.bank_service.load;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import rs.raf.bank_service.domain.enums.TransactionType;
+import rs.raf.bank_service.repository.AccountRepository;
+import rs.raf.bank_service.repository.CurrencyRepository;
+import rs.raf.bank_service.repository.InstallmentRepository;
+import rs.raf.bank_service.repository.LoanRepository;
+import rs.raf.bank_service.service.TransactionProcessor;
+import rs.raf.bank_service.service.TransactionQueueService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/// Load harness za bank-service. Potrebna je samo baza (bank_db iz docker-compose), user-service, stock-service,
+/// Banka 2 i RabbitMQ su zamenjeni in-process implementacijama iz LoadTestConfig.
+///
+/// Pokretanje: mvn -Pload test (opciono -Dload.iterations=2000 -Dload.clients=50 -Dload.externalDelayMs=0)
+@EnabledIfSystemProperty(named = "load.enabled", matches = "true")
+@SpringBootTest(properties = {
+        "spring.rabbitmq.listener.simple.auto-startup=false",
+        "spring.jpa.show-sql=false",
+        // fixture klijenti salju stotine placanja u minuti, velocity pravila bi ih sve poslala na pregled
+        "payment.velocity.enabled=false"
+})
+@Import(LoadTestConfig.class)
+public class BankServiceLoadTest {
+
+    @Autowired
+    private TransactionQueueService transactionQueueService;
+    @Autowired
+    private TransactionProcessor transactionProcessor;
+    @Autowired
+    private InMemoryTransactionBroker broker;
+    @Autowired
+    private LatencyRecorder recorder;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private CurrencyRepository currencyRepository;
+    @Autowired
+    private LoanRepository loanRepository;
+    @Autowired
+    private InstallmentRepository installmentRepository;
+
+    @AfterEach
+    public void tearDown() {
+        broker.stop();
+    }
+
+    @Test
+    public void runAllScenarios() throws InterruptedException {
+        int iterations = Integer.getInteger("load.iterations", 500);
+        int clients = Integer.getInteger("load.clients", 20);
+
+        LoadFixtures fixtures = LoadFixtures.seed(clients, accountRepository, currencyRepository, loanRepository, installmentRepository);
+        List<LoadScenario> scenarios = LoadScenarios.all(transactionQueueService, fixtures);
+
+        broker.start(transactionProcessor);
+
+        // zagrevanje, da JIT i connection pool ne ulaze u merenje
+        submitAll(scenarios, Math.max(1, iterations / 10));
+        assertTrue(broker.awaitIdle(5, TimeUnit.MINUTES), "Warmup did not drain");
+        recorder.reset();
+
+        submitAll(scenarios, iterations);
+        assertTrue(broker.awaitIdle(30, TimeUnit.MINUTES), "Load run did not drain");
+
+        System.out.println(recorder.report());
+
+        for (LoadScenario scenario : scenarios) {
+            assertTrue(recorder.count(scenario.getEntryType()) > 0, "No samples for " + scenario.getName());
+        }
+        assertTrue(recorder.count(TransactionType.CONFIRM_PAYMENT) > 0, "No payments were confirmed");
+    }
+
+    private void submitAll(List<LoadScenario> scenarios, int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            for (LoadScenario scenario : scenarios) {
+                scenario.submit(i);
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package rs.raf.bank_service.load;
+
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+/// RabbitTemplate koji umesto slanja na broker predaje poruke InMemoryTransactionBroker-u.
+public class InMemoryRabbitTemplate extends RabbitTemplate {
+
+    private final InMemoryTransactionBroker broker;
+
+    public InMemoryRabbitTemplate(InMemoryTransactionBroker broker) {
+        this.broker = broker;
+    }
+
+    @Override
+    public void convertAndSend(String routingKey, Object object) throws AmqpException {
+        broker.publish(routingKey, object);
+    }
+
+    /// Prioritet poruke broker racuna sam iz TransactionType-a, post processor se ne primenjuje
+    @Override
+    public void convertAndSend(String routingKey, Object object, MessagePostProcessor messagePostProcessor) throws AmqpException {
+        broker.publish(routingKey, object);
+    }
+
+    @Override
+    public void convertAndSend(String exchange, String routingKey, Object object) throws AmqpException {
+        broker.publish(routingKey, object);
+    }
+}
@@ -0,0 +1,129 @@
+package rs.raf.bank_service.load;
+
+import lombok.extern.slf4j.Slf4j;
+import rs.raf.bank_service.configuration.RabbitMQConfig;
+import rs.raf.bank_service.domain.dto.TransactionMessageDto;
+import rs.raf.bank_service.service.TransactionProcessor;
+
+import java.util.Comparator;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/// Zamena za RabbitMQ u load testu. Kao i pravi broker, transaction-queue ima jednog potrosaca (prefetch 1) i
+/// isporucuje interaktivne poruke pre batch poruka (FIFO unutar istog prioriteta), a external.delay.queue posle
+/// zadatog kasnjenja prosledjuje poruku na handleExternalPayment.
+@Slf4j
+public class InMemoryTransactionBroker {
+
+    private final BlockingQueue<Envelope> transactionQueue = new PriorityBlockingQueue<>(64,
+            Comparator.comparingInt((Envelope envelope) -> -envelope.message.getType().getPriority().getLevel())
+                    .thenComparingLong(envelope -> envelope.sequence));
+    private final ScheduledExecutorService delayScheduler = Executors.newSingleThreadScheduledExecutor();
+    private final AtomicLong inFlight = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong sequence = new AtomicLong();
+    private final LatencyRecorder recorder;
+    private final long externalDelayMillis;
+
+    private volatile TransactionProcessor processor;
+    private Thread consumer;
+
+    public InMemoryTransactionBroker(LatencyRecorder recorder, long externalDelayMillis) {
+        this.recorder = recorder;
+        this.externalDelayMillis = externalDelayMillis;
+    }
+
+    public void publish(String queue, Object payload) {
+        if (!(payload instanceof TransactionMessageDto)) {
+            dropped.incrementAndGet();
+            return;
+        }
+
+        TransactionMessageDto message = (TransactionMessageDto) payload;
+        Envelope envelope = new Envelope(message, System.nanoTime(), sequence.incrementAndGet());
+        inFlight.incrementAndGet();
+
+        if (RabbitMQConfig.EXTERNAL_DELAY_QUEUE.equals(queue)) {
+            delayScheduler.schedule(() -> deliverDelayed(envelope), externalDelayMillis, TimeUnit.MILLISECONDS);
+        } else {
+            transactionQueue.add(envelope);
+        }
+    }
+
+    public synchronized void start(TransactionProcessor processor) {
+        if (consumer != null) return;
+
+        this.processor = processor;
+        consumer = new Thread(this::consume, "load-transaction-consumer");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    public synchronized void stop() {
+        if (consumer != null) {
+            consumer.interrupt();
+            consumer = null;
+        }
+        delayScheduler.shutdownNow();
+    }
+
+    public boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (inFlight.get() > 0) {
+            if (System.nanoTime() > deadline) return false;
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    private void consume() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Envelope envelope;
+            try {
+                envelope = transactionQueue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            try {
+                processor.processTransaction(envelope.message);
+            } catch (Exception e) {
+                log.error("Load consumer failed on {}", envelope.message, e);
+            } finally {
+                complete(envelope);
+            }
+        }
+    }
+
+    private void deliverDelayed(Envelope envelope) {
+        try {
+            processor.handleExternalPayment(envelope.message);
+        } catch (Exception e) {
+            log.error("Load delay handler failed on {}", envelope.message, e);
+        } finally {
+            complete(envelope);
+        }
+    }
+
+    private void complete(Envelope envelope) {
+        recorder.record(envelope.message.getType(), envelope.publishedNanos, System.nanoTime());
+        inFlight.decrementAndGet();
+    }
+
+    private static class Envelope {
+        private final TransactionMessageDto message;
+        private final long publishedNanos;
+        private final long sequence;
+
+        private Envelope(TransactionMessageDto message, long publishedNanos, long sequence) {
+            this.message = message;
+            this.publishedNanos = publishedNanos;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package rs.raf.bank_service.load;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+import rs.raf.bank_service.domain.entity.Account;
+import rs.raf.bank_service.domain.entity.Payment;
+import rs.raf.bank_service.domain.enums.PaymentStatus;
+import rs.raf.bank_service.repository.AccountRepository;
+import rs.raf.bank_service.repository.PaymentRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/// Proverava da se placanja upisuju u JDBC batch-evima: broj pripremljenih naredbi treba da raste
+/// sa brojem batch-eva i sekvencnih poziva, a ne sa brojem redova.
+@EnabledIfSystemProperty(named = "load.enabled", matches = "true")
+@SpringBootTest(properties = {
+        "spring.rabbitmq.listener.simple.auto-startup=false",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(LoadTestConfig.class)
+public class JdbcBatchingTest {
+
+    private static final int ROWS = 500;
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Test
+    public void paymentsAreInsertedInBatches() {
+        Account account = accountRepository.findAll().get(0);
+        List<Payment> payments = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            payments.add(Payment.builder()
+                    .senderName("Batch")
+                    .clientId(account.getClientId())
+                    .senderAccount(account)
+                    .amount(BigDecimal.ONE)
+                    .outAmount(BigDecimal.ONE)
+                    .accountNumberReceiver(account.getAccountNumber())
+                    .status(PaymentStatus.COMPLETED)
+                    .build());
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> paymentRepository.saveAll(payments));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        long statements = statistics.getPrepareStatementCount();
+        System.out.printf("inserted=%d statements=%d elapsed=%dms%n", ROWS, statements, elapsedMs);
+
+        // insert batch-evi + next value za svaku alokaciju sekvence
+        long expected = 2L * ROWS / BATCH_SIZE + 2;
+        assertTrue(statements <= expected, "Inserting " + ROWS + " payments issued " + statements + " statements");
+    }
+}
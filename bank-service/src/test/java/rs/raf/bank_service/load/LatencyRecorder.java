@@ -0,0 +1,75 @@
+package rs.raf.bank_service.load;
+
+import rs.raf.bank_service.domain.enums.TransactionType;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/// Skuplja latencije obradjenih poruka po TransactionType i pravi izvestaj (throughput, p50, p99).
+public class LatencyRecorder {
+
+    private final Map<TransactionType, Samples> samples = new EnumMap<>(TransactionType.class);
+    private long firstStartNanos = Long.MAX_VALUE;
+    private long lastEndNanos = Long.MIN_VALUE;
+
+    public synchronized void record(TransactionType type, long startNanos, long endNanos) {
+        samples.computeIfAbsent(type, t -> new Samples()).add(endNanos - startNanos);
+        firstStartNanos = Math.min(firstStartNanos, startNanos);
+        lastEndNanos = Math.max(lastEndNanos, endNanos);
+    }
+
+    public synchronized long count(TransactionType type) {
+        Samples s = samples.get(type);
+        return s == null ? 0 : s.size;
+    }
+
+    public synchronized void reset() {
+        samples.clear();
+        firstStartNanos = Long.MAX_VALUE;
+        lastEndNanos = Long.MIN_VALUE;
+    }
+
+    public synchronized String report() {
+        double wallSeconds = lastEndNanos > firstStartNanos ? (lastEndNanos - firstStartNanos) / 1e9 : 0;
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-26s %8s %12s %10s %10s %10s%n", "type", "count", "msg/s", "p50 ms", "p99 ms", "max ms"));
+        for (Map.Entry<TransactionType, Samples> entry : samples.entrySet()) {
+            long[] sorted = entry.getValue().sorted();
+            sb.append(String.format("%-26s %8d %12.1f %10.2f %10.2f %10.2f%n",
+                    entry.getKey(),
+                    sorted.length,
+                    wallSeconds > 0 ? sorted.length / wallSeconds : 0,
+                    percentile(sorted, 0.50) / 1e6,
+                    percentile(sorted, 0.99) / 1e6,
+                    sorted[sorted.length - 1] / 1e6));
+        }
+        sb.append(String.format("wall time: %.2f s%n", wallSeconds));
+        return sb.toString();
+    }
+
+    static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static class Samples {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
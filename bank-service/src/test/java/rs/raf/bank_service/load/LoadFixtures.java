@@ -0,0 +1,104 @@
+package rs.raf.bank_service.load;
+
+import lombok.Getter;
+import rs.raf.bank_service.domain.entity.*;
+import rs.raf.bank_service.domain.enums.*;
+import rs.raf.bank_service.repository.AccountRepository;
+import rs.raf.bank_service.repository.CurrencyRepository;
+import rs.raf.bank_service.repository.InstallmentRepository;
+import rs.raf.bank_service.repository.LoanRepository;
+import rs.raf.bank_service.specification.LoanRateCalculator;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/// Racuni i krediti nad kojima rade scenariji. Stanja su dovoljno velika da nijedna transakcija
+/// ne padne na InsufficientFundsException, pa se meri samo obrada.
+@Getter
+public class LoadFixtures {
+
+    private static final BigDecimal START_BALANCE = new BigDecimal("1000000000");
+    private static final long FIRST_CLIENT_ID = 9000L;
+
+    private final List<Long> clientIds = new ArrayList<>();
+    private final List<String> rsdAccounts = new ArrayList<>();
+    private final List<String> rsdSavingsAccounts = new ArrayList<>();
+    private final List<String> eurAccounts = new ArrayList<>();
+    private final List<Long> loanIds = new ArrayList<>();
+
+    public static LoadFixtures seed(int clients, AccountRepository accountRepository, CurrencyRepository currencyRepository,
+                                    LoanRepository loanRepository, InstallmentRepository installmentRepository) {
+        LoadFixtures fixtures = new LoadFixtures();
+        Currency rsd = currencyRepository.findByCode("RSD").orElseThrow();
+        Currency eur = currencyRepository.findByCode("EUR").orElseThrow();
+
+        for (int i = 0; i < clients; i++) {
+            long clientId = FIRST_CLIENT_ID + i;
+            fixtures.clientIds.add(clientId);
+
+            Account current = accountRepository.save(account("3339" + String.format("%014d", clientId * 10 + 1), clientId, rsd, AccountType.CURRENT));
+            Account savings = accountRepository.save(account("3339" + String.format("%014d", clientId * 10 + 2), clientId, rsd, AccountType.CURRENT));
+            Account foreign = accountRepository.save(account("3339" + String.format("%014d", clientId * 10 + 3), clientId, eur, AccountType.FOREIGN));
+
+            fixtures.rsdAccounts.add(current.getAccountNumber());
+            fixtures.rsdSavingsAccounts.add(savings.getAccountNumber());
+            fixtures.eurAccounts.add(foreign.getAccountNumber());
+
+            fixtures.loanIds.add(loan(current, loanRepository, installmentRepository).getId());
+        }
+
+        return fixtures;
+    }
+
+    private static Account account(String accountNumber, long clientId, Currency currency, AccountType type) {
+        return PersonalAccount.builder()
+                .name("Load " + accountNumber)
+                .accountNumber(accountNumber)
+                .clientId(clientId)
+                .createdByEmployeeId(3L)
+                .creationDate(LocalDate.now())
+                .expirationDate(LocalDate.now().plusYears(5))
+                .currency(currency)
+                .status(AccountStatus.ACTIVE)
+                .type(type)
+                .accountOwnerType(AccountOwnerType.PERSONAL)
+                .balance(START_BALANCE)
+                .availableBalance(START_BALANCE)
+                .dailyLimit(START_BALANCE)
+                .monthlyLimit(START_BALANCE)
+                .dailySpending(BigDecimal.ZERO)
+                .monthlySpending(BigDecimal.ZERO)
+                .build();
+    }
+
+    private static Loan loan(Account account, LoanRepository loanRepository, InstallmentRepository installmentRepository) {
+        BigDecimal amount = new BigDecimal("1000000");
+        BigDecimal rate = new BigDecimal("6.25");
+        int repaymentPeriod = 360;
+        BigDecimal monthly = LoanRateCalculator.calculateMonthlyRate(amount, rate, repaymentPeriod);
+
+        Loan loan = loanRepository.save(Loan.builder()
+                .loanNumber("LD" + account.getAccountNumber())
+                .type(LoanType.CASH)
+                .amount(amount)
+                .repaymentPeriod(repaymentPeriod)
+                .nominalInterestRate(rate)
+                .effectiveInterestRate(rate)
+                .startDate(LocalDate.now().minusMonths(1))
+                .dueDate(LocalDate.now().plusYears(30))
+                .nextInstallmentAmount(monthly)
+                .nextInstallmentDate(LocalDate.now())
+                .remainingDebt(amount)
+                .currency(account.getCurrency())
+                .status(LoanStatus.APPROVED)
+                .interestRateType(InterestRateType.FIXED)
+                .account(account)
+                .installments(new ArrayList<>())
+                .build());
+
+        installmentRepository.save(new Installment(loan, monthly, rate, LocalDate.now(), InstallmentStatus.UNPAID));
+        return loan;
+    }
+}
@@ -0,0 +1,14 @@
+package rs.raf.bank_service.load;
+
+import rs.raf.bank_service.domain.enums.TransactionType;
+
+/// Generator jedne vrste opterecenja. submit salje poruku istim putem kao kontroler
+/// (TransactionQueueService), a ostatak toka (verifikacija, potvrda, interbank) odradjuju stand-in servisi.
+public interface LoadScenario {
+
+    String getName();
+
+    TransactionType getEntryType();
+
+    void submit(int iteration);
+}
@@ -0,0 +1,106 @@
+package rs.raf.bank_service.load;
+
+import rs.raf.bank_service.domain.dto.CreatePaymentDto;
+import rs.raf.bank_service.domain.dto.TransferDto;
+import rs.raf.bank_service.domain.enums.TransactionType;
+import rs.raf.bank_service.service.TransactionQueueService;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/// Scenariji koje harness pokrece: transferi, placanja u drugoj valuti, rate kredita i placanja ka Banci 2.
+public final class LoadScenarios {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("10.00");
+
+    private LoadScenarios() {
+    }
+
+    public static List<LoadScenario> all(TransactionQueueService queue, LoadFixtures fixtures) {
+        return List.of(
+                transfers(queue, fixtures),
+                crossCurrencyPayments(queue, fixtures),
+                installments(queue, fixtures),
+                externalPayments(queue, fixtures)
+        );
+    }
+
+    /// Transfer izmedju dva RSD racuna istog klijenta.
+    public static LoadScenario transfers(TransactionQueueService queue, LoadFixtures fixtures) {
+        return scenario("transfers", TransactionType.CREATE_TRANSFER, iteration -> {
+            int client = iteration % fixtures.getClientIds().size();
+
+            TransferDto dto = new TransferDto();
+            dto.setSenderAccountNumber(fixtures.getRsdAccounts().get(client));
+            dto.setReceiverAccountNumber(fixtures.getRsdSavingsAccounts().get(client));
+            dto.setAmount(AMOUNT);
+
+            queue.queueTransaction(TransactionType.CREATE_TRANSFER, dto, fixtures.getClientIds().get(client));
+        });
+    }
+
+    /// Placanje sa RSD racuna jednog klijenta na EUR racun drugog, ide preko racuna banke.
+    public static LoadScenario crossCurrencyPayments(TransactionQueueService queue, LoadFixtures fixtures) {
+        return scenario("cross-currency payments", TransactionType.CREATE_PAYMENT, iteration -> {
+            int clients = fixtures.getClientIds().size();
+            int sender = iteration % clients;
+            int receiver = (iteration + 1) % clients;
+
+            queue.queueTransaction(TransactionType.CREATE_PAYMENT,
+                    payment(fixtures.getRsdAccounts().get(sender), fixtures.getEurAccounts().get(receiver), iteration),
+                    fixtures.getClientIds().get(sender));
+        });
+    }
+
+    public static LoadScenario installments(TransactionQueueService queue, LoadFixtures fixtures) {
+        return scenario("installments", TransactionType.PAY_INSTALLMENT, iteration ->
+                queue.queueTransaction(TransactionType.PAY_INSTALLMENT, fixtures.getLoanIds().get(iteration % fixtures.getLoanIds().size())));
+    }
+
+    /// Placanje na racun Banke 2 (prefiks 222), prolazi kroz external.delay.queue i PROCESS_EXTERNAL_PAYMENT.
+    public static LoadScenario externalPayments(TransactionQueueService queue, LoadFixtures fixtures) {
+        return scenario("external payments", TransactionType.CREATE_PAYMENT, iteration -> {
+            int sender = iteration % fixtures.getClientIds().size();
+            String receiver = "222" + String.format("%015d", iteration % 100);
+
+            queue.queueTransaction(TransactionType.CREATE_PAYMENT,
+                    payment(fixtures.getRsdAccounts().get(sender), receiver, iteration),
+                    fixtures.getClientIds().get(sender));
+        });
+    }
+
+    private static CreatePaymentDto payment(String sender, String receiver, int iteration) {
+        return CreatePaymentDto.builder()
+                .senderAccountNumber(sender)
+                .receiverAccountNumber(receiver)
+                .amount(AMOUNT)
+                .paymentCode("289")
+                .purposeOfPayment("Load test")
+                .referenceNumber(String.valueOf(iteration))
+                .build();
+    }
+
+    private static LoadScenario scenario(String name, TransactionType entryType, Submitter submitter) {
+        return new LoadScenario() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public TransactionType getEntryType() {
+                return entryType;
+            }
+
+            @Override
+            public void submit(int iteration) {
+                submitter.submit(iteration);
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface Submitter {
+        void submit(int iteration);
+    }
+}
@@ -0,0 +1,59 @@
+package rs.raf.bank_service.load;
+
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import rs.raf.bank_service.client.Bank2Client;
+import rs.raf.bank_service.client.StockClient;
+import rs.raf.bank_service.client.UserClient;
+
+/// Podize bank-service bez partnera: Feign klijenti i RabbitTemplate se posle kreiranja zamenjuju
+/// in-process implementacijama, tako da servisi i dalje dobijaju iste tipove kroz konstruktor.
+@TestConfiguration
+public class LoadTestConfig {
+
+    @Bean
+    public static LatencyRecorder latencyRecorder() {
+        return new LatencyRecorder();
+    }
+
+    @Bean
+    public static InMemoryTransactionBroker inMemoryTransactionBroker(LatencyRecorder latencyRecorder) {
+        return new InMemoryTransactionBroker(latencyRecorder, Long.getLong("load.externalDelayMs", 0L));
+    }
+
+    @Bean
+    public static UserServiceStandIn userServiceStandIn(InMemoryTransactionBroker inMemoryTransactionBroker) {
+        return new UserServiceStandIn(inMemoryTransactionBroker);
+    }
+
+    @Bean
+    public static StockServiceStandIn stockServiceStandIn() {
+        return new StockServiceStandIn();
+    }
+
+    @Bean
+    public static Bank2StandIn bank2StandIn() {
+        return new Bank2StandIn();
+    }
+
+    @Bean
+    public static BeanPostProcessor standInPostProcessor(InMemoryTransactionBroker inMemoryTransactionBroker,
+                                                         UserServiceStandIn userServiceStandIn,
+                                                         StockServiceStandIn stockServiceStandIn,
+                                                         Bank2StandIn bank2StandIn) {
+        InMemoryRabbitTemplate rabbitTemplate = new InMemoryRabbitTemplate(inMemoryTransactionBroker);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof UserClient && bean != userServiceStandIn) return userServiceStandIn;
+                if (bean instanceof StockClient && bean != stockServiceStandIn) return stockServiceStandIn;
+                if (bean instanceof Bank2Client && bean != bank2StandIn) return bank2StandIn;
+                if (bean instanceof RabbitTemplate && bean != rabbitTemplate) return rabbitTemplate;
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package rs.raf.bank_service.load;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import rs.raf.bank_service.bootstrap.BootstrapData;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/// EXPLAIN regresija za najcesce upite. Sekvencijalni scan je iskljucen za sesiju, pa planer bira indeks
+/// kad god postoji upotrebljiv, i na praznoj bazi. Ako neko ukloni ili preimenuje indeks, plan pada na Seq Scan.
+@EnabledIfSystemProperty(named = "load.enabled", matches = "true")
+@SpringBootTest(properties = {
+        "spring.rabbitmq.listener.simple.auto-startup=false",
+        "spring.jpa.show-sql=false"
+})
+@Import(LoadTestConfig.class)
+public class QueryPlanTest {
+
+    @MockBean
+    private BootstrapData bootstrapData;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void accountsByClient_useClientIndex() {
+        assertUsesIndex("SELECT * FROM accounts WHERE client_id = 1", "idx_accounts_client_id");
+    }
+
+    @Test
+    public void recentPaymentsBySender_useClientDateIndex() {
+        assertUsesIndex("SELECT * FROM payments WHERE client_id = 1 ORDER BY date DESC LIMIT 10", "idx_payments_client_date");
+    }
+
+    @Test
+    public void recentPaymentsByReceiver_useReceiverIndex() {
+        assertUsesIndex("SELECT * FROM payments WHERE receiver_client_id = 1 ORDER BY date DESC LIMIT 10", "idx_payments_receiver_client_date");
+    }
+
+    @Test
+    public void cardsByAccount_useAccountIndex() {
+        assertUsesIndex("SELECT * FROM card WHERE account_number = '111'", "idx_card_account_number");
+    }
+
+    @Test
+    public void installmentsByLoan_useLoanIndex() {
+        assertUsesIndex("SELECT * FROM installments WHERE loan_id = 1", "idx_installments_loan_id");
+    }
+
+    @Test
+    public void loansDueToday_useNextInstallmentIndex() {
+        assertUsesIndex("SELECT * FROM loans WHERE next_installment_date = CURRENT_DATE", "idx_loans_next_installment_date");
+    }
+
+    private void assertUsesIndex(String sql, String index) {
+        String plan = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            StringBuilder lines = new StringBuilder();
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+                try (ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+                    while (rs.next()) {
+                        lines.append(rs.getString(1)).append('\n');
+                    }
+                } finally {
+                    statement.execute("RESET enable_seqscan");
+                }
+            }
+            return lines.toString();
+        });
+        assertTrue(plan.contains(index), "Expected " + index + " in plan:\n" + plan);
+    }
+}
@@ -0,0 +1,86 @@
+package rs.raf.bank_service.load;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import rs.raf.bank_service.service.AccountService;
+import rs.raf.bank_service.service.LoanService;
+import rs.raf.bank_service.service.PaymentService;
+import rs.raf.bank_service.utils.JwtTokenUtil;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/// Meri broj SQL naredbi i ucitanih entiteta po pozivu za pregled placanja, racuna i kredita klijenta
+/// nad bootstrap podacima. Pokrece se zajedno sa load profilom (mvn -Pload test -Dtest=ReadModelStatisticsTest).
+@EnabledIfSystemProperty(named = "load.enabled", matches = "true")
+@SpringBootTest(properties = {
+        "spring.rabbitmq.listener.simple.auto-startup=false",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(LoadTestConfig.class)
+public class ReadModelStatisticsTest {
+
+    private static final String TOKEN = "Bearer load";
+    private static final int PAGE_SIZE = 50;
+
+    @MockBean
+    private JwtTokenUtil jwtTokenUtil;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PaymentService paymentService;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private LoanService loanService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void overviewEndpointsUseConstantNumberOfStatements() {
+        for (long clientId = 1; clientId <= 20; clientId++) {
+            when(jwtTokenUtil.getUserIdFromAuthHeader(anyString())).thenReturn(clientId);
+            long id = clientId;
+
+            long payments = measure("getPayments", clientId, () ->
+                    paymentService.getPayments(TOKEN, null, null, null, null, null, null, null, PageRequest.of(0, PAGE_SIZE)));
+            long accounts = measure("getAccountsForClient", clientId, () ->
+                    accountService.getAccountsForClient(null, id, PageRequest.of(0, PAGE_SIZE)));
+            long loans = measure("getClientLoans", clientId, () ->
+                    loanService.getClientLoans(TOKEN, PageRequest.of(0, PAGE_SIZE)));
+
+            // strana + count + valute primalaca
+            assertTrue(payments <= 3, "getPayments issued " + payments + " statements");
+            assertTrue(accounts <= 2, "getAccountsForClient issued " + accounts + " statements");
+            assertTrue(loans <= 2, "getClientLoans issued " + loans + " statements");
+        }
+    }
+
+    private long measure(String name, long clientId, Runnable call) {
+        statistics.clear();
+        call.run();
+        System.out.printf("%-22s client=%-3d statements=%-4d entities=%-5d collections=%d%n",
+                name, clientId,
+                statistics.getPrepareStatementCount(),
+                statistics.getEntityLoadCount(),
+                statistics.getCollectionFetchCount());
+        return statistics.getPrepareStatementCount();
+    }
+}
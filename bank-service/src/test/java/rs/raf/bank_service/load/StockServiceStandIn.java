@@ -0,0 +1,31 @@
+package rs.raf.bank_service.load;
+
+import rs.raf.bank_service.client.StockClient;
+import rs.raf.bank_service.domain.dto.TrackedPaymentNotifyDto;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/// In-process zamena za stock-service, samo broji callback-ove za sistemska placanja.
+public class StockServiceStandIn implements StockClient {
+
+    private final AtomicLong successCallbacks = new AtomicLong();
+    private final AtomicLong failCallbacks = new AtomicLong();
+
+    @Override
+    public void notifySuccess(TrackedPaymentNotifyDto trackedPaymentNotifyDto) {
+        successCallbacks.incrementAndGet();
+    }
+
+    @Override
+    public void notifyFail(TrackedPaymentNotifyDto trackedPaymentNotifyDto) {
+        failCallbacks.incrementAndGet();
+    }
+
+    public long getSuccessCallbacks() {
+        return successCallbacks.get();
+    }
+
+    public long getFailCallbacks() {
+        return failCallbacks.get();
+    }
+}
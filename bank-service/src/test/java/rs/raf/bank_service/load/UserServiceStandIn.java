@@ -0,0 +1,96 @@
+package rs.raf.bank_service.load;
+
+import org.springframework.data.domain.Page;
+import org.springframework.http.ResponseEntity;
+import rs.raf.bank_service.client.UserClient;
+import rs.raf.bank_service.configuration.RabbitMQConfig;
+import rs.raf.bank_service.domain.dto.*;
+import rs.raf.bank_service.domain.enums.TransactionType;
+import rs.raf.bank_service.domain.enums.VerificationType;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/// In-process zamena za user-service. Verifikacioni zahtevi za placanja se odmah odobravaju,
+/// isto kao kada klijent potvrdi placanje u aplikaciji (user-service tada salje CONFIRM_PAYMENT).
+public class UserServiceStandIn implements UserClient {
+
+    private final InMemoryTransactionBroker broker;
+    private final AtomicLong verificationRequests = new AtomicLong();
+
+    public UserServiceStandIn(InMemoryTransactionBroker broker) {
+        this.broker = broker;
+    }
+
+    public long getVerificationRequests() {
+        return verificationRequests.get();
+    }
+
+    @Override
+    public ClientDto getClientById(Long id) {
+        return new ClientDto(id, "Load", "Client " + id, "load.client" + id + "@example.com");
+    }
+
+    @Override
+    public void checkToken(CheckTokenDto checkTokenDto) {
+    }
+
+    @Override
+    public CompanyDto getCompanyById(Long id) {
+        return null;
+    }
+
+    @Override
+    public List<AuthorizedPersonelDto> getAuthorizedPersonnelByCompany(Long companyId) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public void createVerificationRequest(CreateVerificationRequestDto request) {
+        verificationRequests.incrementAndGet();
+        if (request.getVerificationType() == VerificationType.PAYMENT) {
+            broker.publish(RabbitMQConfig.TRANSACTION_QUEUE, new TransactionMessageDto(
+                    TransactionType.CONFIRM_PAYMENT, String.valueOf(request.getTargetId()), request.getUserId(), System.currentTimeMillis()));
+        }
+    }
+
+    @Override
+    public LoginResponseDto employeeLogin(LoginRequestDto request) {
+        return null;
+    }
+
+    @Override
+    public ClientDto addClient(CreateClientDto createClientDto) {
+        return null;
+    }
+
+    @Override
+    public void activateUser(ActivationRequestDto activationRequestDto) {
+    }
+
+    @Override
+    public ResponseEntity<Page<ClientDto>> getAllClients(String firstName, String lastName, String email, int page, int size) {
+        return null;
+    }
+
+    @Override
+    public LoginResponseDto clientLogin(LoginRequestDto request) {
+        return null;
+    }
+
+    @Override
+    public AuthorizedPersonelDto getAuthorizedPersonnelById(Long id) {
+        return null;
+    }
+
+    @Override
+    public ActuaryLimitDto getAgentLimit(Long id) {
+        return null;
+    }
+
+    @Override
+    public ActuaryLimitDto updateUsedLimit(Long id, ChangeAgentLimitDto changeLimitRequest) {
+        return null;
+    }
+}
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import rs.raf.bank_service.client.UserClient;
@@ -15,6 +16,7 @@ import rs.raf.bank_service.domain.dto.*;
 import rs.raf.bank_service.domain.entity.*;
 import rs.raf.bank_service.domain.entity.Currency;
 import rs.raf.bank_service.domain.enums.*;
+import rs.raf.bank_service.domain.event.ClientOverviewChangedEvent;
 import rs.raf.bank_service.exceptions.*;
 import rs.raf.bank_service.repository.AccountRepository;
 import rs.raf.bank_service.repository.ChangeLimitRequestRepository;
@@ -57,6 +59,9 @@ public class AccountServiceTest {
     @Mock
     private ObjectMapper objectMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -325,6 +330,7 @@ public class AccountServiceTest {
 
         assertEquals(newName, account.getName());
         verify(accountRepository).save(account);
+        verifyOverviewChanged(clientId);
     }
 
     @Test
@@ -383,6 +389,7 @@ public class AccountServiceTest {
 
         Account account = new PersonalAccount();
         account.setAccountNumber("123");
+        account.setClientId(5L);
 
         when(changeLimitRequestRepository.findById(requestId)).thenReturn(Optional.of(request));
         when(accountRepository.findByAccountNumber("123")).thenReturn(Optional.of(account));
@@ -392,6 +399,7 @@ public class AccountServiceTest {
         assertEquals(BigDecimal.valueOf(3000), account.getDailyLimit());
         assertEquals(VerificationStatus.APPROVED, request.getStatus());
         verify(accountRepository).save(account);
+        verifyOverviewChanged(5L);
     }
 
     @Test
@@ -571,6 +579,7 @@ public class AccountServiceTest {
         assertEquals(BigDecimal.valueOf(1000), saved.getBalance());
         assertTrue(saved.getAccountNumber().startsWith("3330000"));
         assertTrue(saved.getAccountNumber().endsWith("11"));
+        verifyOverviewChanged(1L);
     }
 
 
@@ -665,6 +674,35 @@ public class AccountServiceTest {
         );
 
         verify(accountRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void setAuthorizedPerson_Success_publishesOverviewChange() {
+        CompanyAccount account = new CompanyAccount();
+        account.setClientId(7L);
+        account.setCompanyId(100L);
+        account.setAccountNumber("ACC-001");
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
+
+        CompanyDto companyDto = new CompanyDto();
+        ClientDto owner = new ClientDto();
+        owner.setId(99L);
+        companyDto.setMajorityOwner(owner);
+        when(userClient.getCompanyById(100L)).thenReturn(companyDto);
+        when(userClient.getAuthorizedPersonnelByCompany(100L))
+                .thenReturn(List.of(new AuthorizedPersonelDto(222L, "Marko", "Markovic", 100L)));
+
+        accountService.setAuthorizedPerson(1L, 222L, 99L);
+
+        assertEquals(222L, account.getAuthorizedPersonId());
+        verify(accountRepository).save(account);
+        verifyOverviewChanged(7L);
+    }
+
+    private void verifyOverviewChanged(Long clientId) {
+        verify(eventPublisher).publishEvent((Object) argThat(event -> event instanceof ClientOverviewChangedEvent
+                && clientId.equals(((ClientOverviewChangedEvent) event).getClientId())));
     }
 
     @Test
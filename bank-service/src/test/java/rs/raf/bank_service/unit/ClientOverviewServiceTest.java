@@ -0,0 +1,182 @@
+package rs.raf.bank_service.unit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import rs.raf.bank_service.domain.dto.ClientOverviewDto;
+import rs.raf.bank_service.domain.entity.Account;
+import rs.raf.bank_service.domain.entity.Currency;
+import rs.raf.bank_service.domain.entity.PersonalAccount;
+import rs.raf.bank_service.domain.event.ClientOverviewChangedEvent;
+import rs.raf.bank_service.domain.mapper.AccountMapper;
+import rs.raf.bank_service.domain.mapper.PaymentMapper;
+import rs.raf.bank_service.repository.AccountRepository;
+import rs.raf.bank_service.repository.CardRepository;
+import rs.raf.bank_service.repository.LoanRepository;
+import rs.raf.bank_service.repository.PaymentRepository;
+import rs.raf.bank_service.service.ClientOverviewService;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ClientOverviewServiceTest {
+
+    @Mock private StringRedisTemplate redisTemplate;
+    @Mock private ValueOperations<String, String> valueOperations;
+    @Mock private SetOperations<String, String> setOperations;
+    @Mock private AccountRepository accountRepository;
+    @Mock private CardRepository cardRepository;
+    @Mock private LoanRepository loanRepository;
+    @Mock private PaymentRepository paymentRepository;
+    @Mock private PaymentMapper paymentMapper;
+    @Mock private TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private ClientOverviewService clientOverviewService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        clientOverviewService = new ClientOverviewService(redisTemplate, objectMapper, accountRepository,
+                cardRepository, loanRepository, paymentRepository, paymentMapper, transactionTemplate);
+        ReflectionTestUtils.setField(clientOverviewService, "ttlMinutes", 30L);
+        ReflectionTestUtils.setField(clientOverviewService, "recentPayments", 10);
+
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        when(accountRepository.findAllByClientId(1L)).thenReturn(List.of(account(new BigDecimal("1500.00"))));
+        when(cardRepository.findByAccount_ClientId(1L)).thenReturn(List.of());
+        when(loanRepository.findShortByClientId(eq(1L), any())).thenReturn(new PageImpl<>(List.of()));
+        when(paymentRepository.findByClientIdOrReceiverClientIdOrderByDateDesc(eq(1L), eq(1L), any())).thenReturn(List.of());
+        when(paymentMapper.toOverviewPage(any())).thenReturn(Page.empty());
+    }
+
+    private Account account(BigDecimal balance) {
+        Currency currency = new Currency();
+        currency.setCode("RSD");
+        Account account = new PersonalAccount();
+        account.setAccountNumber("333000112345678910");
+        account.setClientId(1L);
+        account.setCurrency(currency);
+        account.setBalance(balance);
+        account.setAvailableBalance(balance);
+        return account;
+    }
+
+    private String cachedJson(BigDecimal balance) throws Exception {
+        ClientOverviewDto overview = ClientOverviewDto.builder()
+                .clientId(1L)
+                .accounts(List.of(AccountMapper.toDto(account(balance), null)))
+                .cards(List.of())
+                .loans(List.of())
+                .recentPayments(List.of())
+                .builtAt(LocalDateTime.now())
+                .build();
+        return objectMapper.writeValueAsString(overview);
+    }
+
+    @Test
+    void getOverview_cacheHit_doesNotTouchDatabase() throws Exception {
+        when(valueOperations.get("overview:client:1")).thenReturn(cachedJson(new BigDecimal("1500.00")));
+
+        ClientOverviewDto result = clientOverviewService.getOverview(1L);
+
+        assertEquals(1, result.getAccounts().size());
+        verifyNoInteractions(accountRepository, cardRepository, loanRepository, paymentRepository);
+    }
+
+    @Test
+    void getOverview_cacheMiss_rebuildsFromDatabaseAndStores() {
+        when(valueOperations.get("overview:client:1")).thenReturn(null);
+
+        ClientOverviewDto result = clientOverviewService.getOverview(1L);
+
+        assertEquals(new BigDecimal("1500.00"), result.getAccounts().get(0).getBalance());
+        verify(valueOperations).set(eq("overview:client:1"), anyString(), eq(Duration.ofMinutes(30)));
+        verify(setOperations).add("overview:clients", "1");
+    }
+
+    @Test
+    void getOverview_redisDown_fallsBackToDatabase() {
+        when(valueOperations.get(anyString())).thenThrow(new RedisConnectionFailureException("down"));
+        doThrow(new RedisConnectionFailureException("down")).when(valueOperations).set(anyString(), anyString(), any(Duration.class));
+
+        ClientOverviewDto result = clientOverviewService.getOverview(1L);
+
+        assertEquals(1L, result.getClientId());
+        verify(accountRepository).findAllByClientId(1L);
+    }
+
+    @Test
+    void onOverviewChanged_onlyQueuesUntilRefresh() {
+        clientOverviewService.onOverviewChanged(new ClientOverviewChangedEvent(1L));
+
+        verifyNoInteractions(accountRepository, valueOperations);
+
+        clientOverviewService.refreshPending();
+
+        verify(valueOperations).set(eq("overview:client:1"), contains("1500.00"), any(Duration.class));
+    }
+
+    @Test
+    void onOverviewChanged_repeatedEventsCoalesceIntoOneRebuild() {
+        clientOverviewService.onOverviewChanged(new ClientOverviewChangedEvent(1L));
+        clientOverviewService.onOverviewChanged(new ClientOverviewChangedEvent(1L));
+
+        clientOverviewService.refreshPending();
+        clientOverviewService.refreshPending();
+
+        verify(accountRepository, times(1)).findAllByClientId(1L);
+        verify(valueOperations, times(1)).set(eq("overview:client:1"), anyString(), any(Duration.class));
+    }
+
+    @Test
+    void refreshPending_buildFailure_evictsInsteadOfThrowing() {
+        when(accountRepository.findAllByClientId(1L)).thenThrow(new IllegalStateException("db"));
+        clientOverviewService.onOverviewChanged(new ClientOverviewChangedEvent(1L));
+
+        assertDoesNotThrow(() -> clientOverviewService.refreshPending());
+        verify(redisTemplate).delete("overview:client:1");
+    }
+
+    @Test
+    void checkConsistency_repairsStaleDocument() throws Exception {
+        when(setOperations.members("overview:clients")).thenReturn(Set.of("1"));
+        when(valueOperations.get("overview:client:1")).thenReturn(cachedJson(new BigDecimal("10.00")));
+
+        clientOverviewService.checkConsistency();
+
+        verify(valueOperations).set(eq("overview:client:1"), contains("1500.00"), any(Duration.class));
+    }
+
+    @Test
+    void checkConsistency_leavesMatchingDocument() throws Exception {
+        when(setOperations.members("overview:clients")).thenReturn(Set.of("1"));
+        when(valueOperations.get("overview:client:1")).thenReturn(cachedJson(new BigDecimal("1500.00")));
+
+        clientOverviewService.checkConsistency();
+
+        verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+    }
+}
@@ -0,0 +1,99 @@
+package rs.raf.bank_service.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import rs.raf.bank_service.domain.entity.Currency;
+import rs.raf.bank_service.domain.entity.ExchangeRate;
+import rs.raf.bank_service.domain.entity.ExchangeRateHistory;
+import rs.raf.bank_service.exceptions.ExchangeRateNotFoundException;
+import rs.raf.bank_service.repository.ExchangeRateHistoryRepository;
+import rs.raf.bank_service.repository.ExchangeRateRepository;
+import rs.raf.bank_service.service.ExchangeRateHistoryService;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ExchangeRateHistoryServiceTest {
+
+    @Mock private ExchangeRateHistoryRepository exchangeRateHistoryRepository;
+    @Mock private ExchangeRateRepository exchangeRateRepository;
+
+    @InjectMocks
+    private ExchangeRateHistoryService exchangeRateHistoryService;
+
+    private final Currency rsd = new Currency("RSD", "Dinar", "RSD", "Serbia", "Dinar currency", true, "");
+    private final Currency eur = new Currency("EUR", "Euro", "€", "EU", "Euro currency", true, "");
+    private final Currency usd = new Currency("USD", "Dollar", "$", "USA", "Dollar currency", true, "");
+
+    private final LocalDateTime monday = LocalDateTime.of(2025, 3, 3, 8, 0);
+    private final LocalDateTime tuesday = monday.plusDays(1);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(exchangeRateHistoryRepository.save(any(ExchangeRateHistory.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private static ExchangeRate rate(Currency from, Currency to, String exchangeRate) {
+        return ExchangeRate.builder().fromCurrency(from).toCurrency(to)
+                .exchangeRate(new BigDecimal(exchangeRate)).sellRate(new BigDecimal(exchangeRate)).build();
+    }
+
+    @Test
+    void convert_usesVersionValidAtThatTime() {
+        exchangeRateHistoryService.record(rate(eur, rsd, "117.000000"), monday);
+        exchangeRateHistoryService.record(rate(eur, rsd, "118.000000"), tuesday);
+
+        assertEquals(0, new BigDecimal("1170").compareTo(exchangeRateHistoryService.convert(BigDecimal.TEN, "EUR", "RSD", monday.plusHours(12))));
+        assertEquals(0, new BigDecimal("1180").compareTo(exchangeRateHistoryService.convert(BigDecimal.TEN, "EUR", "RSD", tuesday)));
+    }
+
+    @Test
+    void record_unchangedRate_doesNotAddVersion() {
+        assertTrue(exchangeRateHistoryService.record(rate(eur, rsd, "117.000000"), monday));
+        assertFalse(exchangeRateHistoryService.record(rate(eur, rsd, "117.0"), tuesday));
+        assertTrue(exchangeRateHistoryService.record(rate(eur, rsd, "118.000000"), tuesday.plusDays(1)));
+
+        verify(exchangeRateHistoryRepository, times(2)).save(any(ExchangeRateHistory.class));
+        assertEquals(0, new BigDecimal("1170").compareTo(exchangeRateHistoryService.convert(BigDecimal.TEN, "EUR", "RSD", tuesday)));
+    }
+
+    @Test
+    void convert_beforeFirstVersion_throws() {
+        exchangeRateHistoryService.record(rate(eur, rsd, "117.000000"), monday);
+
+        assertThrows(ExchangeRateNotFoundException.class,
+                () -> exchangeRateHistoryService.convert(BigDecimal.TEN, "EUR", "RSD", monday.minusSeconds(1)));
+    }
+
+    @Test
+    void getRateAt_noDirectPair_goesThroughRsd() {
+        exchangeRateHistoryService.record(rate(eur, rsd, "117.000000"), monday);
+        exchangeRateHistoryService.record(rate(rsd, usd, "0.009000"), monday);
+
+        ExchangeRateHistoryService.RateVersion version = exchangeRateHistoryService.getRateAt("EUR", "USD", tuesday);
+
+        assertEquals(0, new BigDecimal("1.053").compareTo(version.getExchangeRate()));
+    }
+
+    @Test
+    void load_ratesWithoutHistory_areBackfilled() {
+        ExchangeRate current = rate(eur, rsd, "117.000000");
+        current.setUpdatedAt(monday);
+        when(exchangeRateHistoryRepository.findAllByOrderByValidFromAsc()).thenReturn(List.of());
+        when(exchangeRateRepository.findAll()).thenReturn(List.of(current));
+
+        exchangeRateHistoryService.load();
+
+        verify(exchangeRateHistoryRepository).save(argThat(version -> version.getValidFrom().equals(monday)));
+        assertEquals(0, new BigDecimal("117").compareTo(exchangeRateHistoryService.getRateAt("EUR", "RSD", tuesday).getExchangeRate()));
+    }
+}
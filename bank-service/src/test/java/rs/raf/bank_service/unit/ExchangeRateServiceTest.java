@@ -17,6 +17,7 @@ import rs.raf.bank_service.exceptions.CurrencyNotFoundException;
 import rs.raf.bank_service.exceptions.ExchangeRateNotFoundException;
 import rs.raf.bank_service.repository.CurrencyRepository;
 import rs.raf.bank_service.repository.ExchangeRateRepository;
+import rs.raf.bank_service.service.ExchangeRateHistoryService;
 import rs.raf.bank_service.service.ExchangeRateService;
 
 import java.math.BigDecimal;
@@ -39,6 +40,9 @@ public class ExchangeRateServiceTest {
     @Mock
     private ExchangeRateRepository exchangeRateRepository;
 
+    @Mock
+    private ExchangeRateHistoryService exchangeRateHistoryService;
+
     @InjectMocks
     private ExchangeRateService exchangeRateService;
 
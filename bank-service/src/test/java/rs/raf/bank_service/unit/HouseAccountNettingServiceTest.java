@@ -0,0 +1,117 @@
+package rs.raf.bank_service.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import rs.raf.bank_service.domain.entity.CompanyAccount;
+import rs.raf.bank_service.domain.entity.Currency;
+import rs.raf.bank_service.domain.entity.HouseAccountLeg;
+import rs.raf.bank_service.domain.enums.TransactionType;
+import rs.raf.bank_service.repository.AccountRepository;
+import rs.raf.bank_service.repository.HouseAccountLegRepository;
+import rs.raf.bank_service.service.HouseAccountNettingService;
+import rs.raf.bank_service.service.TransactionQueueService;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class HouseAccountNettingServiceTest {
+
+    @Mock private HouseAccountLegRepository legRepository;
+    @Mock private AccountRepository accountRepository;
+    @Mock private TransactionQueueService transactionQueueService;
+
+    @InjectMocks
+    private HouseAccountNettingService houseAccountNettingService;
+
+    private Currency eur;
+    private Currency rsd;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        eur = new Currency();
+        eur.setCode("EUR");
+        rsd = new Currency();
+        rsd.setCode("RSD");
+    }
+
+    private CompanyAccount bankAccount(Currency currency, long balance) {
+        CompanyAccount account = new CompanyAccount();
+        account.setCurrency(currency);
+        account.setBalance(BigDecimal.valueOf(balance));
+        account.setAvailableBalance(BigDecimal.valueOf(balance));
+        return account;
+    }
+
+    private HouseAccountLeg leg(Currency currency, long amount) {
+        return HouseAccountLeg.builder().currency(currency).amount(BigDecimal.valueOf(amount)).build();
+    }
+
+    @Test
+    void settle_postsOneNetAmountPerCurrency() {
+        CompanyAccount bankEur = bankAccount(eur, 1000);
+        CompanyAccount bankRsd = bankAccount(rsd, 100000);
+        List<HouseAccountLeg> legs = List.of(
+                leg(eur, 100), leg(rsd, -11700),
+                leg(eur, 50), leg(rsd, -5850),
+                leg(rsd, 2000), leg(eur, -17));
+        when(legRepository.findAllForSettlement()).thenReturn(legs);
+        when(accountRepository.findFirstByCurrencyAndCompanyId(eur, 1L)).thenReturn(Optional.of(bankEur));
+        when(accountRepository.findFirstByCurrencyAndCompanyId(rsd, 1L)).thenReturn(Optional.of(bankRsd));
+
+        houseAccountNettingService.settle();
+
+        assertEquals(BigDecimal.valueOf(1133), bankEur.getBalance());
+        assertEquals(BigDecimal.valueOf(1133), bankEur.getAvailableBalance());
+        assertEquals(BigDecimal.valueOf(84450), bankRsd.getBalance());
+        verify(accountRepository, times(2)).save(any());
+        verify(legRepository).deleteAllInBatch(legs);
+    }
+
+    @Test
+    void settle_zeroNetPosition_skipsPosting() {
+        List<HouseAccountLeg> legs = List.of(leg(eur, 100), leg(eur, -100));
+        when(legRepository.findAllForSettlement()).thenReturn(legs);
+
+        houseAccountNettingService.settle();
+
+        verify(accountRepository, never()).save(any());
+        verify(legRepository).deleteAllInBatch(legs);
+    }
+
+    @Test
+    void settle_noLegs_doesNothing() {
+        when(legRepository.findAllForSettlement()).thenReturn(List.of());
+
+        houseAccountNettingService.settle();
+
+        verifyNoInteractions(accountRepository);
+        verify(legRepository, never()).deleteAllInBatch(any());
+    }
+
+    @Test
+    void requestSettlement_pendingLegs_goesThroughTransactionQueue() {
+        when(legRepository.count()).thenReturn(3L);
+
+        houseAccountNettingService.requestSettlement();
+
+        verify(transactionQueueService).queueTransaction(TransactionType.SETTLE_HOUSE_ACCOUNTS, 1L);
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    void requestSettlement_noLegs_queuesNothing() {
+        when(legRepository.count()).thenReturn(0L);
+
+        houseAccountNettingService.requestSettlement();
+
+        verifyNoInteractions(transactionQueueService);
+    }
+}
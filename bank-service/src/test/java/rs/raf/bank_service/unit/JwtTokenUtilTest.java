@@ -0,0 +1,99 @@
+package rs.raf.bank_service.unit;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import rs.raf.bank_service.security.JwtPrincipal;
+import rs.raf.bank_service.utils.JwtTokenUtil;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtTokenUtilTest {
+
+    private static final Key secret = Keys.hmacShaKeyFor("si-2024-banka-3-tajni-kljuc-za-jwt-generisanje-tokena-mora-biti-512-bitova-valjda-je-dovoljno".getBytes());
+
+    private final JwtTokenUtil jwtTokenUtil = new JwtTokenUtil();
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private String token(Long userId, String role, long expiresInMs) {
+        return Jwts.builder()
+                .setSubject("user@test.com")
+                .claim("role", role)
+                .claim("userId", userId)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + expiresInMs))
+                .signWith(secret, SignatureAlgorithm.HS512)
+                .compact();
+    }
+
+    @Test
+    void getClaimsFromToken_sameToken_verifiedOnce() {
+        String token = token(5L, "CLIENT", 60_000);
+
+        Claims first = jwtTokenUtil.getClaimsFromToken(token);
+        Claims second = jwtTokenUtil.getClaimsFromToken(token);
+
+        assertSame(first, second);
+        assertEquals(5L, jwtTokenUtil.getUserIdFromAuthHeader("Bearer " + token));
+        assertEquals("CLIENT", jwtTokenUtil.getUserRoleFromAuthHeader("Bearer " + token));
+    }
+
+    @Test
+    void getClaimsFromToken_tamperedPayloadWithCachedSignature_rejected() {
+        String token = token(5L, "CLIENT", 60_000);
+        jwtTokenUtil.getClaimsFromToken(token);
+
+        String[] parts = token.split("\\.");
+        String forgedPayload = token(1L, "ADMIN", 60_000).split("\\.")[1];
+        String forged = parts[0] + "." + forgedPayload + "." + parts[2];
+
+        assertThrows(SignatureException.class, () -> jwtTokenUtil.getClaimsFromToken(forged));
+        assertFalse(jwtTokenUtil.validateToken(forged));
+    }
+
+    @Test
+    void getClaimsFromToken_expiredToken_rejected() {
+        String token = token(5L, "CLIENT", -1_000);
+
+        assertThrows(ExpiredJwtException.class, () -> jwtTokenUtil.getClaimsFromToken(token));
+    }
+
+    @Test
+    void getUserIdFromAuthHeader_usesRequestPrincipal() {
+        String token = token(5L, "CLIENT", 60_000);
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_CLIENT"));
+        JwtPrincipal principal = new JwtPrincipal("user@test.com", 5L, "CLIENT", token, authorities);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, authorities));
+
+        assertEquals(5L, jwtTokenUtil.getUserIdFromAuthHeader("Bearer " + token));
+        assertEquals("CLIENT", jwtTokenUtil.getUserRoleFromAuthHeader("Bearer " + token));
+    }
+
+    @Test
+    void getUserIdFromAuthHeader_differentTokenThanPrincipal_parsesHeader() {
+        String requestToken = token(5L, "CLIENT", 60_000);
+        String otherToken = token(7L, "EMPLOYEE", 60_000);
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_CLIENT"));
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new JwtPrincipal("user@test.com", 5L, "CLIENT", requestToken, authorities), null, authorities));
+
+        assertEquals(7L, jwtTokenUtil.getUserIdFromAuthHeader("Bearer " + otherToken));
+    }
+}
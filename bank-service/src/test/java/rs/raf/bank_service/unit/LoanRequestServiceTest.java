@@ -4,6 +4,7 @@ package rs.raf.bank_service.unit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -16,6 +17,7 @@ import rs.raf.bank_service.domain.entity.*;
 import rs.raf.bank_service.domain.enums.InterestRateType;
 import rs.raf.bank_service.domain.enums.LoanRequestStatus;
 import rs.raf.bank_service.domain.enums.LoanType;
+import rs.raf.bank_service.domain.event.ClientOverviewChangedEvent;
 import rs.raf.bank_service.domain.mapper.LoanMapper;
 import rs.raf.bank_service.domain.mapper.LoanRequestMapper;
 import rs.raf.bank_service.exceptions.*;
@@ -39,6 +41,7 @@ class LoanRequestServiceTest {
     private CurrencyRepository currencyRepository;
     private InstallmentRepository installmentRepository;
     private JwtTokenUtil jwtTokenUtil;
+    private ApplicationEventPublisher eventPublisher;
 
     private LoanRequestService loanRequestService;
 
@@ -52,6 +55,7 @@ class LoanRequestServiceTest {
         currencyRepository = mock(CurrencyRepository.class);
         installmentRepository = mock(InstallmentRepository.class);
         jwtTokenUtil = mock(JwtTokenUtil.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
 
         loanRequestService = new LoanRequestService(
                 loanRequestRepository,
@@ -61,7 +65,8 @@ class LoanRequestServiceTest {
                 loanMapper,
                 currencyRepository,
                 installmentRepository,
-                jwtTokenUtil
+                jwtTokenUtil,
+                eventPublisher
         );
     }
 
@@ -138,6 +143,7 @@ class LoanRequestServiceTest {
     void testApproveLoan_RequestNotFound() {
         when(loanRequestRepository.findByIdAndStatus(1L, LoanRequestStatus.PENDING)).thenReturn(Optional.empty());
         assertThrows(LoanRequestNotFoundException.class, () -> loanRequestService.approveLoan(1L));
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -155,6 +161,7 @@ class LoanRequestServiceTest {
         currency.setCode("EUR");
 
         Account clientAccount = new Account() {};
+        clientAccount.setClientId(3L);
         clientAccount.setBalance(BigDecimal.valueOf(2000));
         clientAccount.setAvailableBalance(BigDecimal.valueOf(2000));
         clientAccount.setCurrency(currency);
@@ -192,6 +199,8 @@ class LoanRequestServiceTest {
         assertEquals(BigDecimal.valueOf(3000), clientAccount.getBalance());
         assertEquals(BigDecimal.valueOf(3000), clientAccount.getAvailableBalance());
         assertEquals(BigDecimal.valueOf(49000), bankAccount.getBalance());
+        verify(eventPublisher).publishEvent((Object) argThat(event -> event instanceof ClientOverviewChangedEvent
+                && ((ClientOverviewChangedEvent) event).getClientId().equals(3L)));
     }
 
     @Test
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import rs.raf.bank_service.client.UserClient;
@@ -44,6 +45,7 @@ public class LoanServiceTest {
     @Mock private InstallmentMapper installmentMapper;
     @Mock private TransactionQueueService transactionQueueService;
     @Mock private LoanRequestRepository loanRequestRepository;
+    @Mock private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks private LoanService loanService;
 
@@ -142,12 +144,9 @@ public class LoanServiceTest {
     void testGetClientLoans_ReturnsPage() {
         String token = "Bearer token";
         when(jwtTokenUtil.getUserIdFromAuthHeader(token)).thenReturn(1L);
-        when(accountRepository.findByClientId(1L)).thenReturn(List.of(account));
 
-        Page<Loan> loans = new PageImpl<>(List.of(loan));
         Pageable pageable = PageRequest.of(0, 10);
-        when(loanRepository.findByAccountIn(List.of(account), pageable)).thenReturn(loans);
-        when(loanMapper.toShortDto(loan)).thenReturn(loanShortDto);
+        when(loanRepository.findShortByClientId(1L, pageable)).thenReturn(new PageImpl<>(List.of(loanShortDto)));
 
         Page<LoanShortDto> result = loanService.getClientLoans(token, pageable);
         assertEquals(1, result.getTotalElements());
@@ -187,11 +186,9 @@ public class LoanServiceTest {
     void testGetClientLoans_EmptyResult() {
         String token = "Bearer xyz";
         when(jwtTokenUtil.getUserIdFromAuthHeader(token)).thenReturn(1L);
-        when(accountRepository.findByClientId(1L)).thenReturn(Collections.emptyList());
 
         Pageable pageable = PageRequest.of(0, 10);
-        when(loanRepository.findByAccountIn(Collections.emptyList(), pageable))
-                .thenReturn(Page.empty());
+        when(loanRepository.findShortByClientId(1L, pageable)).thenReturn(Page.empty());
 
         Page<LoanShortDto> result = loanService.getClientLoans(token, pageable);
         assertTrue(result.isEmpty());
@@ -0,0 +1,148 @@
+package rs.raf.bank_service.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import rs.raf.bank_service.client.StockClient;
+import rs.raf.bank_service.domain.entity.PaymentCallbackOutbox;
+import rs.raf.bank_service.domain.enums.OutboxStatus;
+import rs.raf.bank_service.repository.PaymentCallbackOutboxRepository;
+import rs.raf.bank_service.service.PaymentCallbackRelay;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class PaymentCallbackRelayTest {
+
+    @Mock private PaymentCallbackOutboxRepository outboxRepository;
+    @Mock private StockClient stockClient;
+    @Mock private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private PaymentCallbackRelay paymentCallbackRelay;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(paymentCallbackRelay, "batchSize", 50);
+        ReflectionTestUtils.setField(paymentCallbackRelay, "maxAttempts", 3);
+        ReflectionTestUtils.setField(paymentCallbackRelay, "baseBackoffMs", 1000L);
+        ReflectionTestUtils.setField(paymentCallbackRelay, "maxBackoffMs", 60000L);
+        ReflectionTestUtils.setField(paymentCallbackRelay, "leaseMs", 60000L);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(outboxRepository.saveAll(any())).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    private PaymentCallbackOutbox pending(long callbackId, boolean success, int attempts) {
+        return PaymentCallbackOutbox.builder()
+                .callbackId(callbackId)
+                .success(success)
+                .status(OutboxStatus.PENDING)
+                .attempts(attempts)
+                .nextAttemptAt(LocalDateTime.now().minusSeconds(1))
+                .build();
+    }
+
+    @Test
+    void relayPending_sendsBatchAndMarksSent() {
+        PaymentCallbackOutbox ok = pending(1L, true, 0);
+        PaymentCallbackOutbox fail = pending(2L, false, 0);
+        when(outboxRepository.findByStatusInAndNextAttemptAtLessThanEqualOrderByIdAsc(any(), any(), any()))
+                .thenReturn(List.of(ok, fail));
+
+        paymentCallbackRelay.relayPending();
+
+        verify(stockClient).notifySuccess(argThat(dto -> dto.getCallbackId().equals(1L)));
+        verify(stockClient).notifyFail(argThat(dto -> dto.getCallbackId().equals(2L)));
+        assertEquals(OutboxStatus.SENT, ok.getStatus());
+        assertEquals(OutboxStatus.SENT, fail.getStatus());
+        verify(outboxRepository).save(ok);
+        verify(outboxRepository).save(fail);
+    }
+
+    @Test
+    void relayPending_claimsRowsInFlightBeforeCallingStockService() {
+        PaymentCallbackOutbox callback = pending(1L, true, 0);
+        when(outboxRepository.findByStatusInAndNextAttemptAtLessThanEqualOrderByIdAsc(any(), any(), any()))
+                .thenReturn(List.of(callback));
+        doAnswer(inv -> {
+            // claim transakcija je vec zavrsena kada krene poziv ka stock-service-u
+            verify(transactionTemplate, times(1)).execute(any());
+            verify(outboxRepository, never()).save(any());
+            assertEquals(OutboxStatus.IN_FLIGHT, callback.getStatus());
+            assertTrue(callback.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(30)));
+            return null;
+        }).when(stockClient).notifySuccess(any());
+
+        paymentCallbackRelay.relayPending();
+
+        verify(stockClient).notifySuccess(any());
+        verify(outboxRepository).save(callback);
+        assertEquals(OutboxStatus.SENT, callback.getStatus());
+    }
+
+    @Test
+    void relayPending_expiredLease_isClaimedAgain() {
+        PaymentCallbackOutbox stuck = pending(1L, true, 0);
+        stuck.setStatus(OutboxStatus.IN_FLIGHT);
+        when(outboxRepository.findByStatusInAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                eq(List.of(OutboxStatus.PENDING, OutboxStatus.IN_FLIGHT)), any(), any()))
+                .thenReturn(List.of(stuck));
+
+        paymentCallbackRelay.relayPending();
+
+        verify(stockClient).notifySuccess(any());
+        assertEquals(OutboxStatus.SENT, stuck.getStatus());
+    }
+
+    @Test
+    void relayPending_stockServiceDown_schedulesRetryWithBackoff() {
+        PaymentCallbackOutbox callback = pending(1L, true, 1);
+        when(outboxRepository.findByStatusInAndNextAttemptAtLessThanEqualOrderByIdAsc(any(), any(), any()))
+                .thenReturn(List.of(callback));
+        doThrow(new RuntimeException("connection refused")).when(stockClient).notifySuccess(any());
+
+        LocalDateTime before = LocalDateTime.now();
+        paymentCallbackRelay.relayPending();
+
+        assertEquals(OutboxStatus.PENDING, callback.getStatus());
+        assertEquals(2, callback.getAttempts());
+        // drugi pokusaj: 1000ms << 1
+        assertFalse(callback.getNextAttemptAt().isBefore(before.plusSeconds(2)));
+        assertEquals("connection refused", callback.getLastError());
+    }
+
+    @Test
+    void relayPending_lastAttemptFails_marksFailed() {
+        PaymentCallbackOutbox callback = pending(1L, true, 2);
+        when(outboxRepository.findByStatusInAndNextAttemptAtLessThanEqualOrderByIdAsc(any(), any(), any()))
+                .thenReturn(List.of(callback));
+        doThrow(new RuntimeException("timeout")).when(stockClient).notifySuccess(any());
+
+        paymentCallbackRelay.relayPending();
+
+        assertEquals(OutboxStatus.FAILED, callback.getStatus());
+        assertEquals(3, callback.getAttempts());
+    }
+
+    @Test
+    void relayPending_nothingDue_doesNotCallStockService() {
+        when(outboxRepository.findByStatusInAndNextAttemptAtLessThanEqualOrderByIdAsc(any(), any(), any()))
+                .thenReturn(List.of());
+
+        paymentCallbackRelay.relayPending();
+
+        verifyNoInteractions(stockClient);
+        verify(outboxRepository, never()).save(any());
+    }
+}
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import rs.raf.bank_service.client.UserClient;
@@ -12,11 +13,16 @@ import rs.raf.bank_service.domain.dto.*;
 import rs.raf.bank_service.domain.entity.*;
 import rs.raf.bank_service.domain.entity.Currency;
 import rs.raf.bank_service.domain.enums.PaymentStatus;
+import rs.raf.bank_service.domain.enums.TransactionType;
 import rs.raf.bank_service.domain.mapper.PaymentMapper;
 import rs.raf.bank_service.exceptions.*;
 import rs.raf.bank_service.repository.*;
+import rs.raf.bank_service.service.ExchangeRateHistoryService;
 import rs.raf.bank_service.service.ExchangeRateService;
+import rs.raf.bank_service.service.HouseAccountNettingService;
 import rs.raf.bank_service.service.PaymentService;
+import rs.raf.bank_service.service.PaymentVelocityService;
+import rs.raf.bank_service.service.TransactionQueueService;
 import rs.raf.bank_service.utils.JwtTokenUtil;
 
 import java.math.BigDecimal;
@@ -39,6 +45,11 @@ public class PaymentServiceTest {
     @Mock private PaymentMapper paymentMapper;
     @Mock private ExchangeRateService exchangeRateService;
     @Mock private ObjectMapper objectMapper;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Mock private PaymentVelocityService paymentVelocityService;
+    @Mock private HouseAccountNettingService houseAccountNettingService;
+    @Mock private ExchangeRateHistoryService exchangeRateHistoryService;
+    @Mock private TransactionQueueService transactionQueueService;
 
     private final String token = "Bearer token";
     private final Long userId = 1L;
@@ -72,9 +83,9 @@ public class PaymentServiceTest {
 
         when(accountRepository.findByAccountNumber("ACC")).thenReturn(Optional.of(acc));
         when(cardRepository.findByCardNumber("CARD")).thenReturn(Optional.of(card));
-        when(paymentRepository.findAll(any(Specification.class), eq(pageable)))
-                .thenReturn(new PageImpl<>(List.of(payment)));
-        when(paymentMapper.toOverviewDto(any())).thenReturn(dto);
+        Page<Payment> payments = new PageImpl<>(List.of(payment));
+        when(paymentRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(payments);
+        when(paymentMapper.toOverviewPage(payments)).thenReturn(new PageImpl<>(List.of(dto)));
 
         Page<PaymentOverviewDto> page = paymentService.getPayments(
                 token, null, null, null, null, null, "ACC", "CARD", pageable);
@@ -90,6 +101,25 @@ public class PaymentServiceTest {
         when(paymentMapper.toDetailsDto(payment)).thenReturn(dto);
 
         assertEquals(dto, paymentService.getPaymentDetails(token, 1L));
+        verifyNoInteractions(exchangeRateHistoryService);
+    }
+
+    @Test
+    public void testGetPaymentDetails_crossCurrency_usesRateValidAtPaymentDate() {
+        Payment payment = new Payment();
+        payment.setDate(LocalDateTime.of(2025, 3, 3, 12, 0));
+        PaymentDetailsDto dto = new PaymentDetailsDto();
+        dto.setSenderCurrencyCode("EUR");
+        dto.setReceiverCurrencyCode("RSD");
+        when(paymentRepository.findByIdAndClientId(1L, userId)).thenReturn(Optional.of(payment));
+        when(paymentMapper.toDetailsDto(payment)).thenReturn(dto);
+        when(exchangeRateHistoryService.getRateAt("EUR", "RSD", payment.getDate()))
+                .thenReturn(new ExchangeRateHistoryService.RateVersion(new BigDecimal("117"), new BigDecimal("118.17")));
+
+        PaymentDetailsDto result = paymentService.getPaymentDetails(token, 1L);
+
+        assertEquals(new BigDecimal("118.17"), result.getExchangeRate());
+        verify(exchangeRateService, never()).getExchangeRate(any(), any());
     }
 
     @Test
@@ -316,6 +346,63 @@ public class PaymentServiceTest {
         assertDoesNotThrow(() -> paymentService.createPaymentAndVerificationRequest(dto, userId));
     }
 
+    @Test
+    public void testCreatePaymentAndVerificationRequest_velocityExceeded_parksPaymentForReview() throws Exception {
+        CreatePaymentDto dto = new CreatePaymentDto();
+        dto.setSenderAccountNumber("ACC123");
+        dto.setReceiverAccountNumber("ACC456");
+        dto.setAmount(BigDecimal.valueOf(100));
+        dto.setPaymentCode("289");
+        dto.setPurposeOfPayment("Plaćanje usluga");
+
+        PersonalAccount sender = new PersonalAccount();
+        sender.setAccountNumber("ACC123");
+        sender.setAvailableBalance(BigDecimal.valueOf(200));
+        sender.setBalance(BigDecimal.valueOf(200));
+        sender.setCurrency(rsdCurrency());
+        sender.setClientId(userId);
+
+        PersonalAccount receiver = new PersonalAccount();
+        receiver.setAccountNumber("ACC456");
+        receiver.setCurrency(rsdCurrency());
+
+        when(accountRepository.findByAccountNumber("ACC123")).thenReturn(Optional.of(sender));
+        when(accountRepository.findByAccountNumber("ACC456")).thenReturn(Optional.of(receiver));
+        when(userClient.getClientById(userId)).thenReturn(mockClient());
+        when(paymentVelocityService.screen(userId, "ACC123", "ACC456", false, BigDecimal.valueOf(100)))
+                .thenReturn("sender account exceeded 10 payments in 60s");
+
+        paymentService.createPaymentAndVerificationRequest(dto, userId);
+
+        ArgumentCaptor<Payment> captor = ArgumentCaptor.forClass(Payment.class);
+        verify(paymentRepository).save(captor.capture());
+        assertEquals(PaymentStatus.UNDER_REVIEW, captor.getValue().getStatus());
+        verify(userClient, never()).createVerificationRequest(any());
+    }
+
+    @Test
+    public void rejectReviewedPayment_underReview_queuesRejection() {
+        Payment payment = new Payment();
+        payment.setStatus(PaymentStatus.UNDER_REVIEW);
+        when(paymentRepository.findById(1L)).thenReturn(Optional.of(payment));
+
+        paymentService.rejectReviewedPayment(1L);
+
+        verify(transactionQueueService).queueTransaction(TransactionType.REJECT_PAYMENT, 1L);
+    }
+
+    @Test
+    public void rejectReviewedPayment_notUnderReview_throwsWithoutQueueing() {
+        Payment payment = new Payment();
+        payment.setStatus(PaymentStatus.COMPLETED);
+        when(paymentRepository.findById(1L)).thenReturn(Optional.of(payment));
+        when(paymentRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertThrows(RejectNonPendingRequestException.class, () -> paymentService.rejectReviewedPayment(1L));
+        assertThrows(PaymentNotFoundException.class, () -> paymentService.rejectReviewedPayment(2L));
+        verifyNoInteractions(transactionQueueService);
+    }
+
     @Test
     public void testValidatePaymentData_missingPaymentCode_throwsException() {
         CreatePaymentDto dto = new CreatePaymentDto();
@@ -469,6 +556,50 @@ public class PaymentServiceTest {
         assertEquals(PaymentStatus.COMPLETED, payment.getStatus());
     }
 
+    @Test
+    public void testConfirmPayment_processDifferentCurrencyPayment_nettingDefersHouseLegs() {
+        Currency eur = new Currency();
+        eur.setCode("EUR");
+        Currency rsd = new Currency();
+        rsd.setCode("RSD");
+
+        PersonalAccount sender = new PersonalAccount();
+        sender.setAccountNumber("ACC001");
+        sender.setCurrency(eur);
+        sender.setBalance(BigDecimal.valueOf(500));
+        sender.setAvailableBalance(BigDecimal.valueOf(400));
+        sender.setClientId(userId);
+
+        PersonalAccount receiver = new PersonalAccount();
+        receiver.setAccountNumber("ACC002");
+        receiver.setCurrency(rsd);
+        receiver.setBalance(BigDecimal.ZERO);
+        receiver.setAvailableBalance(BigDecimal.ZERO);
+        receiver.setClientId(999L);
+
+        Payment payment = new Payment();
+        payment.setId(56L);
+        payment.setSenderAccount(sender);
+        payment.setAccountNumberReceiver("ACC002");
+        payment.setAmount(BigDecimal.valueOf(100));
+        payment.setOutAmount(BigDecimal.valueOf(11700));
+        payment.setStatus(PaymentStatus.PENDING_CONFIRMATION);
+
+        when(houseAccountNettingService.isEnabled()).thenReturn(true);
+        when(paymentRepository.findById(56L)).thenReturn(Optional.of(payment));
+        when(accountRepository.findByAccountNumber("ACC002")).thenReturn(Optional.of(receiver));
+        when(paymentRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+        when(paymentMapper.toDetailsDto(any())).thenReturn(new PaymentDetailsDto());
+
+        assertDoesNotThrow(() -> paymentService.confirmPayment(56L));
+
+        assertEquals(BigDecimal.valueOf(400), sender.getBalance());
+        assertEquals(BigDecimal.valueOf(11700), receiver.getBalance());
+        verify(houseAccountNettingService).record(eur, BigDecimal.valueOf(100));
+        verify(houseAccountNettingService).record(rsd, BigDecimal.valueOf(-11700));
+        verify(accountRepository, never()).findFirstByCurrencyAndCompanyId(any(), any());
+    }
+
     @Test
     public void testConfirmPayment_processSameCurrencyPayment_success() {
         // Setup valuta
@@ -0,0 +1,111 @@
+package rs.raf.bank_service.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import rs.raf.bank_service.service.PaymentVelocityService;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class PaymentVelocityServiceTest {
+
+    private Clock clock;
+    private PaymentVelocityService paymentVelocityService;
+
+    @BeforeEach
+    void setUp() {
+        clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(1_000_000L);
+
+        paymentVelocityService = new PaymentVelocityService(clock);
+        ReflectionTestUtils.setField(paymentVelocityService, "enabled", true);
+        ReflectionTestUtils.setField(paymentVelocityService, "windowSeconds", 60);
+        ReflectionTestUtils.setField(paymentVelocityService, "accountMaxCount", 3L);
+        ReflectionTestUtils.setField(paymentVelocityService, "accountMaxAmount", new BigDecimal("1000"));
+        ReflectionTestUtils.setField(paymentVelocityService, "receiverMaxCount", 5L);
+        ReflectionTestUtils.setField(paymentVelocityService, "clientMaxCount", 5L);
+    }
+
+    @Test
+    void screen_underLimits_returnsNull() {
+        for (int i = 0; i < 3; i++) {
+            assertNull(paymentVelocityService.screen(1L, "A1", "R" + i, false, BigDecimal.TEN));
+        }
+    }
+
+    @Test
+    void screen_accountCountExceeded_flagsPayment() {
+        for (int i = 0; i < 3; i++) {
+            paymentVelocityService.screen(1L, "A1", "R" + i, false, BigDecimal.TEN);
+        }
+
+        assertNotNull(paymentVelocityService.screen(1L, "A1", "R9", false, BigDecimal.TEN));
+    }
+
+    @Test
+    void screen_accountAmountExceeded_flagsPayment() {
+        assertNull(paymentVelocityService.screen(1L, "A1", "R1", false, new BigDecimal("900")));
+        assertNotNull(paymentVelocityService.screen(1L, "A1", "R2", false, new BigDecimal("200")));
+    }
+
+    @Test
+    void screen_manySendersToOneReceiver_flagsPayment() {
+        for (long client = 1; client <= 5; client++) {
+            assertNull(paymentVelocityService.screen(client, "A" + client, "MULE", false, BigDecimal.TEN));
+        }
+
+        assertNotNull(paymentVelocityService.screen(6L, "A6", "MULE", false, BigDecimal.TEN));
+    }
+
+    @Test
+    void screen_manySendersToExemptReceiver_doesNotFlagSenders() {
+        ReflectionTestUtils.setField(paymentVelocityService, "exemptReceivers", Set.of("MERCHANT"));
+
+        for (long client = 1; client <= 10; client++) {
+            assertNull(paymentVelocityService.screen(client, "A" + client, "MERCHANT", false, BigDecimal.TEN));
+        }
+    }
+
+    @Test
+    void screen_manySendersToHouseAccount_doesNotFlagSenders() {
+        for (long client = 1; client <= 10; client++) {
+            assertNull(paymentVelocityService.screen(client, "A" + client, "BANK", true, BigDecimal.TEN));
+        }
+    }
+
+    @Test
+    void evictIdle_keepsActiveWindows() {
+        for (int i = 0; i < 3; i++) {
+            paymentVelocityService.screen(1L, "A1", "R" + i, false, BigDecimal.TEN);
+        }
+
+        paymentVelocityService.evictIdle();
+
+        assertNotNull(paymentVelocityService.screen(1L, "A1", "R9", false, BigDecimal.TEN));
+    }
+
+    @Test
+    void screen_windowSlides_countsExpire() {
+        for (int i = 0; i < 3; i++) {
+            paymentVelocityService.screen(1L, "A1", "R" + i, false, BigDecimal.TEN);
+        }
+
+        when(clock.millis()).thenReturn(1_000_000L + 61_000L);
+
+        assertNull(paymentVelocityService.screen(1L, "A1", "R9", false, BigDecimal.TEN));
+    }
+
+    @Test
+    void screen_disabled_neverFlags() {
+        ReflectionTestUtils.setField(paymentVelocityService, "enabled", false);
+
+        for (int i = 0; i < 10; i++) {
+            assertNull(paymentVelocityService.screen(1L, "A1", "R1", false, new BigDecimal("5000")));
+        }
+    }
+}
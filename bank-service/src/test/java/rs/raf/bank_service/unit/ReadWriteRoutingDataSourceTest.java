@@ -0,0 +1,107 @@
+package rs.raf.bank_service.unit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import rs.raf.datasource_routing.DataSourceRoutingConfig;
+import rs.raf.datasource_routing.ReadWriteRoutingDataSource;
+import rs.raf.datasource_routing.ReplicaLagMonitor;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class ReadWriteRoutingDataSourceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ReplicaLagMonitor monitor;
+    private ReadWriteRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+
+        monitor = new ReplicaLagMonitor(replica, 1000);
+        routing = new ReadWriteRoutingDataSource(monitor, meterRegistry);
+        routing.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.PRIMARY, primary,
+                ReadWriteRoutingDataSource.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    private void replicaLag(long lagMs) throws SQLException {
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(replicaConnection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(1)).thenReturn(lagMs);
+        monitor.check();
+    }
+
+    @Test
+    void replicaLagMonitor_startsUnhealthyWithoutTouchingReplica() throws SQLException {
+        ReplicaLagMonitor created = new DataSourceRoutingConfig().replicaLagMonitor(replica, 1000, meterRegistry);
+
+        assertFalse(created.isHealthy());
+        verify(replica, never()).getConnection();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertSame(primaryConnection, routing.getConnection());
+    }
+
+    @Test
+    void writeTransaction_goesToPrimary() throws SQLException {
+        replicaLag(0);
+
+        assertSame(primaryConnection, routing.getConnection());
+    }
+
+    @Test
+    void readOnlyTransaction_healthyReplica_goesToReplica() throws SQLException {
+        replicaLag(200);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(replicaConnection, routing.getConnection());
+        assertEquals(1.0, meterRegistry.counter("datasource.routing.connections", "target", "replica", "reason", "read").count());
+    }
+
+    @Test
+    void readOnlyTransaction_laggingReplica_fallsBackToPrimary() throws SQLException {
+        replicaLag(5000);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertFalse(monitor.isHealthy());
+        assertSame(primaryConnection, routing.getConnection());
+        assertEquals(1.0, meterRegistry.counter("datasource.routing.connections", "target", "primary", "reason", "replica-lag").count());
+    }
+
+    @Test
+    void readOnlyTransaction_replicaDown_fallsBackToPrimary() throws SQLException {
+        when(replica.getConnection()).thenThrow(new SQLException("connection refused"));
+        monitor.check();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(primaryConnection, routing.getConnection());
+    }
+}
@@ -0,0 +1,112 @@
+package rs.raf.bank_service.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.postgresql.PGConnection;
+import org.springframework.test.util.ReflectionTestUtils;
+import rs.raf.bank_service.bootstrap.SeedSnapshotLoader;
+import rs.raf.bank_service.domain.entity.SeedSnapshot;
+import rs.raf.bank_service.repository.SeedSnapshotRepository;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class SeedSnapshotLoaderTest {
+
+    @Mock private DataSource dataSource;
+    @Mock private SeedSnapshotRepository seedSnapshotRepository;
+    @Mock private Connection connection;
+    @Mock private DatabaseMetaData metaData;
+
+    @InjectMocks
+    private SeedSnapshotLoader seedSnapshotLoader;
+
+    @TempDir
+    Path snapshotDir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(seedSnapshotLoader, "enabled", true);
+        ReflectionTestUtils.setField(seedSnapshotLoader, "version", "1");
+        ReflectionTestUtils.setField(seedSnapshotLoader, "dir", snapshotDir.toString());
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(connection.getSchema()).thenReturn("public");
+        schema("account.balance:numeric:NO");
+    }
+
+    /// Sema koju metadata vraca, jedna kolona po stringu "tabela.kolona:tip:nullable"
+    private void schema(String... definitions) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        int[] row = {-1};
+        when(rs.next()).thenAnswer(inv -> ++row[0] < definitions.length);
+        when(rs.getString(anyString())).thenAnswer(inv -> {
+            String[] parts = definitions[row[0]].split("[.:]");
+            return switch (inv.<String>getArgument(0)) {
+                case "TABLE_NAME" -> parts[0];
+                case "COLUMN_NAME" -> parts[1];
+                case "TYPE_NAME" -> parts[2];
+                default -> parts[3];
+            };
+        });
+        when(metaData.getColumns(any(), any(), eq("%"), eq("%"))).thenReturn(rs);
+    }
+
+    private String currentKey() {
+        ArgumentCaptor<SeedSnapshot> marker = ArgumentCaptor.forClass(SeedSnapshot.class);
+        verify(seedSnapshotRepository, atLeastOnce()).save(marker.capture());
+        return marker.getValue().getVersion();
+    }
+
+    @Test
+    void seed_noSnapshot_runsSeederOnce() throws Exception {
+        // baza koja nije PostgreSQL, snapshot se ne pravi
+        when(connection.isWrapperFor(PGConnection.class)).thenReturn(false);
+        AtomicInteger runs = new AtomicInteger();
+
+        seedSnapshotLoader.seed(runs::incrementAndGet);
+
+        assertEquals(1, runs.get());
+        verify(seedSnapshotRepository).save(argThat(marker -> marker.getMode().equals("SEEDED") && marker.getChecksum() == null));
+    }
+
+    @Test
+    void seed_schemaChanged_usesNewSnapshotKey() throws Exception {
+        when(connection.isWrapperFor(PGConnection.class)).thenReturn(false);
+        seedSnapshotLoader.seed(() -> { });
+        String previousKey = currentKey();
+
+        // nova kolona, npr. posle dodavanja polja u entitet
+        schema("account.balance:numeric:NO", "listing.quote_close:numeric:YES");
+        AtomicInteger runs = new AtomicInteger();
+        seedSnapshotLoader.seed(runs::incrementAndGet);
+
+        assertEquals(1, runs.get());
+        assertNotEquals(previousKey, currentKey());
+        assertTrue(currentKey().startsWith("1-"));
+    }
+
+    @Test
+    void seed_disabled_runsSeederWithoutTouchingSnapshots() {
+        ReflectionTestUtils.setField(seedSnapshotLoader, "enabled", false);
+        AtomicInteger runs = new AtomicInteger();
+
+        seedSnapshotLoader.seed(runs::incrementAndGet);
+
+        assertEquals(1, runs.get());
+        verifyNoInteractions(dataSource);
+    }
+}
@@ -13,6 +13,7 @@ import rs.raf.bank_service.domain.entity.ExchangeRate;
 import rs.raf.bank_service.exceptions.CurrencyNotFoundException;
 import rs.raf.bank_service.repository.CurrencyRepository;
 import rs.raf.bank_service.repository.ExchangeRateRepository;
+import rs.raf.bank_service.service.ExchangeRateHistoryService;
 import rs.raf.bank_service.service.ExchangeRateService;
 
 import java.math.BigDecimal;
@@ -31,6 +32,8 @@ class ServiceExchangeRatesUnitTest {
     private CurrencyRepository currencyRepository;
     @Mock
     private ExchangeRateClient exchangeRateClient;
+    @Mock
+    private ExchangeRateHistoryService exchangeRateHistoryService;
     @InjectMocks
     private ExchangeRateService exchangeRateService;
 
@@ -0,0 +1,112 @@
+package rs.raf.bank_service.unit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.test.util.ReflectionTestUtils;
+import rs.raf.bank_service.domain.enums.TransactionType;
+import rs.raf.bank_service.exceptions.TransactionBacklogException;
+import rs.raf.bank_service.service.TransactionAdmissionService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TransactionAdmissionServiceTest {
+
+    private final AmqpAdmin amqpAdmin = mock(AmqpAdmin.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TransactionAdmissionService admissionService;
+
+    @BeforeEach
+    void setUp() {
+        admissionService = new TransactionAdmissionService(amqpAdmin, meterRegistry);
+        ReflectionTestUtils.setField(admissionService, "enabled", true);
+        ReflectionTestUtils.setField(admissionService, "interactiveMaxDepth", 500L);
+        ReflectionTestUtils.setField(admissionService, "interactiveMaxLagMs", 30000L);
+        ReflectionTestUtils.setField(admissionService, "batchMaxDepth", 100L);
+        ReflectionTestUtils.setField(admissionService, "batchMaxLagMs", 10000L);
+        ReflectionTestUtils.setField(admissionService, "maxRetryAfterSeconds", 60L);
+    }
+
+    private void queueDepth(int depth) {
+        when(amqpAdmin.getQueueInfo("transaction-queue")).thenReturn(new QueueInformation("transaction-queue", depth, 1));
+        admissionService.sample();
+    }
+
+    @Test
+    void admit_belowThresholds_accepts() {
+        queueDepth(50);
+
+        assertDoesNotThrow(() -> admissionService.admit(TransactionType.DELAY_EXTERNAL_PAYMENT));
+        assertDoesNotThrow(() -> admissionService.admit(TransactionType.CREATE_PAYMENT));
+    }
+
+    @Test
+    void admit_batchThresholdCrossed_shedsBatchBeforeInteractive() {
+        queueDepth(200);
+
+        TransactionBacklogException e = assertThrows(TransactionBacklogException.class,
+                () -> admissionService.admit(TransactionType.DELAY_EXTERNAL_PAYMENT));
+        assertTrue(e.getRetryAfterSeconds() >= 1 && e.getRetryAfterSeconds() <= 60);
+        assertDoesNotThrow(() -> admissionService.admit(TransactionType.CONFIRM_PAYMENT));
+        assertEquals(1.0, meterRegistry.counter("transaction.admission.rejected", "type", "DELAY_EXTERNAL_PAYMENT").count());
+    }
+
+    @Test
+    void admit_interactiveThresholdCrossed_rejectsEverything() {
+        queueDepth(800);
+
+        assertThrows(TransactionBacklogException.class, () -> admissionService.admit(TransactionType.CREATE_PAYMENT));
+        assertThrows(TransactionBacklogException.class, () -> admissionService.admit(TransactionType.DELAY_EXTERNAL_PAYMENT));
+    }
+
+    @Test
+    void admit_systemPayment_isNeverShed() {
+        queueDepth(800);
+        admissionService.recordConsumed(System.currentTimeMillis() - 60000);
+
+        assertDoesNotThrow(() -> admissionService.admit(TransactionType.SYSTEM_PAYMENT));
+        assertEquals(0.0, meterRegistry.counter("transaction.admission.rejected", "type", "SYSTEM_PAYMENT").count());
+    }
+
+    @Test
+    void admit_consumerLagging_shedsBatch() {
+        queueDepth(10);
+        admissionService.recordConsumed(System.currentTimeMillis() - 15000);
+
+        assertThrows(TransactionBacklogException.class, () -> admissionService.admit(TransactionType.DELAY_EXTERNAL_PAYMENT));
+        assertDoesNotThrow(() -> admissionService.admit(TransactionType.CREATE_TRANSFER));
+    }
+
+    @Test
+    void sample_consumerStalledWithBacklog_lagGrowsWithoutConsumption() {
+        admissionService.recordConsumed(System.currentTimeMillis());
+        ReflectionTestUtils.setField(admissionService, "lastProgressAt", System.currentTimeMillis() - 20000);
+        queueDepth(10);
+
+        assertTrue(meterRegistry.get("transaction.queue.consumer.lag").gauge().value() >= 20000);
+        assertThrows(TransactionBacklogException.class, () -> admissionService.admit(TransactionType.DELAY_EXTERNAL_PAYMENT));
+        assertDoesNotThrow(() -> admissionService.admit(TransactionType.CREATE_PAYMENT));
+    }
+
+    @Test
+    void sample_emptyQueue_resetsLag() {
+        admissionService.recordConsumed(System.currentTimeMillis() - 60000);
+        queueDepth(0);
+
+        assertDoesNotThrow(() -> admissionService.admit(TransactionType.DELAY_EXTERNAL_PAYMENT));
+        assertEquals(0.0, meterRegistry.get("transaction.queue.consumer.lag").gauge().value());
+    }
+
+    @Test
+    void sample_brokerUnavailable_keepsLastDepth() {
+        queueDepth(200);
+        when(amqpAdmin.getQueueInfo("transaction-queue")).thenThrow(new AmqpConnectException(new RuntimeException("down")));
+        admissionService.sample();
+
+        assertEquals(200.0, meterRegistry.get("transaction.queue.depth").gauge().value());
+    }
+}
@@ -0,0 +1,60 @@
+package rs.raf.bank_service.unit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import rs.raf.bank_service.configuration.RabbitMQConfig;
+import rs.raf.bank_service.domain.dto.TransactionMessageDto;
+import rs.raf.bank_service.domain.enums.TransactionType;
+import rs.raf.bank_service.service.LoanRequestService;
+import rs.raf.bank_service.service.TransactionQueueService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+public class TransactionQueueServiceTest {
+
+    @Mock private RabbitTemplate rabbitTemplate;
+    @Mock private LoanRequestService loanRequestService;
+
+    private TransactionQueueService transactionQueueService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        transactionQueueService = new TransactionQueueService(rabbitTemplate, new ObjectMapper(), loanRequestService);
+    }
+
+    private int sentPriority(TransactionType type, String queue) {
+        assertTrue(transactionQueueService.queueTransaction(type, 1L, 5L));
+
+        ArgumentCaptor<MessagePostProcessor> postProcessor = ArgumentCaptor.forClass(MessagePostProcessor.class);
+        verify(rabbitTemplate).convertAndSend(eq(queue), any(TransactionMessageDto.class), postProcessor.capture());
+        Message message = postProcessor.getValue().postProcessMessage(new Message(new byte[0], new MessageProperties()));
+        return message.getMessageProperties().getPriority();
+    }
+
+    @Test
+    void queueTransaction_interactiveType_sentWithHigherPriority() {
+        assertEquals(2, sentPriority(TransactionType.CONFIRM_PAYMENT, RabbitMQConfig.TRANSACTION_QUEUE));
+    }
+
+    @Test
+    void queueTransaction_batchType_sentWithLowerPriority() {
+        assertEquals(1, sentPriority(TransactionType.PAY_INSTALLMENT, RabbitMQConfig.TRANSACTION_QUEUE));
+    }
+
+    @Test
+    void queueTransaction_delayedExternalPayment_goesToDelayQueue() {
+        assertEquals(1, sentPriority(TransactionType.DELAY_EXTERNAL_PAYMENT, RabbitMQConfig.EXTERNAL_DELAY_QUEUE));
+    }
+}
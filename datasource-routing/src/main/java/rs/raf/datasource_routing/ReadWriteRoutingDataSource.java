@@ -0,0 +1,40 @@
+package rs.raf.datasource_routing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/// Read-only transakcije idu na repliku dok je ReplicaLagMonitor smatra zdravom, sve ostalo na primary.
+/// Mora biti umotan u LazyConnectionDataSourceProxy, jer se konekcija uzima pre nego sto je readOnly flag postavljen.
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private final ReplicaLagMonitor replicaLagMonitor;
+    private final Counter primaryRoutes;
+    private final Counter replicaRoutes;
+    private final Counter fallbackRoutes;
+
+    public ReadWriteRoutingDataSource(ReplicaLagMonitor replicaLagMonitor, MeterRegistry meterRegistry) {
+        this.replicaLagMonitor = replicaLagMonitor;
+        this.primaryRoutes = meterRegistry.counter("datasource.routing.connections", "target", PRIMARY, "reason", "write");
+        this.replicaRoutes = meterRegistry.counter("datasource.routing.connections", "target", REPLICA, "reason", "read");
+        this.fallbackRoutes = meterRegistry.counter("datasource.routing.connections", "target", PRIMARY, "reason", "replica-lag");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryRoutes.increment();
+            return PRIMARY;
+        }
+        if (!replicaLagMonitor.isHealthy()) {
+            fallbackRoutes.increment();
+            return PRIMARY;
+        }
+        replicaRoutes.increment();
+        return REPLICA;
+    }
+}
@@ -0,0 +1,63 @@
+package rs.raf.datasource_routing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/// Periodicno meri zaostajanje replike. Dok je zaostajanje vece od dozvoljenog (ili replika ne odgovara, ili jos
+/// nije proverena), ReadWriteRoutingDataSource salje i read-only transakcije na primary.
+@Slf4j
+public class ReplicaLagMonitor {
+
+    // replika koja je primila sav WAL nema zaostajanje cak i kad primary dugo nije pisao
+    private static final String LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() "
+            + "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private final DataSource replica;
+    private final long maxLagMs;
+
+    private volatile boolean healthy = false;
+    private volatile long lagMs = -1;
+
+    public ReplicaLagMonitor(DataSource replica, long maxLagMs) {
+        this.replica = replica;
+        this.maxLagMs = maxLagMs;
+    }
+
+    @Scheduled(fixedDelayString = "${spring.datasource.replica.lag-check-ms:2000}")
+    public void check() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+            rs.next();
+            lagMs = rs.getLong(1);
+            update(lagMs <= maxLagMs);
+        } catch (SQLException e) {
+            lagMs = -1;
+            update(false);
+            log.debug("Replica lag check failed: {}", e.getMessage());
+        }
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    public long getLagMs() {
+        return lagMs;
+    }
+
+    private void update(boolean nowHealthy) {
+        if (nowHealthy != healthy) {
+            log.warn("Replica {} (lag {} ms), read-only transactions go to {}",
+                    nowHealthy ? "caught up" : "unavailable or lagging", lagMs, nowHealthy ? "replica" : "primary");
+        }
+        healthy = nowHealthy;
+    }
+}
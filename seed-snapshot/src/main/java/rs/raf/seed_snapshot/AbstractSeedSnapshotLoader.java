@@ -0,0 +1,374 @@
+package rs.raf.seed_snapshot;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.util.FileSystemUtils;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/// Brzo punjenje baze iz CSV snapshot-a, zajednicko za servise. Prvi start izvrsava BootstrapData i zatim COPY-jem
+/// izvozi sve tabele i vrednosti sekvenci u seed.snapshot.dir/v<kljuc>. Svaki sledeci start vraca podatke COPY-jem u
+/// jednoj transakciji (baza je uvek prazna jer je sema create-drop).
+/// Kljuc je seed.snapshot.version plus hash seme (kolone svih tabela), pa svaka promena entiteta sama pravi novi
+/// snapshot; verzija se rucno podize samo kad se promene podaci u BootstrapData. Fixture-i su racunati od
+/// LocalDate.now(), pa se pri vracanju svi datumi pomeraju za broj dana proteklih od snimanja.
+/// Servis daje samo upis oznake poslednjeg punjenja (saveMarker) u svom SeedSnapshot entitetu.
+@Slf4j
+public abstract class AbstractSeedSnapshotLoader {
+
+    private static final String MANIFEST = "manifest.properties";
+    private static final String SEQUENCES = "sequences.csv";
+    /// Oznake punjenja i Flyway istorija nisu deo seed-a
+    private static final Set<String> EXCLUDED_TABLES = Set.of("seed_snapshot", "flyway_schema_history");
+    private static final Set<Integer> DATE_TYPES = Set.of(Types.DATE, Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE);
+
+    private final DataSource dataSource;
+
+    @Value("${seed.snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${seed.snapshot.version:1}")
+    private String version;
+
+    @Value("${seed.snapshot.dir:.seed-snapshots/${spring.application.name}}")
+    private String dir;
+
+    private String lastMode = "NONE";
+    private long lastDurationMs;
+
+    protected AbstractSeedSnapshotLoader(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    protected abstract void saveMarker(SeedSnapshotMarker marker);
+
+    public void seed(Runnable seeder) {
+        long start = System.nanoTime();
+        String schemaHash = enabled ? schemaHash() : null;
+        boolean useSnapshot = schemaHash != null;
+        String key = useSnapshot ? version + "-" + schemaHash.substring(0, 12) : version;
+        Path snapshotDir = Paths.get(dir, "v" + key);
+
+        Properties manifest = useSnapshot ? verifiedManifest(snapshotDir, key) : null;
+        String checksum = manifest != null ? manifest.getProperty("checksum") : null;
+
+        String mode;
+        if (manifest != null && restore(snapshotDir, manifest)) {
+            mode = "RESTORED";
+        } else {
+            seeder.run();
+            mode = "SEEDED";
+            if (useSnapshot && manifest == null) {
+                checksum = capture(snapshotDir, key);
+            }
+        }
+
+        lastMode = mode;
+        lastDurationMs = (System.nanoTime() - start) / 1_000_000;
+        saveMarker(SeedSnapshotMarker.builder()
+                .key(key)
+                .checksum(checksum)
+                .mode(mode)
+                .durationMs(lastDurationMs)
+                .loadedAt(LocalDateTime.now())
+                .build());
+        log.info("Seed v{} {} in {} ms", key, mode, lastDurationMs);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logStartupTime() {
+        log.info("Startup finished in {} ms (seed {} in {} ms)",
+                ManagementFactory.getRuntimeMXBean().getUptime(), lastMode, lastDurationMs);
+    }
+
+    /// Hash kolona (tabela, ime, tip, nullable) kako ih je napravio Hibernate, bez tabela iz EXCLUDED_TABLES
+    private String schemaHash() {
+        try (Connection connection = dataSource.getConnection()) {
+            List<String> columns = new ArrayList<>();
+            try (ResultSet rs = connection.getMetaData().getColumns(null, connection.getSchema(), "%", "%")) {
+                while (rs.next()) {
+                    String table = rs.getString("TABLE_NAME");
+                    if (!EXCLUDED_TABLES.contains(table)) {
+                        columns.add(table + "." + rs.getString("COLUMN_NAME") + ":"
+                                + rs.getString("TYPE_NAME") + ":" + rs.getString("IS_NULLABLE"));
+                    }
+                }
+            }
+            Collections.sort(columns);
+
+            MessageDigest digest = sha256();
+            for (String column : columns) {
+                digest.update((column + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (SQLException e) {
+            log.warn("Could not read schema, seeding without snapshot", e);
+            return null;
+        }
+    }
+
+    private Properties verifiedManifest(Path snapshotDir, String key) {
+        Path manifestFile = snapshotDir.resolve(MANIFEST);
+        if (!Files.isRegularFile(manifestFile)) {
+            return null;
+        }
+        try (InputStream in = Files.newInputStream(manifestFile)) {
+            Properties manifest = new Properties();
+            manifest.load(in);
+            if (!key.equals(manifest.getProperty("version"))
+                    || !checksum(snapshotDir).equals(manifest.getProperty("checksum"))) {
+                log.warn("Seed snapshot {} is stale or corrupted, it will be recaptured", snapshotDir);
+                return null;
+            }
+            return manifest;
+        } catch (IOException e) {
+            log.warn("Could not read seed snapshot {}", snapshotDir, e);
+            return null;
+        }
+    }
+
+    private boolean restore(Path snapshotDir, Properties manifest) {
+        List<String> tables = List.of(manifest.getProperty("tables").split(","));
+        try (Connection connection = dataSource.getConnection()) {
+            if (!connection.isWrapperFor(PGConnection.class)) {
+                return false;
+            }
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                for (String table : tables) {
+                    if (!isEmpty(connection, table)) {
+                        // postojeci podaci bez oznake, puni ih BootstrapData koji ima svoje provere
+                        connection.rollback();
+                        return false;
+                    }
+                    Path file = snapshotDir.resolve(table + ".csv");
+                    String columns;
+                    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                        columns = Arrays.stream(reader.readLine().split(","))
+                                .map(AbstractSeedSnapshotLoader::quote)
+                                .collect(Collectors.joining(","));
+                    }
+                    try (InputStream in = Files.newInputStream(file)) {
+                        copyManager.copyIn("COPY " + quote(table) + " (" + columns + ") FROM STDIN WITH (FORMAT csv, HEADER true)", in);
+                    }
+                }
+                restoreSequences(connection, snapshotDir.resolve(SEQUENCES));
+                rebaseDates(connection, tables, manifest.getProperty("capturedOn"));
+                connection.commit();
+                return true;
+            } catch (SQLException | IOException e) {
+                connection.rollback();
+                log.warn("Seed snapshot restore failed, falling back to BootstrapData", e);
+                return false;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            log.warn("Seed snapshot restore failed, falling back to BootstrapData", e);
+            return false;
+        }
+    }
+
+    private String capture(Path snapshotDir, String key) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!connection.isWrapperFor(PGConnection.class)) {
+                return null;
+            }
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            List<String> tables = tablesInInsertOrder(connection);
+
+            Path tmp = snapshotDir.resolveSibling(snapshotDir.getFileName() + ".tmp");
+            FileSystemUtils.deleteRecursively(tmp);
+            Files.createDirectories(tmp);
+            for (String table : tables) {
+                try (OutputStream out = Files.newOutputStream(tmp.resolve(table + ".csv"))) {
+                    copyManager.copyOut("COPY " + quote(table) + " TO STDOUT WITH (FORMAT csv, HEADER true)", out);
+                }
+            }
+            captureSequences(connection, tmp.resolve(SEQUENCES));
+
+            String checksum = checksum(tmp);
+            Properties manifest = new Properties();
+            manifest.setProperty("version", key);
+            manifest.setProperty("tables", String.join(",", tables));
+            manifest.setProperty("checksum", checksum);
+            manifest.setProperty("capturedOn", LocalDate.now().toString());
+            try (OutputStream out = Files.newOutputStream(tmp.resolve(MANIFEST))) {
+                manifest.store(out, "seed snapshot");
+            }
+
+            FileSystemUtils.deleteRecursively(snapshotDir);
+            Files.move(tmp, snapshotDir);
+            log.info("Captured seed snapshot v{} ({} tables) to {}", key, tables.size(), snapshotDir);
+            return checksum;
+        } catch (SQLException | IOException e) {
+            log.warn("Could not capture seed snapshot", e);
+            return null;
+        }
+    }
+
+    /// Roditeljske tabele pre tabela koje ih referenciraju, da FK provere prolaze tokom COPY-ja
+    private List<String> tablesInInsertOrder(Connection connection) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        String schema = connection.getSchema();
+
+        Set<String> tables = new TreeSet<>();
+        try (ResultSet rs = metaData.getTables(null, schema, "%", new String[]{"TABLE"})) {
+            while (rs.next()) {
+                tables.add(rs.getString("TABLE_NAME"));
+            }
+        }
+        tables.removeAll(EXCLUDED_TABLES);
+
+        Map<String, Set<String>> parents = new HashMap<>();
+        for (String table : tables) {
+            try (ResultSet rs = metaData.getImportedKeys(null, schema, table)) {
+                while (rs.next()) {
+                    String parent = rs.getString("PKTABLE_NAME");
+                    if (!parent.equals(table) && tables.contains(parent)) {
+                        parents.computeIfAbsent(table, t -> new TreeSet<>()).add(parent);
+                    }
+                }
+            }
+        }
+
+        List<String> ordered = new ArrayList<>();
+        Set<String> visited = new HashSet<>();
+        for (String table : tables) {
+            visit(table, parents, visited, ordered);
+        }
+        return ordered;
+    }
+
+    private static void visit(String table, Map<String, Set<String>> parents, Set<String> visited, List<String> ordered) {
+        if (!visited.add(table)) {
+            return;
+        }
+        for (String parent : parents.getOrDefault(table, Collections.emptySet())) {
+            visit(parent, parents, visited, ordered);
+        }
+        ordered.add(table);
+    }
+
+    /// Pomera sve date/timestamp kolone za broj dana od snimanja, da datumi racunati od LocalDate.now() (rokovi
+    /// kredita, settlement datumi, istorija cena) ostanu u istom odnosu prema danasnjem danu
+    private static void rebaseDates(Connection connection, List<String> tables, String capturedOn) throws SQLException {
+        if (capturedOn == null) {
+            return;
+        }
+        long days = ChronoUnit.DAYS.between(LocalDate.parse(capturedOn), LocalDate.now());
+        if (days == 0) {
+            return;
+        }
+
+        DatabaseMetaData metaData = connection.getMetaData();
+        String schema = connection.getSchema();
+        String escape = metaData.getSearchStringEscape();
+        for (String table : tables) {
+            List<String> assignments = new ArrayList<>();
+            try (ResultSet rs = metaData.getColumns(null, schema, table.replace("_", escape + "_"), "%")) {
+                while (rs.next()) {
+                    if (DATE_TYPES.contains(rs.getInt("DATA_TYPE"))) {
+                        String column = quote(rs.getString("COLUMN_NAME"));
+                        assignments.add(column + " = " + column + " + make_interval(days => " + days + ")");
+                    }
+                }
+            }
+            if (!assignments.isEmpty()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.executeUpdate("UPDATE " + quote(table) + " SET " + String.join(", ", assignments));
+                }
+            }
+        }
+        log.info("Seed snapshot dates moved forward by {} days", days);
+    }
+
+    private static void captureSequences(Connection connection, Path file) throws SQLException, IOException {
+        List<String> sequences = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT sequence_name FROM information_schema.sequences WHERE sequence_schema = current_schema() ORDER BY sequence_name")) {
+            while (rs.next()) {
+                sequences.add(rs.getString(1));
+            }
+        }
+
+        List<String> lines = new ArrayList<>();
+        for (String sequence : sequences) {
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT last_value, is_called FROM " + quote(sequence))) {
+                rs.next();
+                lines.add(sequence + "," + rs.getLong(1) + "," + rs.getBoolean(2));
+            }
+        }
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+
+    private static void restoreSequences(Connection connection, Path file) throws SQLException, IOException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT setval(?::regclass, ?, ?)")) {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String[] parts = line.split(",");
+                statement.setString(1, quote(parts[0]));
+                statement.setLong(2, Long.parseLong(parts[1]));
+                statement.setBoolean(3, Boolean.parseBoolean(parts[2]));
+                statement.execute();
+            }
+        }
+    }
+
+    private static boolean isEmpty(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT 1 FROM " + quote(table) + " LIMIT 1")) {
+            return !rs.next();
+        }
+    }
+
+    private static String checksum(Path snapshotDir) throws IOException {
+        MessageDigest digest = sha256();
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(snapshotDir)) {
+            files = stream.filter(file -> !file.getFileName().toString().equals(MANIFEST)).sorted().toList();
+        }
+        for (Path file : files) {
+            digest.update(file.getFileName().toString().getBytes(StandardCharsets.UTF_8));
+            digest.update(Files.readAllBytes(file));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String quote(String identifier) {
+        return "\"" + identifier.trim() + "\"";
+    }
+}
@@ -0,0 +1,17 @@
+package rs.raf.seed_snapshot;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/// Ono sto AbstractSeedSnapshotLoader cita i upisuje kao oznaku punjenja; servis ga cuva u svom SeedSnapshot entitetu
+@Value
+@Builder
+public class SeedSnapshotMarker {
+    String key;
+    String checksum;
+    String mode;
+    long durationMs;
+    LocalDateTime loadedAt;
+}
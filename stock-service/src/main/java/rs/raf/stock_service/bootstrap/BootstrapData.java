@@ -56,6 +56,8 @@ public class BootstrapData implements CommandLineRunner {
     @Autowired private OtcOfferRepository otcOfferRepository;
     @Autowired private ListingRedisService listingRedisService;
     @Autowired private ListingMapper listingMapper;
+    @Autowired private LatestQuoteService latestQuoteService;
+    @Autowired private SeedSnapshotLoader seedSnapshotLoader;
 
     @Value("${bootstrap.thread.pool.size:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
     private int threadPoolSize;
@@ -65,19 +67,21 @@ public class BootstrapData implements CommandLineRunner {
     @Override
     public void run(String... args) {
         log.info("Starting db seeder");
-        importCoreData();
-        if (listingRepository.count() == 0) {
-            importStocksAndHistory();
-            importForexAndHistory();
-            addFutures();
-        }
-
-        listingRedisService.clear();
+        seedSnapshotLoader.seed(() -> {
+            importCoreData();
+            if (listingRepository.count() == 0) {
+                importStocksAndHistory();
+                importForexAndHistory();
+                addFutures();
+            }
+        });
 
-        List<ListingDto> dtos = listingRepository.findAll().stream()
-                .map(listing -> listingMapper.toDto(listing, priceHistoryRepository.findTopByListingOrderByDateDesc(listing)))
+        List<Listing> listings = listingRepository.findAll();
+        Map<Long, ListingPriceHistory> latestQuotes = latestQuoteService.getAll(listings);
+        List<ListingDto> dtos = listings.stream()
+                .map(listing -> listingMapper.toDto(listing, latestQuotes.get(listing.getId())))
                 .toList();
-        listingRedisService.saveAll(dtos);
+        listingRedisService.replaceAll(dtos);
         log.info("Listings saved to redis");
 
 //        addPortfolioTestData();
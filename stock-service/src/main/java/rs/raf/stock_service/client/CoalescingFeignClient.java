@@ -0,0 +1,122 @@
+package rs.raf.stock_service.client;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/// Feign transport koji ogranicava broj istovremenih poziva po ciljnom servisu (bulkhead) i spaja iste GET pozive
+/// koji su vec u toku u jedan udaljeni poziv (single-flight). Odgovori se citaju u memoriju dok je permit zauzet,
+/// pa svaki pozivalac dobija svoju kopiju tela.
+public class CoalescingFeignClient implements Client {
+
+    private final Client delegate;
+    private final Map<String, Integer> maxConcurrent;
+    private final int defaultMaxConcurrent;
+    private final long acquireTimeoutMs;
+
+    private final ConcurrentMap<String, Semaphore> bulkheads = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<Response>> inFlight = new ConcurrentHashMap<>();
+
+    public CoalescingFeignClient(Client delegate, Map<String, Integer> maxConcurrent, int defaultMaxConcurrent, long acquireTimeoutMs) {
+        this.delegate = delegate;
+        this.maxConcurrent = maxConcurrent;
+        this.defaultMaxConcurrent = defaultMaxConcurrent;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        if (request.httpMethod() != Request.HttpMethod.GET) {
+            return executeGuarded(request, options);
+        }
+
+        String key = flightKey(request);
+        CompletableFuture<Response> flight = new CompletableFuture<>();
+        CompletableFuture<Response> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return await(existing).toBuilder().request(request).build();
+        }
+
+        Response response;
+        try {
+            response = executeGuarded(request, options);
+        } catch (Throwable e) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+        inFlight.remove(key, flight);
+        flight.complete(response);
+        return response;
+    }
+
+    private Response executeGuarded(Request request, Request.Options options) throws IOException {
+        String target = targetName(request);
+        Semaphore bulkhead = bulkheads.computeIfAbsent(target,
+                name -> new Semaphore(maxConcurrent.getOrDefault(name, defaultMaxConcurrent)));
+
+        try {
+            if (!bulkhead.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new IOException("Too many concurrent calls to " + target);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for " + target);
+        }
+
+        try {
+            return buffer(delegate.execute(request, options));
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private static Response buffer(Response response) throws IOException {
+        if (response.body() == null) {
+            return response;
+        }
+        try (Response.Body body = response.body()) {
+            return response.toBuilder().body(Util.toByteArray(body.asInputStream())).build();
+        }
+    }
+
+    private static Response await(CompletableFuture<Response> flight) throws IOException {
+        try {
+            return flight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for coalesced call");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    // odgovor zavisi od korisnika, pa Authorization ulazi u kljuc
+    private static String flightKey(Request request) {
+        Collection<String> authorization = request.headers().getOrDefault("Authorization", Collections.emptyList());
+        return request.httpMethod() + " " + request.url() + " " + authorization;
+    }
+
+    private static String targetName(Request request) {
+        if (request.requestTemplate() != null && request.requestTemplate().feignTarget() != null) {
+            return request.requestTemplate().feignTarget().name();
+        }
+        return URI.create(request.url()).getHost();
+    }
+}
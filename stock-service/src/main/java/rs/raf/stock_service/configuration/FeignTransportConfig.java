@@ -0,0 +1,53 @@
+package rs.raf.stock_service.configuration;
+
+import feign.Client;
+import feign.okhttp.OkHttpClient;
+import okhttp3.ConnectionPool;
+import okhttp3.Protocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import rs.raf.stock_service.client.CoalescingFeignClient;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/// Zajednicki transport za sve Feign klijente: jedan OkHttp pool sa keep-alive konekcijama (HTTP/2 gde server
+/// podrzava ALPN), bulkhead po servisu i spajanje istih GET poziva. Timeout-i po servisu su u
+/// feign.client.config.<ime>.*, a limiti istovremenih poziva u feign.transport.bulkhead.<ime>.
+@Configuration
+public class FeignTransportConfig {
+
+    @Value("${feign.transport.max-idle-connections:50}")
+    private int maxIdleConnections;
+
+    @Value("${feign.transport.keep-alive-seconds:300}")
+    private long keepAliveSeconds;
+
+    @Value("${feign.transport.bulkhead.default:32}")
+    private int defaultMaxConcurrent;
+
+    @Value("${feign.transport.bulkhead-wait-ms:500}")
+    private long bulkheadWaitMs;
+
+    @Bean
+    public okhttp3.OkHttpClient feignOkHttpClient() {
+        return new okhttp3.OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(maxIdleConnections, keepAliveSeconds, TimeUnit.SECONDS))
+                .protocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .build();
+    }
+
+    @Bean
+    public Client feignTransportClient(okhttp3.OkHttpClient feignOkHttpClient, Environment environment) {
+        Map<String, Integer> maxConcurrent = Binder.get(environment)
+                .bind("feign.transport.bulkhead", Bindable.mapOf(String.class, Integer.class))
+                .orElse(Collections.emptyMap());
+        return new CoalescingFeignClient(new OkHttpClient(feignOkHttpClient), maxConcurrent, defaultMaxConcurrent, bulkheadWaitMs);
+    }
+}
@@ -1,36 +1,32 @@
 package rs.raf.stock_service.configuration;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
-import org.springframework.data.redis.serializer.*;
 import org.springframework.data.redis.core.RedisTemplate;
-import rs.raf.stock_service.domain.dto.ListingDto;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
 public class RedisConfig {
 
+    /// Kljucevi i polja hash-a su stringovi, vrednosti su vec kodirani bajtovi (ListingDtoCodec)
     @Bean
-    public RedisTemplate<String, ListingDto> listingRedisTemplate(RedisConnectionFactory connectionFactory) {
-        RedisTemplate<String, ListingDto> template = new RedisTemplate<>();
+    public RedisTemplate<String, byte[]> listingRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
-
-        // Key: String
-        template.setKeySerializer(new StringRedisSerializer());
-
-        // Value: ListingDto as JSON with class info
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.activateDefaultTyping(
-                BasicPolymorphicTypeValidator.builder().build(),
-                ObjectMapper.DefaultTyping.NON_FINAL
-        );
-
-        Jackson2JsonRedisSerializer<ListingDto> serializer = new Jackson2JsonRedisSerializer<>(ListingDto.class);
-        serializer.setObjectMapper(mapper);
-
-        template.setValueSerializer(serializer);
+        template.setKeySerializer(StringRedisSerializer.UTF_8);
+        template.setHashKeySerializer(StringRedisSerializer.UTF_8);
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.setHashValueSerializer(RedisSerializer.byteArray());
         return template;
     }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
 }
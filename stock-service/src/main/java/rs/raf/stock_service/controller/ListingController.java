@@ -9,12 +9,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import rs.raf.stock_service.domain.dto.*;
+import rs.raf.stock_service.domain.enums.PriceResolution;
 import rs.raf.stock_service.exceptions.ListingNotFoundException;
 import rs.raf.stock_service.service.ListingService;
 import rs.raf.stock_service.utils.JwtTokenUtil;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -85,6 +87,21 @@ public class ListingController {
         return ResponseEntity.ok(listingService.getListingDetails(id));
     }
 
+    @GetMapping("/{id}/history")
+    @Operation(summary = "Get stored OHLCV history of a security", description = "Returns stored OHLCV candles (5min, hourly, daily or weekly) for the requested time range.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Price history retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "Security not found")
+    })
+    public ResponseEntity<List<PriceHistoryDto>> getHistory(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "FIVE_MINUTES") PriceResolution resolution,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        return ResponseEntity.ok(listingService.getHistory(id, resolution, from, to));
+    }
+
     @PreAuthorize("hasRole('SUPERVISOR')")
     @PutMapping("/{id}")
     @Operation(summary = "Update a security", description = "Allows a supervisor to update the price and ask values of a listing.")
@@ -11,10 +11,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import rs.raf.stock_service.domain.dto.CreateOrderDto;
+import rs.raf.stock_service.domain.dto.OrderBookDto;
 import rs.raf.stock_service.domain.dto.OrderDto;
 import rs.raf.stock_service.domain.enums.OrderStatus;
 import rs.raf.stock_service.exceptions.*;
 import rs.raf.stock_service.repository.OrderRepository;
+import rs.raf.stock_service.service.OrderBookService;
 import rs.raf.stock_service.service.OrderService;
 
 import javax.validation.Valid;
@@ -30,6 +32,7 @@ public class OrderController {
 
     private final OrderService orderService;
     private final OrderRepository orderRepository;
+    private final OrderBookService orderBookService;
 
 
     @Operation(
@@ -148,4 +151,15 @@ public class OrderController {
     public ResponseEntity<List<OrderDto>> getAllOrders() {
         return ResponseEntity.status(HttpStatus.OK).body(orderService.getAllOrders());
     }
+
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping("/book/{listingId}")
+    @Operation(summary = "Get order book depth.", description = "Returns aggregated resting bids and asks for a listing, best price first.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Order book depth retrieved successfully")
+    })
+    public ResponseEntity<OrderBookDto> getOrderBook(@PathVariable Long listingId,
+                                                     @RequestParam(defaultValue = "10") int levels) {
+        return ResponseEntity.ok(orderBookService.getDepth(listingId, Math.max(1, Math.min(levels, 100))));
+    }
 }
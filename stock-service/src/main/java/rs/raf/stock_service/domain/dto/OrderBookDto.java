@@ -0,0 +1,18 @@
+package rs.raf.stock_service.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderBookDto {
+    private Long listingId;
+    private List<OrderBookLevelDto> bids;  // od najvise cene
+    private List<OrderBookLevelDto> asks;  // od najnize cene
+}
@@ -0,0 +1,35 @@
+package rs.raf.stock_service.domain.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/// Poslednja 5min sveca listinga, denormalizovana u red listing tabele. Kolone upisuje samo LatestQuoteService
+/// (JDBC), pa su za JPA read-only - inace bi save() zastarelog Listing entiteta pregazio noviju svecu.
+@Embeddable
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class LatestQuote {
+    @Column(name = "quote_date", insertable = false, updatable = false)
+    private LocalDateTime date;
+    @Column(name = "quote_open", precision = 20, scale = 6, insertable = false, updatable = false)
+    private BigDecimal open;
+    @Column(name = "quote_close", precision = 20, scale = 6, insertable = false, updatable = false)
+    private BigDecimal close;
+    @Column(name = "quote_high", precision = 20, scale = 6, insertable = false, updatable = false)
+    private BigDecimal high;
+    @Column(name = "quote_low", precision = 20, scale = 6, insertable = false, updatable = false)
+    private BigDecimal low;
+    @Column(name = "quote_change", precision = 20, scale = 6, insertable = false, updatable = false)
+    private BigDecimal change;
+    @Column(name = "quote_volume", insertable = false, updatable = false)
+    private Long volume;
+}
@@ -13,6 +13,13 @@ import java.util.List;
 
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_listing_ticker", columnList = "ticker"),
+        @Index(name = "idx_listing_price", columnList = "price"),
+        @Index(name = "idx_listing_ask", columnList = "ask"),
+        @Index(name = "idx_listing_quote_low", columnList = "quote_low"),
+        @Index(name = "idx_listing_quote_volume", columnList = "quote_volume")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -39,6 +46,9 @@ public abstract class Listing {
     @OneToMany(mappedBy = "listing", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<ListingPriceHistory> listingPriceHistories;
 
+    @Embedded
+    private LatestQuote latestQuote;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "type", insertable = false, updatable = false)
     private ListingType type;
@@ -10,6 +10,10 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_price_history_listing_date", columnList = "listing_id, date", unique = true),
+        @Index(name = "idx_price_history_date", columnList = "date")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -0,0 +1,45 @@
+package rs.raf.stock_service.domain.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import rs.raf.stock_service.domain.enums.PriceResolution;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/// OHLCV jednog intervala (sat, dan, nedelja) izracunat iz 5min sveca. firstAt/lastAt su vremena prve i poslednje
+/// svece u intervalu, po njima se pri dopunjavanju zna da li nova sveca menja open ili close.
+@Entity
+@Table(indexes = @Index(name = "idx_price_rollup_listing_resolution_bucket",
+        columnList = "listing_id, resolution, bucketStart", unique = true))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ListingPriceRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "listing_id", nullable = false)
+    private Listing listing;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PriceResolution resolution;
+    @Column(nullable = false)
+    private LocalDateTime bucketStart;
+    @Column(precision = 20, scale = 6)
+    private BigDecimal open;
+    @Column(precision = 20, scale = 6)
+    private BigDecimal high;
+    @Column(precision = 20, scale = 6)
+    private BigDecimal low;
+    @Column(precision = 20, scale = 6)
+    private BigDecimal close;
+    private Long volume;
+    private LocalDateTime firstAt;
+    private LocalDateTime lastAt;
+}
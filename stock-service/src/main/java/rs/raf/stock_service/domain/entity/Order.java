@@ -13,7 +13,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_done_status_type", columnList = "isDone, status, orderType"),
+        @Index(name = "idx_orders_status", columnList = "status"),
+        @Index(name = "idx_orders_user_id", columnList = "userId")
+})
 @Getter
 @Setter
 @Builder
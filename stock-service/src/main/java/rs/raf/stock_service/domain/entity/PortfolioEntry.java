@@ -8,6 +8,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = @Index(name = "idx_portfolio_entry_user_listing", columnList = "userId, listing_id"))
 @Getter
 @Setter
 @NoArgsConstructor
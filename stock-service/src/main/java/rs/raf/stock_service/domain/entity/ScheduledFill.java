@@ -0,0 +1,26 @@
+package rs.raf.stock_service.domain.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/// Sledeci fill naloga na simuliranom trzistu koji ceka svoj termin; cuva se da bi preziveo restart servisa
+@Entity
+@Table(indexes = @Index(name = "idx_scheduled_fill_order", columnList = "orderId", unique = true))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ScheduledFill {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(nullable = false)
+    private Long orderId;
+    @Column(nullable = false)
+    private LocalDateTime dueAt;
+}
@@ -15,7 +15,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Getter
 @Setter
-@Table(name = "transaction")
+@Table(name = "transaction", indexes = @Index(name = "idx_transaction_order_id", columnList = "order_id"))
 public class Transaction {
 
     @Id
@@ -0,0 +1,46 @@
+package rs.raf.stock_service.domain.enums;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/// Rezolucija istorije cena. FIVE_MINUTES su sirove svece iz listing_price_history, ostale su rollup-ovi
+/// u listing_price_rollup; defaultRange je prozor koji se vraca kada klijent ne zada from.
+public enum PriceResolution {
+    FIVE_MINUTES(null, Duration.ofDays(1)),
+    HOUR("hour", Duration.ofDays(30)),
+    DAY("day", Duration.ofDays(365)),
+    WEEK("week", Duration.ofDays(5 * 365));
+
+    private final String truncUnit;
+    private final Duration defaultRange;
+
+    PriceResolution(String truncUnit, Duration defaultRange) {
+        this.truncUnit = truncUnit;
+        this.defaultRange = defaultRange;
+    }
+
+    public boolean isRollup() {
+        return truncUnit != null;
+    }
+
+    /// Jedinica za Postgres date_trunc (nedelja pocinje ponedeljkom, isto kao bucketStart)
+    public String getTruncUnit() {
+        return truncUnit;
+    }
+
+    public Duration getDefaultRange() {
+        return defaultRange;
+    }
+
+    public LocalDateTime bucketStart(LocalDateTime time) {
+        return switch (this) {
+            case FIVE_MINUTES -> time;
+            case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> time.truncatedTo(ChronoUnit.DAYS);
+            case WEEK -> time.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        };
+    }
+}
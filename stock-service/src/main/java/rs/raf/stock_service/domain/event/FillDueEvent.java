@@ -0,0 +1,11 @@
+package rs.raf.stock_service.domain.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/// Emituje ga FillScheduler kada istekne cekanje za sledeci fill naloga
+@Getter
+@AllArgsConstructor
+public class FillDueEvent {
+    private final Long orderId;
+}
@@ -0,0 +1,16 @@
+package rs.raf.stock_service.domain.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/// Emituje se kada listing dobije novu cenu (osvezavanje sa API-ja ili rucna izmena).
+/// OrderService na njega aktivira stop i limit naloge ciji je prag cena presla.
+@Getter
+@AllArgsConstructor
+public class ListingPriceChangedEvent {
+    private final Long listingId;
+    private final BigDecimal price;
+    private final BigDecimal ask;
+}
@@ -0,0 +1,36 @@
+package rs.raf.stock_service.domain.mapper;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.stereotype.Component;
+import rs.raf.stock_service.domain.dto.ListingDto;
+
+import java.io.IOException;
+
+/// Binarni (Smile) zapis ListingDto za Redis kes - manji od JSON-a i brze se parsira. Namerno nije ObjectMapper bean,
+/// da ne bi zamenio JSON ObjectMapper koji Spring Boot pravi za REST.
+@Component
+public class ListingDtoCodec {
+
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory())
+            .registerModule(new JavaTimeModule())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    public byte[] encode(ListingDto dto) {
+        try {
+            return smileMapper.writeValueAsBytes(dto);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to serialize ListingDto", e);
+        }
+    }
+
+    public ListingDto decode(byte[] bytes) {
+        try {
+            return smileMapper.readValue(bytes, ListingDto.class);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to deserialize ListingDto", e);
+        }
+    }
+}
@@ -53,14 +53,7 @@ public class ListingMapper {
 
         // Mapiranje ListingPriceHistory u PriceHistoryDto sa novim poljima
         List<PriceHistoryDto> priceHistoryDtos = priceHistory.stream()
-                .map(info -> new PriceHistoryDto(
-                        info.getDate(),
-                        info.getOpen(),
-                        info.getHigh(),
-                        info.getLow(),
-                        info.getClose(),
-                        info.getVolume()
-                ))
+                .map(this::toPriceHistoryDto)
                 .collect(Collectors.toList());
 
         // Vraćanje prilagođenog ListingDetailsDto sa novim podacima
@@ -78,4 +71,12 @@ public class ListingMapper {
                 listing.getType().equals(ListingType.FUTURES) ? ((FuturesContract)listing).getSettlementDate() : null
         );
     }
-}
\ No newline at end of file
+
+    public PriceHistoryDto toPriceHistoryDto(ListingPriceHistory info) {
+        return new PriceHistoryDto(info.getDate(), info.getOpen(), info.getHigh(), info.getLow(), info.getClose(), info.getVolume());
+    }
+
+    public PriceHistoryDto toPriceHistoryDto(ListingPriceRollup rollup) {
+        return new PriceHistoryDto(rollup.getBucketStart(), rollup.getOpen(), rollup.getHigh(), rollup.getLow(), rollup.getClose(), rollup.getVolume());
+    }
+}
@@ -8,6 +8,7 @@ import rs.raf.stock_service.domain.entity.Listing;
 import rs.raf.stock_service.domain.entity.ListingPriceHistory;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -16,9 +17,19 @@ public interface ListingPriceHistoryRepository extends JpaRepository<ListingPric
     ListingPriceHistory findTopByListingOrderByDateDesc(Listing listing);
 
     List<ListingPriceHistory> findAllByListingOrderByDateDesc(Listing listing);
+
+    List<ListingPriceHistory> findAllByListingAndDateBetweenOrderByDateDesc(Listing listing, LocalDateTime from, LocalDateTime to);
+
     boolean existsByListingAndDate(Listing listing, LocalDateTime date);
 
     @Query("SELECT l.date FROM ListingPriceHistory l WHERE l.listing.id = :listingId")
     Set<LocalDateTime> findDatesByListingId(@Param("listingId") Long listingId);
 
+    @Query("SELECT h FROM ListingPriceHistory h JOIN FETCH h.listing WHERE h.listing.id IN :listingIds " +
+            "AND h.date = (SELECT MAX(l.date) FROM ListingPriceHistory l WHERE l.listing = h.listing)")
+    List<ListingPriceHistory> findLatestByListingIds(@Param("listingIds") Collection<Long> listingIds);
+
+    @Query("SELECT MAX(l.date) FROM ListingPriceHistory l WHERE l.listing.id = :listingId")
+    LocalDateTime findMaxDateByListingId(@Param("listingId") Long listingId);
+
 }
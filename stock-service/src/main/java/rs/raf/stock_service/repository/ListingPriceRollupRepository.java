@@ -0,0 +1,18 @@
+package rs.raf.stock_service.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import rs.raf.stock_service.domain.entity.Listing;
+import rs.raf.stock_service.domain.entity.ListingPriceRollup;
+import rs.raf.stock_service.domain.enums.PriceResolution;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ListingPriceRollupRepository extends JpaRepository<ListingPriceRollup, Long> {
+    ListingPriceRollup findTopByListingAndResolutionOrderByBucketStartDesc(Listing listing, PriceResolution resolution);
+
+    List<ListingPriceRollup> findAllByListingAndResolutionAndBucketStartBetweenOrderByBucketStartDesc(
+            Listing listing, PriceResolution resolution, LocalDateTime from, LocalDateTime to);
+}
@@ -0,0 +1,10 @@
+package rs.raf.stock_service.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import rs.raf.stock_service.domain.entity.ScheduledFill;
+
+import java.util.Optional;
+
+public interface ScheduledFillRepository extends JpaRepository<ScheduledFill, Long> {
+    Optional<ScheduledFill> findByOrderId(Long orderId);
+}
@@ -1,9 +1,18 @@
 package rs.raf.stock_service.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import rs.raf.stock_service.domain.entity.Transaction;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-}
\ No newline at end of file
+
+    /// [orderId, ukupna kolicina] svih upisanih transakcija naloga, placenih i onih koje cekaju placanje
+    @Query("SELECT t.order.id, SUM(t.quantity) FROM Transaction t WHERE t.order.id IN :orderIds GROUP BY t.order.id")
+    List<Object[]> sumQuantityByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+}
@@ -0,0 +1,23 @@
+package rs.raf.stock_service.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/// Principal koji JwtAuthenticationFilter postavlja jednom po zahtevu, sa vec procitanim claim-ovima.
+/// JwtTokenUtil ga koristi da ne bi ponovo parsirao isti token u servisima.
+@Getter
+public class JwtPrincipal extends User {
+    private final Long userId;
+    private final String role;
+    private final String token;
+
+    public JwtPrincipal(String email, Long userId, String role, String token, Collection<? extends GrantedAuthority> authorities) {
+        super(email, "", authorities);
+        this.userId = userId;
+        this.role = role;
+        this.token = token;
+    }
+}
@@ -3,18 +3,17 @@ package rs.raf.stock_service.service;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import rs.raf.stock_service.domain.dto.*;
 import rs.raf.stock_service.domain.entity.*;
+import rs.raf.stock_service.domain.event.ListingPriceChangedEvent;
 import rs.raf.stock_service.domain.mapper.ListingMapper;
 import rs.raf.stock_service.repository.*;
 
-import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.function.Consumer;
@@ -26,23 +25,22 @@ import java.util.stream.Collectors;
 public class DataRefreshService {
 
     @Autowired private ListingRepository listingRepository;
-    @Autowired private ListingPriceHistoryRepository priceHistoryRepository;
     @Autowired private PortfolioEntryRepository portfolioEntryRepository;
     @Autowired private OptionRepository optionRepository;
     @Autowired private OptionService optionService;
     @Autowired private StocksService stocksService;
     @Autowired private ForexService forexService;
     @Autowired private ListingService listingService;
-    @Autowired private EntityManager entityManager;
-    @Autowired private OrderService orderService;
     @Autowired private ListingRedisService listingRedisService;
+    @Autowired private PriceHistoryIngestService priceHistoryIngestService;
+    @Autowired private LatestQuoteService latestQuoteService;
+    @Autowired private ListingSearchIndex listingSearchIndex;
     @Autowired private ListingMapper listingMapper;
+    @Autowired private ApplicationEventPublisher eventPublisher;
 
     @Value("${refresh.thread.pool.size:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
     private int threadPoolSize;
 
-    private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-
     @Scheduled(initialDelay = 60000, fixedRate = 301000)
     @Transactional
     public void refreshListings() {
@@ -54,13 +52,10 @@ public class DataRefreshService {
 
         refreshInParallel(stocks, this::refreshStock);
         refreshInParallel(forexPairs, this::refreshForex);
+        listingRedisService.publishInvalidation(listings.stream().map(Listing::getTicker).filter(Objects::nonNull).toList());
+        listingSearchIndex.rebuild();
 
         log.info("---- Finished scheduled listing refresh ----");
-        log.info("---- Checking stop and limit orders ----");
-
-        orderService.checkOrders();
-
-        log.info("---- Finished checking stop and limit orders ----");
     }
 
     private void refreshStock(Stock stock) {
@@ -72,13 +67,12 @@ public class DataRefreshService {
                 stock.setChange(dto.getChange());
                 listingRepository.save(stock);
             }
+            eventPublisher.publishEvent(new ListingPriceChangedEvent(stock.getId(), stock.getPrice(), stock.getAsk()));
 
             TimeSeriesDto series = listingService.getPriceHistoryFromAlphaVantage(stock.getTicker(), "5min", "compact");
-            Set<LocalDateTime> existing = priceHistoryRepository.findDatesByListingId(stock.getId());
-            List<ListingPriceHistory> history = createNewHistory(stock, series, existing);
-            saveInBatches(history, 100, priceHistoryRepository::saveAllAndFlush);
+            priceHistoryIngestService.ingest(stock, series);
 
-            ListingPriceHistory dailyInfo = priceHistoryRepository.findTopByListingOrderByDateDesc(stock);
+            ListingPriceHistory dailyInfo = latestQuoteService.get(stock);
             listingRedisService.saveByTicker(listingMapper.toDto(stock, dailyInfo));
 
         } catch (Exception e) {
@@ -101,13 +95,12 @@ public class DataRefreshService {
                 forex.setLastRefresh(dto.getLastRefresh());
                 listingRepository.save(forex);
             }
+            eventPublisher.publishEvent(new ListingPriceChangedEvent(forex.getId(), forex.getPrice(), forex.getAsk()));
 
             TimeSeriesDto series = listingService.getForexPriceHistory(forex.getId(), "5min");
-            Set<LocalDateTime> existing = priceHistoryRepository.findDatesByListingId(forex.getId());
-            List<ListingPriceHistory> history = createNewHistory(forex, series, existing);
-            saveInBatches(history, 100, priceHistoryRepository::saveAllAndFlush);
+            priceHistoryIngestService.ingest(forex, series);
 
-            ListingPriceHistory dailyInfo = priceHistoryRepository.findTopByListingOrderByDateDesc(forex);
+            ListingPriceHistory dailyInfo = latestQuoteService.get(forex);
             listingRedisService.saveByTicker(listingMapper.toDto(forex, dailyInfo));
 
         } catch (Exception e) {
@@ -115,32 +108,6 @@ public class DataRefreshService {
         }
     }
 
-    private List<ListingPriceHistory> createNewHistory(Listing listing, TimeSeriesDto dto, Set<LocalDateTime> existingDates) {
-        return dto.getValues().stream()
-                .map(value -> {
-                    LocalDateTime date = LocalDateTime.parse(value.getDatetime(), formatter);
-                    if (existingDates.contains(date)) return null;
-                    return ListingPriceHistory.builder()
-                            .listing(listing)
-                            .date(date)
-                            .open(value.getOpen())
-                            .high(value.getHigh())
-                            .low(value.getLow())
-                            .close(value.getClose())
-                            .volume(value.getVolume())
-                            .change(value.getClose().subtract(value.getOpen()))
-                            .build();
-                }).filter(Objects::nonNull).toList();
-    }
-
-    private <T> void saveInBatches(List<T> items, int batchSize, Consumer<List<T>> saver) {
-        for (int i = 0; i < items.size(); i += batchSize) {
-            int end = Math.min(i + batchSize, items.size());
-            saver.accept(items.subList(i, end));
-            entityManager.clear();
-        }
-    }
-
     private <T> void refreshInParallel(List<T> items, Consumer<T> task) {
         ExecutorService executor = Executors.newFixedThreadPool(threadPoolSize);
         for (T item : items) {
@@ -0,0 +1,163 @@
+package rs.raf.stock_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import rs.raf.stock_service.domain.entity.Order;
+import rs.raf.stock_service.domain.entity.ScheduledFill;
+import rs.raf.stock_service.domain.enums.OrderStatus;
+import rs.raf.stock_service.domain.event.FillDueEvent;
+import rs.raf.stock_service.repository.OrderRepository;
+import rs.raf.stock_service.repository.ScheduledFillRepository;
+import rs.raf.stock_service.repository.TransactionRepository;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+/// Odlozeni fill-ovi simuliranog trzista. Jedna timer nit samo broji vreme, a kada termin istekne fill se predaje
+/// async pool-u (FillDueEvent), tako da nalog koji ceka i do 5 minuta (after hours) ne drzi nijednu radnu nit.
+/// Termini se cuvaju u scheduled_fill i vracaju na startu, zajedno sa PROCESSING nalozima koji su ostali bez termina.
+@Slf4j
+@Service
+public class FillScheduler {
+
+    private static final long REJECTED_RETRY_MS = 500;
+
+    private final ScheduledFillRepository scheduledFillRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionRepository transactionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Executor taskExecutor;
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-fill-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<Long, ScheduledFuture<?>> pending = new ConcurrentHashMap<>();
+    private final Counter firedCounter;
+    private final Counter rejectedCounter;
+
+    public FillScheduler(ScheduledFillRepository scheduledFillRepository, OrderRepository orderRepository,
+                         TransactionRepository transactionRepository, ApplicationEventPublisher eventPublisher,
+                         @Qualifier("taskExecutor") Executor taskExecutor, MeterRegistry meterRegistry) {
+        this.scheduledFillRepository = scheduledFillRepository;
+        this.orderRepository = orderRepository;
+        this.transactionRepository = transactionRepository;
+        this.eventPublisher = eventPublisher;
+        this.taskExecutor = taskExecutor;
+        this.firedCounter = meterRegistry.counter("order.fill.fired");
+        this.rejectedCounter = meterRegistry.counter("order.fill.rejected");
+        Gauge.builder("order.fill.scheduled", pending, Map::size).register(meterRegistry);
+    }
+
+    /// Zakazuje sledeci fill naloga za delayMs milisekundi
+    public void schedule(Long orderId, long delayMs) {
+        ScheduledFill scheduledFill = scheduledFillRepository.findByOrderId(orderId)
+                .orElseGet(() -> ScheduledFill.builder().orderId(orderId).build());
+        scheduledFill.setDueAt(LocalDateTime.now().plus(Duration.ofMillis(delayMs)));
+        scheduledFillRepository.save(scheduledFill);
+
+        arm(orderId, delayMs);
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        LocalDateTime now = LocalDateTime.now();
+        List<ScheduledFill> scheduledFills = scheduledFillRepository.findAll();
+        for (ScheduledFill scheduledFill : scheduledFills) {
+            arm(scheduledFill.getOrderId(), Duration.between(now, scheduledFill.getDueAt()).toMillis());
+        }
+        int orphaned = rescheduleOrphaned(scheduledFills.stream().map(ScheduledFill::getOrderId).collect(Collectors.toSet()));
+        log.info("Restored {} scheduled order fills ({} orphaned PROCESSING orders rescheduled)", pending.size(), orphaned);
+    }
+
+    /// PROCESSING nalog bez termina i bez transakcije koja ceka placanje je pao izmedju brisanja termina i fill-a
+    /// (ili pre nego sto je termin upisan); nalog koji ceka placanje nastavlja preko callback-a pa se ne dira
+    private int rescheduleOrphaned(Set<Long> scheduledOrderIds) {
+        List<Order> orphans = orderRepository.findByIsDoneAndStatus(false, OrderStatus.PROCESSING).stream()
+                .filter(order -> !scheduledOrderIds.contains(order.getId()))
+                .toList();
+        if (orphans.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Long> recorded = new HashMap<>();
+        for (Object[] row : transactionRepository.sumQuantityByOrderIdIn(orphans.stream().map(Order::getId).toList())) {
+            recorded.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+
+        int rescheduled = 0;
+        for (Order order : orphans) {
+            // remainingPortions se smanjuje tek kada je placanje potvrdjeno
+            long settledQuantity = order.getQuantity() - order.getRemainingPortions();
+            if (recorded.getOrDefault(order.getId(), 0L) <= settledQuantity) {
+                schedule(order.getId(), 0);
+                rescheduled++;
+            }
+        }
+        return rescheduled;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    private synchronized void arm(Long orderId, long delayMs) {
+        ScheduledFuture<?> previous = pending.put(orderId,
+                timer.schedule(() -> dispatch(orderId), Math.max(delayMs, 0), TimeUnit.MILLISECONDS));
+        if (previous != null) {
+            previous.cancel(false);
+        }
+    }
+
+    private synchronized void disarm(Long orderId) {
+        pending.remove(orderId);
+    }
+
+    /// Pool je pun: termin ostaje u bazi i u pending, pokusava se ponovo za REJECTED_RETRY_MS
+    private void dispatch(Long orderId) {
+        try {
+            taskExecutor.execute(() -> fire(orderId));
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            if (timer.isShutdown()) {
+                log.warn("Fill for order {} not dispatched during shutdown, it stays in scheduled_fill", orderId);
+                return;
+            }
+            log.warn("Task executor rejected fill for order {}, retrying in {} ms", orderId, REJECTED_RETRY_MS);
+            arm(orderId, REJECTED_RETRY_MS);
+        }
+    }
+
+    private void fire(Long orderId) {
+        disarm(orderId);
+        // termin se brise pre izvrsavanja: posle pada fill se ne ponavlja, pa ne moze biti placen dvaput;
+        // nalog koji tako ostane bez termina i bez transakcije vraca rescheduleOrphaned na startu
+        scheduledFillRepository.findByOrderId(orderId).ifPresent(scheduledFillRepository::delete);
+        firedCounter.increment();
+        try {
+            eventPublisher.publishEvent(new FillDueEvent(orderId));
+        } catch (Exception e) {
+            log.error("Scheduled fill for order {} failed", orderId, e);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package rs.raf.stock_service.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import rs.raf.stock_service.domain.entity.Listing;
+import rs.raf.stock_service.domain.entity.ListingPriceHistory;
+import rs.raf.stock_service.repository.ListingPriceHistoryRepository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/// Poslednja 5min sveca svakog listinga (izvor change/volume za ListingDto). Snapshot je denormalizovan u quote_*
+/// kolone listing tabele (vidi LatestQuote), pa filteri po bid-u i volume-u citaju samo listing, a u memoriji se drzi
+/// po id-ju listinga. Azurira ga PriceHistoryIngestService pri upisu novih sveca. Mapiranje strane naloga ili listinga
+/// zato radi jedan getAll umesto findTopByListingOrderByDateDesc po redu; listinzi kojih nema u snapshot-u se
+/// dopunjuju jednim upitom.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LatestQuoteService {
+
+    private static final String UPDATE_SQL =
+            "UPDATE listing SET quote_date = ?, quote_open = ?, quote_high = ?, quote_low = ?, quote_close = ?, " +
+            "quote_change = ?, quote_volume = ? WHERE id = ? AND (quote_date IS NULL OR quote_date < ?)";
+
+    private static final int[] UPDATE_TYPES = {Types.TIMESTAMP, Types.NUMERIC, Types.NUMERIC, Types.NUMERIC,
+            Types.NUMERIC, Types.NUMERIC, Types.BIGINT, Types.BIGINT, Types.TIMESTAMP};
+
+    private static final String LOAD_SQL =
+            "SELECT id, quote_date, quote_open, quote_high, quote_low, quote_close, quote_change, quote_volume " +
+            "FROM listing WHERE quote_date IS NOT NULL";
+
+    private static final RowMapper<Map.Entry<Long, ListingPriceHistory>> QUOTE_ROW = (rs, rowNum) -> Map.entry(
+            rs.getLong("id"),
+            ListingPriceHistory.builder()
+                    .date(rs.getTimestamp("quote_date").toLocalDateTime())
+                    .open(rs.getBigDecimal("quote_open"))
+                    .high(rs.getBigDecimal("quote_high"))
+                    .low(rs.getBigDecimal("quote_low"))
+                    .close(rs.getBigDecimal("quote_close"))
+                    .change(rs.getBigDecimal("quote_change"))
+                    .volume(rs.getObject("quote_volume") != null ? rs.getLong("quote_volume") : null)
+                    .build());
+
+    private final ListingPriceHistoryRepository priceHistoryRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, ListingPriceHistory> quotes = new ConcurrentHashMap<>();
+    private final Set<Long> withoutHistory = ConcurrentHashMap.newKeySet();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        for (Map.Entry<Long, ListingPriceHistory> quote : jdbcTemplate.query(LOAD_SQL, QUOTE_ROW)) {
+            quotes.put(quote.getKey(), quote.getValue());
+        }
+        log.info("Loaded latest quotes for {} listings", quotes.size());
+    }
+
+    public ListingPriceHistory get(Listing listing) {
+        if (listing == null || listing.getId() == null) {
+            return null;
+        }
+        return getAll(List.of(listing)).get(listing.getId());
+    }
+
+    /// Poslednje svece za vise listinga odjednom, po id-ju listinga (listinzi bez istorije nemaju unos)
+    public Map<Long, ListingPriceHistory> getAll(Collection<? extends Listing> listings) {
+        Map<Long, ListingPriceHistory> result = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+        for (Listing listing : listings) {
+            if (listing == null || listing.getId() == null) continue;
+
+            ListingPriceHistory quote = quotes.get(listing.getId());
+            if (quote != null) {
+                result.put(listing.getId(), quote);
+            } else if (!withoutHistory.contains(listing.getId())) {
+                missing.add(listing.getId());
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            List<ListingPriceHistory> latest = new ArrayList<>();
+            for (ListingPriceHistory candle : priceHistoryRepository.findLatestByListingIds(missing)) {
+                Long listingId = candle.getListing().getId();
+                if (missing.remove(listingId)) {
+                    ListingPriceHistory quote = snapshot(candle);
+                    quotes.merge(listingId, quote, LatestQuoteService::newer);
+                    result.put(listingId, quotes.get(listingId));
+                    latest.add(candle);
+                }
+            }
+            withoutHistory.addAll(missing);
+            persist(latest);
+        }
+        return result;
+    }
+
+    /// Poziva se sa svecama koje su upravo upisane; snapshot se pomera samo unapred. Memorija se menja tek posle
+    /// commit-a transakcije upisa, da vracen upis ne bi ostavio snapshot ispred baze.
+    public void update(Long listingId, List<ListingPriceHistory> inserted) {
+        ListingPriceHistory newest = inserted.stream()
+                .max(Comparator.comparing(ListingPriceHistory::getDate))
+                .orElse(null);
+        ListingPriceHistory current = quotes.get(listingId);
+        if (newest == null || (current != null && !newest.getDate().isAfter(current.getDate()))) {
+            return;
+        }
+
+        jdbcTemplate.update(UPDATE_SQL, row(listingId, newest), UPDATE_TYPES);
+        ListingPriceHistory quote = snapshot(newest);
+        Runnable apply = () -> {
+            withoutHistory.remove(listingId);
+            quotes.merge(listingId, quote, LatestQuoteService::newer);
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply.run();
+            }
+        });
+    }
+
+    private void persist(List<ListingPriceHistory> candles) {
+        if (candles.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(candles.size());
+        for (ListingPriceHistory candle : candles) {
+            rows.add(row(candle.getListing().getId(), candle));
+        }
+        jdbcTemplate.batchUpdate(UPDATE_SQL, rows, UPDATE_TYPES);
+    }
+
+    private static Object[] row(Long listingId, ListingPriceHistory candle) {
+        Timestamp date = Timestamp.valueOf(candle.getDate());
+        return new Object[]{date, candle.getOpen(), candle.getHigh(), candle.getLow(), candle.getClose(),
+                candle.getChange(), candle.getVolume(), listingId, date};
+    }
+
+    /// Kopija bez veze ka listingu, da se u memoriji ne drze entiteti iz sesije
+    private static ListingPriceHistory snapshot(ListingPriceHistory candle) {
+        return ListingPriceHistory.builder()
+                .date(candle.getDate())
+                .open(candle.getOpen())
+                .high(candle.getHigh())
+                .low(candle.getLow())
+                .close(candle.getClose())
+                .change(candle.getChange())
+                .volume(candle.getVolume())
+                .build();
+    }
+
+    private static ListingPriceHistory newer(ListingPriceHistory current, ListingPriceHistory candidate) {
+        return candidate.getDate().isAfter(current.getDate()) ? candidate : current;
+    }
+}
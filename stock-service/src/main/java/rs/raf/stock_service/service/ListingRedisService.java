@@ -1,86 +1,253 @@
 package rs.raf.stock_service.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Service;
 import rs.raf.stock_service.domain.dto.ListingDto;
 import rs.raf.stock_service.domain.entity.Listing;
+import rs.raf.stock_service.domain.mapper.ListingDtoCodec;
 import rs.raf.stock_service.domain.mapper.ListingMapper;
-import rs.raf.stock_service.repository.ListingPriceHistoryRepository;
 
-import java.time.Duration;
-import java.util.List;
-import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
+/// Dvonivojski kes listinga. L2 je jedan Redis hash (polje = ticker, vrednost = Smile ListingDto), pa se cela tabela
+/// cita jednim HVALS-om; upisi iz saveAll/replaceAll idu u jednom pipeline-u, a replaceAll puni pomocni hash i RENAME-om
+/// ga atomski postavlja na mesto starog. L1 je ograniceni LRU u memoriji ispred Redis-a za getByTicker; instance ga
+/// drze uskladjenim preko invalidacija na INVALIDATION_CHANNEL (DataRefreshService ih salje posle osvezavanja), a
+/// ttl je zastita ako se neka poruka izgubi. ListingDto je promenljiv, pa L1 cuva svoju kopiju i svakom pozivaocu
+/// vraca novu.
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class ListingRedisService {
 
-    private final RedisTemplate<String, String> redisTemplate;
-    private final ObjectMapper objectMapper;
+    private static final String KEY = "listings";
+    private static final String STAGING_KEY = "listings:staging";
+    private static final String INVALIDATION_CHANNEL = "listings:invalidate";
+    private static final String INVALIDATE_ALL = "*";
+    private static final int FIELDS_PER_COMMAND = 500;
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ListingDtoCodec codec;
     private final ListingMapper listingMapper;
-    private final ListingPriceHistoryRepository priceHistoryRepository;
+    private final LatestQuoteService latestQuoteService;
+    private final int l1MaxSize;
+    private final long l1TtlNanos;
 
-    private static final String PREFIX = "listing:";
+    private final Map<String, NearEntry> l1;
+    private final LongAdder l1Hits = new LongAdder();
+    private final LongAdder l1Misses = new LongAdder();
+    private final LongAdder l2Hits = new LongAdder();
+    private final LongAdder l2Misses = new LongAdder();
 
-    public void clear() {
-        Set<String> keys = redisTemplate.keys("*");
-        for (String key : keys) {
-            redisTemplate.delete(key);
+    private static class NearEntry {
+        private final ListingDto dto;
+        private final long expiresAt;
+
+        private NearEntry(ListingDto dto, long expiresAt) {
+            this.dto = dto;
+            this.expiresAt = expiresAt;
         }
     }
 
+    public ListingRedisService(RedisTemplate<String, byte[]> redisTemplate,
+                               RedisMessageListenerContainer listenerContainer,
+                               ListingDtoCodec codec,
+                               ListingMapper listingMapper,
+                               LatestQuoteService latestQuoteService,
+                               MeterRegistry meterRegistry,
+                               @Value("${listing.cache.l1.max-size:2048}") int l1MaxSize,
+                               @Value("${listing.cache.l1.ttl-seconds:60}") long l1TtlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.codec = codec;
+        this.listingMapper = listingMapper;
+        this.latestQuoteService = latestQuoteService;
+        this.l1MaxSize = l1MaxSize;
+        this.l1TtlNanos = TimeUnit.SECONDS.toNanos(l1TtlSeconds);
+        this.l1 = Collections.synchronizedMap(new LinkedHashMap<String, NearEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, NearEntry> eldest) {
+                return size() > ListingRedisService.this.l1MaxSize;
+            }
+        });
+
+        Gauge.builder("listing.cache.size", l1, Map::size).tag("level", "l1").register(meterRegistry);
+        Gauge.builder("listing.cache.hit.ratio", this, service -> ratio(service.l1Hits, service.l1Misses))
+                .tag("level", "l1").register(meterRegistry);
+        Gauge.builder("listing.cache.hit.ratio", this, service -> ratio(service.l2Hits, service.l2Misses))
+                .tag("level", "l2").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener((message, pattern) -> onInvalidation(message),
+                new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    public void clear() {
+        redisTemplate.unlink(KEY);
+        publishInvalidation(List.of(INVALIDATE_ALL));
+    }
+
     public void save(Listing listing) {
-        ListingDto dto = listingMapper.toDto(listing, priceHistoryRepository.findTopByListingOrderByDateDesc(listing));
+        ListingDto dto = listingMapper.toDto(listing, latestQuoteService.get(listing));
         saveByTicker(dto);
     }
 
+    /// Upisuje u Redis i lokalni L1; ostale instance saznaju za promenu tek preko publishInvalidation
     public void saveByTicker(ListingDto dto) {
-        try {
-            String json = objectMapper.writeValueAsString(dto);
-            redisTemplate.opsForValue().set(PREFIX + dto.getTicker(), json, Duration.ofHours(6));
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Failed to serialize ListingDto", e);
-        }
+        redisTemplate.<String, byte[]>opsForHash().put(KEY, dto.getTicker(), codec.encode(dto));
+        putNear(dto.getTicker(), dto);
     }
 
     public void saveAll(List<ListingDto> dtos) {
-        for (ListingDto dto : dtos) {
-            saveByTicker(dto);
+        Map<String, byte[]> fields = encodeAll(dtos);
+        if (fields.isEmpty()) {
+            return;
+        }
+        pipelined(operations -> putAll(operations, KEY, fields));
+        fields.keySet().forEach(l1::remove);
+    }
+
+    /// Zamenjuje ceo sadrzaj kesa listama; stari sadrzaj nestaje tek kada je novi kompletno upisan
+    public void replaceAll(List<ListingDto> dtos) {
+        Map<String, byte[]> fields = encodeAll(dtos);
+        if (fields.isEmpty()) {
+            clear();
+            return;
         }
+        pipelined(operations -> {
+            operations.delete(STAGING_KEY);
+            putAll(operations, STAGING_KEY, fields);
+            operations.rename(STAGING_KEY, KEY);
+        });
+        publishInvalidation(List.of(INVALIDATE_ALL));
     }
 
     public ListingDto getByTicker(String ticker) {
+        NearEntry entry = l1.get(ticker);
+        if (entry != null && entry.expiresAt - System.nanoTime() > 0) {
+            l1Hits.increment();
+            return copy(entry.dto);
+        }
+        l1Misses.increment();
+
+        byte[] bytes = redisTemplate.<String, byte[]>opsForHash().get(KEY, ticker);
+        if (bytes == null) {
+            l2Misses.increment();
+            return null;
+        }
+
+        ListingDto dto;
         try {
-            String json = redisTemplate.opsForValue().get(PREFIX + ticker);
-            return json != null ? objectMapper.readValue(json, ListingDto.class) : null;
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Failed to deserialize ListingDto", e);
+            dto = codec.decode(bytes);
+        } catch (RuntimeException e) {
+            // zapis u starom (JSON) ili ostecenom formatu se brise, pa ga pozivalac puni iz baze
+            log.warn("Evicting unreadable cached listing {}: {}", ticker, e.getMessage());
+            redisTemplate.<String, byte[]>opsForHash().delete(KEY, ticker);
+            l2Misses.increment();
+            return null;
         }
+        l2Hits.increment();
+        putNear(ticker, dto);
+        return dto;
     }
 
     public List<ListingDto> getAllListings() {
-        Set<String> keys = Optional.ofNullable(redisTemplate.keys(PREFIX + "*"))
-                .map(set -> set.stream()
-                        .filter(String.class::isInstance)
-                        .map(String.class::cast)
-                        .collect(Collectors.toSet()))
-                .orElse(Set.of());
-
-        return keys.stream()
-                .map(key -> {
-                    try {
-                        String json = redisTemplate.opsForValue().get(key);
-                        return json != null ? objectMapper.readValue(json, ListingDto.class) : null;
-                    } catch (JsonProcessingException e) {
-                        return null;
-                    }
-                })
-                .filter(dto -> dto != null)
-                .collect(Collectors.toList());
+        List<byte[]> values = redisTemplate.<String, byte[]>opsForHash().values(KEY);
+
+        List<ListingDto> listings = new ArrayList<>(values.size());
+        for (byte[] bytes : values) {
+            try {
+                listings.add(codec.decode(bytes));
+            } catch (RuntimeException e) {
+                log.warn("Skipping unreadable cached listing: {}", e.getMessage());
+            }
+        }
+        return listings;
+    }
+
+    /// Jedna poruka za ceo skup tickera; svaka instanca (i ova) ih izbacuje iz svog L1
+    public void publishInvalidation(Collection<String> tickers) {
+        if (tickers.isEmpty()) {
+            return;
+        }
+        redisTemplate.convertAndSend(INVALIDATION_CHANNEL,
+                String.join("\n", tickers).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void onInvalidation(Message message) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        for (String ticker : body.split("\n")) {
+            if (INVALIDATE_ALL.equals(ticker)) {
+                l1.clear();
+                return;
+            }
+            l1.remove(ticker);
+        }
+    }
+
+    private void putNear(String ticker, ListingDto dto) {
+        l1.put(ticker, new NearEntry(copy(dto), System.nanoTime() + l1TtlNanos));
+    }
+
+    private static ListingDto copy(ListingDto dto) {
+        return new ListingDto(dto.getId(), dto.getListingType(), dto.getTicker(), dto.getPrice(), dto.getChange(),
+                dto.getVolume(), dto.getInitialMarginCost(), dto.getExchangeMic(), dto.getAsk(), dto.getSettlementDate());
+    }
+
+    private Map<String, byte[]> encodeAll(List<ListingDto> dtos) {
+        Map<String, byte[]> fields = new LinkedHashMap<>();
+        for (ListingDto dto : dtos) {
+            fields.put(dto.getTicker(), codec.encode(dto));
+        }
+        return fields;
+    }
+
+    private static double ratio(LongAdder hits, LongAdder misses) {
+        long hit = hits.sum();
+        long total = hit + misses.sum();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    /// HSET u delovima od FIELDS_PER_COMMAND polja, da jedna komanda ne blokira Redis predugo
+    private static void putAll(RedisOperations<String, byte[]> operations, String key, Map<String, byte[]> fields) {
+        Map<String, byte[]> chunk = new HashMap<>();
+        for (Map.Entry<String, byte[]> field : fields.entrySet()) {
+            chunk.put(field.getKey(), field.getValue());
+            if (chunk.size() == FIELDS_PER_COMMAND) {
+                operations.<String, byte[]>opsForHash().putAll(key, chunk);
+                chunk = new HashMap<>();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            operations.<String, byte[]>opsForHash().putAll(key, chunk);
+        }
+    }
+
+    private void pipelined(Consumer<RedisOperations<String, byte[]>> commands) {
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                commands.accept((RedisOperations<String, byte[]>) operations);
+                return null;
+            }
+        });
     }
 }
@@ -0,0 +1,230 @@
+package rs.raf.stock_service.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import rs.raf.stock_service.domain.dto.ListingDto;
+import rs.raf.stock_service.domain.dto.ListingFilterDto;
+import rs.raf.stock_service.domain.entity.*;
+import rs.raf.stock_service.domain.mapper.ListingMapper;
+import rs.raf.stock_service.repository.ListingRepository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+
+/// Indeks listinga u memoriji za pretragu sa liste listinga. Pretraga je ista kao u ListingSpecification
+/// (podstring tickera ili imena, bez obzira na velika slova), ali se kandidati traze preko trigram indeksa umesto
+/// LIKE '%term%' nad celom tabelom; cena, ask i bid (low poslednje svece) se porede kao tick-ovi iz nizova.
+/// Snapshot se pravi ponovo posle svakog DataRefreshService osvezavanja i izmene listinga; filteri koje indeks
+/// ne pokriva (vidi supports) i dalje idu na SQL.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ListingSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final long NO_VALUE = Long.MIN_VALUE;
+
+    private final ListingRepository listingRepository;
+    private final LatestQuoteService latestQuoteService;
+    private final ListingMapper listingMapper;
+
+    private volatile Snapshot snapshot;
+
+    /// Exchange, volume, settlement date i sortiranje se retko koriste, za njih ostaje ListingSpecification
+    public static boolean supports(ListingFilterDto filter) {
+        return isBlank(filter.getExchangePrefix())
+                && filter.getMinVolume() == null && filter.getMaxVolume() == null
+                && filter.getSettlementDate() == null
+                && isBlank(filter.getSortBy());
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        List<Listing> listings = listingRepository.findAll().stream()
+                .filter(listing -> !(listing instanceof Option))
+                .sorted(Comparator.comparing(Listing::getId))
+                .toList();
+        Map<Long, ListingPriceHistory> latestQuotes = latestQuoteService.getAll(listings);
+
+        snapshot = new Snapshot(listings, latestQuotes, listingMapper);
+        log.info("Listing search index rebuilt with {} listings", listings.size());
+    }
+
+    public List<ListingDto> search(ListingFilterDto filter, String role) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return List.of();
+        }
+
+        String term = isBlank(filter.getSearch()) ? null : filter.getSearch().toLowerCase();
+        boolean clientOnly = "CLIENT".equalsIgnoreCase(role);
+        Range price = Range.of(filter.getMinPrice(), filter.getMaxPrice());
+        Range ask = Range.of(filter.getMinAsk(), filter.getMaxAsk());
+        Range bid = Range.of(filter.getMinBid(), filter.getMaxBid());
+        // maintenance margin je price * 0.1
+        Range margin = Range.of(times10(filter.getMinMaintenanceMargin()), times10(filter.getMaxMaintenanceMargin()));
+
+        int[] candidates = term != null ? current.candidates(term) : null;
+        int count = candidates != null ? candidates.length : current.size();
+
+        List<ListingDto> result = new ArrayList<>();
+        for (int k = 0; k < count; k++) {
+            int i = candidates != null ? candidates[k] : k;
+            if (clientOnly && !current.clientVisible[i]) continue;
+            if (term != null && !current.tickers[i].contains(term) && !current.names[i].contains(term)) continue;
+            if (!price.test(current.price[i]) || !margin.test(current.price[i])) continue;
+            if (!ask.test(current.ask[i]) || !bid.test(current.bid[i])) continue;
+            result.add(current.dtos[i]);
+        }
+        return result;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isEmpty();
+    }
+
+    private static BigDecimal times10(BigDecimal value) {
+        return value != null ? value.multiply(BigDecimal.TEN) : null;
+    }
+
+    private static long toTicks(BigDecimal value) {
+        return value != null ? OrderBook.toTicks(value) : NO_VALUE;
+    }
+
+    /// Opseg u tick-ovima sa ukljucenim granicama; granice se zaokruzuju ka unutra da ostanu tacne kao u SQL-u
+    private static class Range {
+        private final boolean active;
+        private final long min;
+        private final long max;
+
+        private Range(boolean active, long min, long max) {
+            this.active = active;
+            this.min = min;
+            this.max = max;
+        }
+
+        private static Range of(BigDecimal min, BigDecimal max) {
+            if (min == null && max == null) {
+                return new Range(false, 0, 0);
+            }
+            long minTicks = min != null
+                    ? min.setScale(OrderBook.PRICE_SCALE, RoundingMode.CEILING).unscaledValue().longValueExact()
+                    : Long.MIN_VALUE + 1;
+            long maxTicks = max != null
+                    ? max.setScale(OrderBook.PRICE_SCALE, RoundingMode.FLOOR).unscaledValue().longValueExact()
+                    : Long.MAX_VALUE;
+            return new Range(true, minTicks, maxTicks);
+        }
+
+        /// Kao u SQL-u, listing bez vrednosti ne prolazi nijedan zadat filter
+        private boolean test(long value) {
+            return !active || (value != NO_VALUE && value >= min && value <= max);
+        }
+    }
+
+    private static class Snapshot {
+        private final ListingDto[] dtos;
+        private final String[] tickers;
+        private final String[] names;
+        private final long[] price;
+        private final long[] ask;
+        private final long[] bid;
+        private final boolean[] clientVisible;
+        private final Map<Long, int[]> grams;
+
+        private Snapshot(List<Listing> listings, Map<Long, ListingPriceHistory> latestQuotes, ListingMapper listingMapper) {
+            int size = listings.size();
+            dtos = new ListingDto[size];
+            tickers = new String[size];
+            names = new String[size];
+            price = new long[size];
+            ask = new long[size];
+            bid = new long[size];
+            clientVisible = new boolean[size];
+
+            Map<Long, List<Integer>> postings = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                Listing listing = listings.get(i);
+                ListingPriceHistory quote = latestQuotes.get(listing.getId());
+
+                dtos[i] = listingMapper.toDto(listing, quote);
+                tickers[i] = listing.getTicker() != null ? listing.getTicker().toLowerCase() : "";
+                names[i] = listing.getName() != null ? listing.getName().toLowerCase() : "";
+                price[i] = toTicks(listing.getPrice());
+                ask[i] = toTicks(listing.getAsk());
+                bid[i] = toTicks(quote != null ? quote.getLow() : null);
+                clientVisible[i] = listing instanceof Stock || listing instanceof FuturesContract;
+
+                addGrams(postings, tickers[i], i);
+                addGrams(postings, names[i], i);
+            }
+
+            grams = new HashMap<>(postings.size());
+            postings.forEach((gram, slots) -> grams.put(gram, slots.stream().mapToInt(Integer::intValue).toArray()));
+        }
+
+        private int size() {
+            return dtos.length;
+        }
+
+        /// Slotovi koji sadrze sve trigrame pojma, rastuce; null znaci da je pojam prekratak pa se proveravaju svi
+        private int[] candidates(String term) {
+            if (term.length() < GRAM) {
+                return null;
+            }
+            List<int[]> lists = new ArrayList<>();
+            for (int start = 0; start + GRAM <= term.length(); start++) {
+                int[] slots = grams.get(gram(term, start));
+                if (slots == null) {
+                    return new int[0];
+                }
+                lists.add(slots);
+            }
+            lists.sort(Comparator.comparingInt(slots -> slots.length));
+
+            int[] result = lists.get(0);
+            for (int l = 1; l < lists.size() && result.length > 0; l++) {
+                result = intersect(result, lists.get(l));
+            }
+            return result;
+        }
+
+        private static void addGrams(Map<Long, List<Integer>> postings, String text, int slot) {
+            for (int start = 0; start + GRAM <= text.length(); start++) {
+                List<Integer> slots = postings.computeIfAbsent(gram(text, start), g -> new ArrayList<>());
+                if (slots.isEmpty() || slots.get(slots.size() - 1) != slot) {
+                    slots.add(slot);
+                }
+            }
+        }
+
+        private static long gram(String text, int start) {
+            return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+        }
+
+        private static int[] intersect(int[] a, int[] b) {
+            int[] out = new int[Math.min(a.length, b.length)];
+            int i = 0, j = 0, n = 0;
+            while (i < a.length && j < b.length) {
+                if (a[i] < b[j]) i++;
+                else if (a[i] > b[j]) j++;
+                else {
+                    out[n++] = a[i];
+                    i++;
+                    j++;
+                }
+            }
+            return Arrays.copyOf(out, n);
+        }
+    }
+}
@@ -4,16 +4,21 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import rs.raf.stock_service.client.AlphavantageClient;
 import rs.raf.stock_service.client.TwelveDataClient;
 import rs.raf.stock_service.domain.dto.*;
 import rs.raf.stock_service.domain.entity.*;
+import rs.raf.stock_service.domain.enums.PriceResolution;
+import rs.raf.stock_service.domain.event.ListingPriceChangedEvent;
 import rs.raf.stock_service.domain.mapper.ListingMapper;
 import rs.raf.stock_service.domain.mapper.TimeSeriesMapper;
 import rs.raf.stock_service.exceptions.ListingNotFoundException;
 import rs.raf.stock_service.exceptions.UnauthorizedException;
 import rs.raf.stock_service.repository.ListingPriceHistoryRepository;
+import rs.raf.stock_service.repository.ListingPriceRollupRepository;
 import rs.raf.stock_service.repository.ListingRepository;
 import rs.raf.stock_service.repository.OptionRepository;
 import rs.raf.stock_service.specification.ListingSpecification;
@@ -32,13 +37,17 @@ public class ListingService {
 
     @Autowired private ListingRepository listingRepository;
     @Autowired private ListingPriceHistoryRepository dailyPriceInfoRepository;
+    @Autowired private ListingPriceRollupRepository priceRollupRepository;
+    @Autowired private LatestQuoteService latestQuoteService;
     @Autowired private OptionRepository optionRepository;
     @Autowired private ListingMapper listingMapper;
     @Autowired private JwtTokenUtil jwtTokenUtil;
     @Autowired private ListingRedisService listingRedisService;
+    @Autowired private ListingSearchIndex listingSearchIndex;
     @Autowired private TimeSeriesMapper timeSeriesMapper;
     @Autowired private TwelveDataClient twelveDataClient;
     @Autowired private AlphavantageClient alphavantageClient;
+    @Autowired private ApplicationEventPublisher eventPublisher;
 
     public ListingDto getByTicker(String ticker) {
         ListingDto cached = listingRedisService.getByTicker(ticker);
@@ -49,13 +58,14 @@ public class ListingService {
         Listing listing = listingRepository.findByTicker(ticker)
                 .orElseThrow(() -> new ListingNotFoundException(ticker));
 
-        ListingPriceHistory dailyInfo = dailyPriceInfoRepository.findTopByListingOrderByDateDesc(listing);
+        ListingPriceHistory dailyInfo = latestQuoteService.get(listing);
         ListingDto dto = listingMapper.toDto(listing, dailyInfo);
 
         listingRedisService.saveByTicker(dto);
         return dto;
     }
 
+    @Transactional(readOnly = true)
     public List<ListingDto> getListings(ListingFilterDto filter, String role) {
         var spec = ListingSpecification.buildSpecification(filter, role);
         if (filter.getType() == null &&
@@ -70,17 +80,23 @@ public class ListingService {
     ) {
             return listingRedisService.getAllListings();
         }
+        if (listingSearchIndex.isReady() && ListingSearchIndex.supports(filter)) {
+            return listingSearchIndex.search(filter, role);
+        }
 
-        return listingRepository.findAll(spec).stream()
-                .map(listing -> listingMapper.toDto(listing, dailyPriceInfoRepository.findTopByListingOrderByDateDesc(listing)))
+        List<Listing> listings = listingRepository.findAll(spec);
+        Map<Long, ListingPriceHistory> latestQuotes = latestQuoteService.getAll(listings);
+        return listings.stream()
+                .map(listing -> listingMapper.toDto(listing, latestQuotes.get(listing.getId())))
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public ListingDetailsDto getListingDetails(Long id) {
         Listing listing = listingRepository.findById(id)
                 .orElseThrow(() -> new ListingNotFoundException(id));
 
-        List<ListingPriceHistory> priceHistory = dailyPriceInfoRepository.findAllByListingOrderByDateDesc(listing);
+        List<ListingPriceHistory> priceHistory = findRawHistory(listing, null, null);
 
         ListingDetailsDto dto = listingMapper.toDetailsDto(listing, priceHistory);
 
@@ -97,6 +113,42 @@ public class ListingService {
         return dto;
     }
 
+    /// Istorija cena u zadatoj rezoluciji; bez to se uzima poslednja sveca, bez from prozor resolution.getDefaultRange()
+    @Transactional(readOnly = true)
+    public List<PriceHistoryDto> getHistory(Long id, PriceResolution resolution, LocalDateTime from, LocalDateTime to) {
+        Listing listing = listingRepository.findById(id)
+                .orElseThrow(() -> new ListingNotFoundException(id));
+
+        if (!resolution.isRollup()) {
+            return findRawHistory(listing, from, to).stream()
+                    .map(listingMapper::toPriceHistoryDto)
+                    .collect(Collectors.toList());
+        }
+
+        if (to == null) {
+            ListingPriceRollup latest = priceRollupRepository.findTopByListingAndResolutionOrderByBucketStartDesc(listing, resolution);
+            if (latest == null) return List.of();
+            to = latest.getBucketStart();
+        }
+        if (from == null) from = to.minus(resolution.getDefaultRange());
+
+        return priceRollupRepository.findAllByListingAndResolutionAndBucketStartBetweenOrderByBucketStartDesc(listing, resolution, from, to)
+                .stream()
+                .map(listingMapper::toPriceHistoryDto)
+                .collect(Collectors.toList());
+    }
+
+    private List<ListingPriceHistory> findRawHistory(Listing listing, LocalDateTime from, LocalDateTime to) {
+        if (to == null) {
+            ListingPriceHistory latest = latestQuoteService.get(listing);
+            if (latest == null) return List.of();
+            to = latest.getDate();
+        }
+        if (from == null) from = to.minus(PriceResolution.FIVE_MINUTES.getDefaultRange());
+
+        return dailyPriceInfoRepository.findAllByListingAndDateBetweenOrderByDateDesc(listing, from, to);
+    }
+
     public ListingDto updateListing(Long id, ListingUpdateDto updateDto, String authHeader) {
         String role = jwtTokenUtil.getUserRoleFromAuthHeader(authHeader);
         if (!"SUPERVISOR".equals(role) && !"ADMIN".equals(role)) {
@@ -110,11 +162,14 @@ public class ListingService {
         if (updateDto.getAsk() != null) listing.setAsk(updateDto.getAsk());
 
         listingRepository.save(listing);
+        eventPublisher.publishEvent(new ListingPriceChangedEvent(listing.getId(), listing.getPrice(), listing.getAsk()));
 
-        ListingPriceHistory dailyInfo = dailyPriceInfoRepository.findTopByListingOrderByDateDesc(listing);
+        ListingPriceHistory dailyInfo = latestQuoteService.get(listing);
         ListingDto updatedDto = listingMapper.toDto(listing, dailyInfo);
 
         listingRedisService.saveByTicker(updatedDto);
+        listingRedisService.publishInvalidation(List.of(updatedDto.getTicker()));
+        listingSearchIndex.rebuild();
         return updatedDto;
     }
 
@@ -0,0 +1,248 @@
+package rs.raf.stock_service.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import rs.raf.stock_service.domain.enums.OrderDirection;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+
+/// Limit order book jednog listinga sa price-time prioritetom. Cene su long tick-ovi (6 decimala kao kolone cena),
+/// nivoi su sortirani long nizovi sa najboljom cenom na kraju, a unutar nivoa nalozi cekaju FIFO redom.
+/// Knjiga ne zna za bazu i Spring, sve metode su synchronized po knjizi.
+/// Nalog se ne uparuje sa nalogom istog vlasnika: kada dodje na red takav nalog, ostatak novog naloga
+/// se ne uparuje dalje i ne ostaje u knjizi (cancel newest).
+public class OrderBook {
+
+    public static final int PRICE_SCALE = 6;
+
+    private final PriceLevels bids = new PriceLevels(true);
+    private final PriceLevels asks = new PriceLevels(false);
+    private final Map<Long, RestingOrder> resting = new HashMap<>();
+
+    @Getter
+    @AllArgsConstructor
+    public static class Fill {
+        private final long buyOrderId;
+        private final long sellOrderId;
+        private final long quantity;
+        private final long priceTicks;
+
+        public BigDecimal getPrice() {
+            return fromTicks(priceTicks);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Level {
+        private final long priceTicks;
+        private final long quantity;
+        private final int orders;
+
+        public BigDecimal getPrice() {
+            return fromTicks(priceTicks);
+        }
+    }
+
+    private static class RestingOrder {
+        private final long orderId;
+        private final long ownerId;
+        private final OrderDirection direction;
+        private final long priceTicks;
+        private long remaining;
+
+        private RestingOrder(long orderId, long ownerId, OrderDirection direction, long priceTicks, long remaining) {
+            this.orderId = orderId;
+            this.ownerId = ownerId;
+            this.direction = direction;
+            this.priceTicks = priceTicks;
+            this.remaining = remaining;
+        }
+    }
+
+    /// Uparuje nalog sa suprotnom stranom po ceni nalog-a koji ceka (maker), ostatak ostaje u knjizi
+    /// osim ako je uparivanje stalo na nalogu istog vlasnika
+    public synchronized List<Fill> submit(long orderId, long ownerId, OrderDirection direction, long limitTicks, long quantity) {
+        if (quantity <= 0 || resting.containsKey(orderId)) {
+            return Collections.emptyList();
+        }
+
+        boolean buy = direction == OrderDirection.BUY;
+        PriceLevels opposite = buy ? asks : bids;
+        List<Fill> fills = new ArrayList<>();
+        long remaining = quantity;
+
+        while (remaining > 0 && !opposite.isEmpty()) {
+            long best = opposite.bestPrice();
+            if (buy ? best > limitTicks : best < limitTicks) {
+                break;
+            }
+            ArrayDeque<RestingOrder> queue = opposite.bestQueue();
+            RestingOrder maker = queue.peekFirst();
+            if (maker.ownerId == ownerId) {
+                return fills;
+            }
+            long traded = Math.min(remaining, maker.remaining);
+
+            fills.add(buy
+                    ? new Fill(orderId, maker.orderId, traded, best)
+                    : new Fill(maker.orderId, orderId, traded, best));
+            remaining -= traded;
+            maker.remaining -= traded;
+            opposite.reduceBest(traded);
+
+            if (maker.remaining == 0) {
+                queue.pollFirst();
+                resting.remove(maker.orderId);
+                opposite.dropBestIfEmpty();
+            }
+        }
+
+        if (remaining > 0) {
+            rest(orderId, ownerId, direction, limitTicks, remaining);
+        }
+        return fills;
+    }
+
+    /// Dodaje nalog u knjigu bez uparivanja (oporavak posle restarta)
+    public synchronized void rest(long orderId, long ownerId, OrderDirection direction, long limitTicks, long quantity) {
+        if (quantity <= 0 || resting.containsKey(orderId)) {
+            return;
+        }
+        RestingOrder order = new RestingOrder(orderId, ownerId, direction, limitTicks, quantity);
+        resting.put(orderId, order);
+        (direction == OrderDirection.BUY ? bids : asks).add(order);
+    }
+
+    /// Uklanja nalog iz knjige i vraca kolicinu koja je ostala neuparena (0 ako nalog nije u knjizi)
+    public synchronized long cancel(long orderId) {
+        RestingOrder order = resting.remove(orderId);
+        if (order == null) {
+            return 0;
+        }
+        (order.direction == OrderDirection.BUY ? bids : asks).remove(order);
+        return order.remaining;
+    }
+
+    /// Neuparena kolicina naloga u knjizi (0 ako nalog nije u knjizi)
+    public synchronized long remaining(long orderId) {
+        RestingOrder order = resting.get(orderId);
+        return order == null ? 0 : order.remaining;
+    }
+
+    public synchronized boolean contains(long orderId) {
+        return resting.containsKey(orderId);
+    }
+
+    public synchronized List<Level> depth(OrderDirection side, int maxLevels) {
+        return (side == OrderDirection.BUY ? bids : asks).depth(maxLevels);
+    }
+
+    public synchronized int size() {
+        return resting.size();
+    }
+
+    public static long toTicks(BigDecimal price) {
+        return price.setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromTicks(long ticks) {
+        return BigDecimal.valueOf(ticks, PRICE_SCALE);
+    }
+
+    /// Jedna strana knjige. Kljuc je cena (za ask-ove negirana), niz je rastuci po kljucu pa je najbolja cena
+    /// uvek poslednji element i skidanje najboljeg nivoa ne pomera ostale.
+    private static class PriceLevels {
+        private final boolean negate;
+        private long[] keys = new long[16];
+        private long[] quantities = new long[16];
+        @SuppressWarnings("unchecked")
+        private ArrayDeque<RestingOrder>[] queues = new ArrayDeque[16];
+        private int size;
+
+        private PriceLevels(boolean bestIsHighest) {
+            // ask: najniza cena je najbolja, pa je kljuc -cena da bi ona bila na kraju rastuceg niza
+            this.negate = !bestIsHighest;
+        }
+
+        private long key(long priceTicks) {
+            return negate ? -priceTicks : priceTicks;
+        }
+
+        private long price(long key) {
+            return negate ? -key : key;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        long bestPrice() {
+            return price(keys[size - 1]);
+        }
+
+        ArrayDeque<RestingOrder> bestQueue() {
+            return queues[size - 1];
+        }
+
+        void reduceBest(long quantity) {
+            quantities[size - 1] -= quantity;
+        }
+
+        void dropBestIfEmpty() {
+            if (queues[size - 1].isEmpty()) {
+                queues[--size] = null;
+            }
+        }
+
+        void add(RestingOrder order) {
+            long key = key(order.priceTicks);
+            int index = Arrays.binarySearch(keys, 0, size, key);
+            if (index < 0) {
+                index = -index - 1;
+                insertLevel(index, key);
+            }
+            queues[index].addLast(order);
+            quantities[index] += order.remaining;
+        }
+
+        void remove(RestingOrder order) {
+            int index = Arrays.binarySearch(keys, 0, size, key(order.priceTicks));
+            if (index < 0 || !queues[index].remove(order)) {
+                return;
+            }
+            quantities[index] -= order.remaining;
+            if (queues[index].isEmpty()) {
+                System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+                System.arraycopy(quantities, index + 1, quantities, index, size - index - 1);
+                System.arraycopy(queues, index + 1, queues, index, size - index - 1);
+                queues[--size] = null;
+            }
+        }
+
+        List<Level> depth(int maxLevels) {
+            List<Level> levels = new ArrayList<>(Math.min(maxLevels, size));
+            for (int i = size - 1; i >= 0 && levels.size() < maxLevels; i--) {
+                levels.add(new Level(price(keys[i]), quantities[i], queues[i].size()));
+            }
+            return levels;
+        }
+
+        private void insertLevel(int index, long key) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                quantities = Arrays.copyOf(quantities, size * 2);
+                queues = Arrays.copyOf(queues, size * 2);
+            }
+            System.arraycopy(keys, index, keys, index + 1, size - index);
+            System.arraycopy(quantities, index, quantities, index + 1, size - index);
+            System.arraycopy(queues, index, queues, index + 1, size - index);
+            keys[index] = key;
+            quantities[index] = 0;
+            queues[index] = new ArrayDeque<>();
+            size++;
+        }
+    }
+}
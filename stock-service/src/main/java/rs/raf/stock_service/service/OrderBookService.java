@@ -0,0 +1,219 @@
+package rs.raf.stock_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import rs.raf.stock_service.domain.dto.OrderBookDto;
+import rs.raf.stock_service.domain.dto.OrderBookLevelDto;
+import rs.raf.stock_service.domain.entity.Order;
+import rs.raf.stock_service.domain.entity.Transaction;
+import rs.raf.stock_service.domain.enums.OrderDirection;
+import rs.raf.stock_service.domain.enums.OrderStatus;
+import rs.raf.stock_service.domain.enums.OrderType;
+import rs.raf.stock_service.exceptions.OrderNotFoundException;
+import rs.raf.stock_service.repository.OrderRepository;
+import rs.raf.stock_service.repository.TransactionRepository;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/// Drzi OrderBook po listingu i prati koliko je uparenih kolicina jos u obradi (placanje nije potvrdjeno).
+/// U knjigu ulaze LIMIT i aktivirani STOP_LIMIT nalozi koji nisu all-or-none; MARKET i ostali nalozi i dalje
+/// idu na simulirano trziste. Nalog koji ima neobradjene fill-ove ne sme na simulirano trziste dok se oni ne zavrse,
+/// inace bi se kolicina izvrsila dvaput. Fill-ovi se upisuju kao transakcije odmah posle uparivanja (record), pa posle
+/// restarta restore zna koliko je kolicine upareno a jos neplaceno.
+@Slf4j
+@Service
+public class OrderBookService {
+
+    private final OrderRepository orderRepository;
+    private final TransactionRepository transactionRepository;
+
+    private final Map<Long, OrderBook> books = new ConcurrentHashMap<>();
+    private final Map<Long, Long> listingByOrder = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> unsettled = new ConcurrentHashMap<>();
+    private final Counter matchedQuantity;
+    private final Counter selfTradePrevented;
+
+    @Value("${orders.matching.enabled:true}")
+    private boolean enabled;
+
+    public OrderBookService(OrderRepository orderRepository, TransactionRepository transactionRepository, MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.transactionRepository = transactionRepository;
+        this.matchedQuantity = meterRegistry.counter("order.book.matched.quantity");
+        this.selfTradePrevented = meterRegistry.counter("order.book.self.trade.prevented");
+        Gauge.builder("order.book.resting", listingByOrder, Map::size).register(meterRegistry);
+    }
+
+    public boolean accepts(Order order) {
+        if (!enabled || order.isAllOrNone() || order.getStatus() != OrderStatus.APPROVED) {
+            return false;
+        }
+        return order.getOrderType() == OrderType.LIMIT
+                || (order.getOrderType() == OrderType.STOP_LIMIT && order.isStopFulfilled());
+    }
+
+    /// Uparuje nalog u knjizi njegovog listinga; fill-ovi se racunaju kao neobradjeni dok ne stigne settled.
+    /// Nalog koji bi se upario sa nalogom istog korisnika ne ostaje u knjizi i nastavlja na simuliranom trzistu.
+    /// Uparivanje i upis u unsettled rade pod bravom knjige, da withdraw ne bi video makera kao slobodnog.
+    public List<OrderBook.Fill> submit(Order order) {
+        Long listingId = order.getListing().getId();
+        OrderBook book = books.computeIfAbsent(listingId, id -> new OrderBook());
+
+        synchronized (book) {
+            listingByOrder.put(order.getId(), listingId);
+            List<OrderBook.Fill> fills = book.submit(order.getId(), order.getUserId(), order.getDirection(),
+                    OrderBook.toTicks(order.getPricePerUnit()), order.getRemainingPortions());
+
+            long filled = 0;
+            for (OrderBook.Fill fill : fills) {
+                filled += fill.getQuantity();
+                unsettled.computeIfAbsent(fill.getBuyOrderId(), id -> new AtomicLong()).addAndGet(fill.getQuantity());
+                unsettled.computeIfAbsent(fill.getSellOrderId(), id -> new AtomicLong()).addAndGet(fill.getQuantity());
+                matchedQuantity.increment(fill.getQuantity());
+                if (!book.contains(fill.getBuyOrderId())) listingByOrder.remove(fill.getBuyOrderId());
+                if (!book.contains(fill.getSellOrderId())) listingByOrder.remove(fill.getSellOrderId());
+            }
+            if (!book.contains(order.getId())) {
+                listingByOrder.remove(order.getId());
+                if (filled < order.getRemainingPortions()) {
+                    selfTradePrevented.increment();
+                    log.info("Order {} would match an order of the same user {}, left out of the order book", order.getId(), order.getUserId());
+                }
+            }
+            return fills;
+        }
+    }
+
+    /// Upisuje fill-ove kao po jednu transakciju kupca i prodavca u istoj transakciji baze, pre nego sto krene placanje
+    @Transactional
+    public List<Transaction> record(List<OrderBook.Fill> fills) {
+        List<Transaction> transactions = new ArrayList<>(fills.size() * 2);
+        for (OrderBook.Fill fill : fills) {
+            for (Long orderId : List.of(fill.getBuyOrderId(), fill.getSellOrderId())) {
+                Order order = orderRepository.findById(orderId).orElseThrow(() -> new OrderNotFoundException(orderId));
+                BigDecimal totalPrice = fill.getPrice().multiply(BigDecimal.valueOf(fill.getQuantity()));
+                transactions.add(new Transaction(Math.toIntExact(fill.getQuantity()), fill.getPrice(), totalPrice, order));
+            }
+        }
+        return transactionRepository.saveAll(transactions);
+    }
+
+    /// Fill-ovi nisu upisani: nalozi izlaze iz knjige i ostaju APPROVED, pa ih preuzima simulirano trziste ili restore
+    public void discard(List<OrderBook.Fill> fills) {
+        for (OrderBook.Fill fill : fills) {
+            remove(fill.getBuyOrderId());
+            remove(fill.getSellOrderId());
+        }
+    }
+
+    /// Poziva se kada je placanje za fill zavrseno; vraca true ako nalogom i dalje upravlja knjiga
+    public boolean settled(Long orderId, long quantity) {
+        AtomicLong pending = unsettled.get(orderId);
+        if (pending != null && pending.addAndGet(-quantity) <= 0) {
+            unsettled.remove(orderId);
+        }
+        return isBusy(orderId);
+    }
+
+    public boolean isBusy(Long orderId) {
+        return listingByOrder.containsKey(orderId) || unsettled.containsKey(orderId);
+    }
+
+    /// Skida nalog iz knjige da bi presao na simulirano trziste. Ne uspeva dok ima neobradjenih fill-ova ili dok
+    /// knjiga drzi manje od remainingPortions naloga (deo je uparen, a nalog je ucitan pre nego sto je placanje stiglo).
+    public boolean withdraw(Order order) {
+        Long listingId = listingByOrder.get(order.getId());
+        OrderBook book = listingId == null ? null : books.get(listingId);
+        if (book == null) {
+            return !unsettled.containsKey(order.getId());
+        }
+        synchronized (book) {
+            if (unsettled.containsKey(order.getId()) || book.remaining(order.getId()) < order.getRemainingPortions()) {
+                return false;
+            }
+            book.cancel(order.getId());
+            listingByOrder.remove(order.getId());
+            return true;
+        }
+    }
+
+    /// Bezuslovno uklanja nalog (otkazivanje, neuspelo placanje)
+    public void remove(Long orderId) {
+        Long listingId = listingByOrder.get(orderId);
+        OrderBook book = listingId == null ? null : books.get(listingId);
+        if (book == null) {
+            listingByOrder.remove(orderId);
+            unsettled.remove(orderId);
+            return;
+        }
+        synchronized (book) {
+            book.cancel(orderId);
+            listingByOrder.remove(orderId);
+            unsettled.remove(orderId);
+        }
+    }
+
+    public OrderBookDto getDepth(Long listingId, int levels) {
+        OrderBook book = books.get(listingId);
+        if (book == null) {
+            return new OrderBookDto(listingId, List.of(), List.of());
+        }
+        return new OrderBookDto(listingId, toDto(book.depth(OrderDirection.BUY, levels)), toDto(book.depth(OrderDirection.SELL, levels)));
+    }
+
+    /// Posle restarta vraca naloge koji su cekali u knjizi, redom kojim su kreirani. Kolicina koja je uparena
+    /// (ima transakciju) a jos nije placena ne vraca se u knjigu nego ostaje neobradjena dok ne stigne settled.
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        if (!enabled) return;
+
+        List<Order> orders = new ArrayList<>(orderRepository.findByIsDoneAndStatusAndOrderType(false, OrderStatus.APPROVED, OrderType.LIMIT));
+        orders.addAll(orderRepository.findByIsDoneAndStatusAndOrderType(false, OrderStatus.APPROVED, OrderType.STOP_LIMIT));
+        orders.removeIf(order -> !accepts(order));
+        orders.sort(Comparator.comparing(Order::getId));
+
+        Map<Long, Long> recorded = new HashMap<>();
+        if (!orders.isEmpty()) {
+            for (Object[] row : transactionRepository.sumQuantityByOrderIdIn(orders.stream().map(Order::getId).toList())) {
+                recorded.put((Long) row[0], ((Number) row[1]).longValue());
+            }
+        }
+
+        int restored = 0;
+        for (Order order : orders) {
+            // remainingPortions se smanjuje tek kada je placanje potvrdjeno
+            long settledQuantity = order.getQuantity() - order.getRemainingPortions();
+            long pending = Math.max(0, recorded.getOrDefault(order.getId(), 0L) - settledQuantity);
+            if (pending > 0) {
+                unsettled.put(order.getId(), new AtomicLong(pending));
+            }
+
+            Long listingId = order.getListing().getId();
+            OrderBook book = books.computeIfAbsent(listingId, id -> new OrderBook());
+            book.rest(order.getId(), order.getUserId(), order.getDirection(), OrderBook.toTicks(order.getPricePerUnit()),
+                    order.getRemainingPortions() - pending);
+            if (book.contains(order.getId())) {
+                listingByOrder.put(order.getId(), listingId);
+                restored++;
+            }
+        }
+        log.info("Restored {} resting orders into {} order books ({} with unsettled fills)", restored, books.size(), unsettled.size());
+    }
+
+    private static List<OrderBookLevelDto> toDto(List<OrderBook.Level> levels) {
+        return levels.stream()
+                .map(level -> new OrderBookLevelDto(level.getPrice(), level.getQuantity(), level.getOrders()))
+                .collect(Collectors.toList());
+    }
+}
@@ -2,19 +2,22 @@ package rs.raf.stock_service.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import rs.raf.stock_service.client.BankClient;
 import rs.raf.stock_service.client.UserClient;
 import rs.raf.stock_service.domain.dto.*;
 import rs.raf.stock_service.domain.entity.*;
 import rs.raf.stock_service.domain.enums.*;
+import rs.raf.stock_service.domain.event.FillDueEvent;
+import rs.raf.stock_service.domain.event.ListingPriceChangedEvent;
 import rs.raf.stock_service.domain.mapper.ListingMapper;
 import rs.raf.stock_service.domain.mapper.OrderMapper;
 import rs.raf.stock_service.exceptions.*;
-import rs.raf.stock_service.repository.ListingPriceHistoryRepository;
 import rs.raf.stock_service.repository.ListingRepository;
 import rs.raf.stock_service.repository.OrderRepository;
 import rs.raf.stock_service.repository.TransactionRepository;
@@ -25,6 +28,7 @@ import javax.persistence.EntityNotFoundException;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
 import java.util.stream.Collectors;
@@ -39,21 +43,24 @@ public class OrderService {
     private final UserClient userClient;
     private final BankClient bankClient;
     private ListingRepository listingRepository;
-    private ListingPriceHistoryRepository listingPriceHistoryRepository;
     private ListingMapper listingMapper;
     private TransactionRepository transactionRepository;
     private final PortfolioService portfolioService;
     private PortfolioEntryRepository portfolioEntryRepository;
     private final TrackedPaymentService trackedPaymentService;
+    private final OrderBookService orderBookService;
+    private final OrderTriggerService orderTriggerService;
+    private final FillScheduler fillScheduler;
+    private final LatestQuoteService latestQuoteService;
 
     public Page<OrderDto> getOrdersByStatus(OrderStatus status, Pageable pageable) {
         Page<Order> ordersPage = (status == null)
                 ? orderRepository.findAll(pageable)
                 : orderRepository.findByStatus(status, pageable);
 
+        Map<Long, ListingPriceHistory> latestQuotes = latestQuotes(ordersPage.getContent());
         return ordersPage.map(order -> {
-            ListingDto listingDto = listingMapper.toDto(order.getListing(),
-                    listingPriceHistoryRepository.findTopByListingOrderByDateDesc(order.getListing()));
+            ListingDto listingDto = listingMapper.toDto(order.getListing(), latestQuote(latestQuotes, order));
             String clientName = getClientName(order);
             return OrderMapper.toDto(order, listingDto, clientName, order.getAccountNumber());
         });
@@ -70,9 +77,9 @@ public class OrderService {
             throw new UnauthorizedException("Unauthorized attempt at getting user's orders.");
         }
 
+        Map<Long, ListingPriceHistory> latestQuotes = latestQuotes(ordersList);
         return ordersList.stream().map(order -> {
-            ListingDto listingDto = listingMapper.toDto(order.getListing(),
-                    listingPriceHistoryRepository.findTopByListingOrderByDateDesc(order.getListing()));
+            ListingDto listingDto = listingMapper.toDto(order.getListing(), latestQuote(latestQuotes, order));
             String clientName = getClientName(order);
             return OrderMapper.toDto(order, listingDto, clientName, order.getAccountNumber());
         }).toList();
@@ -81,13 +88,21 @@ public class OrderService {
     public List<OrderDto> getAllOrders() {
         List<Order> orders = orderRepository.findAllByDirectionAndStatus(OrderDirection.SELL, OrderStatus.DONE);
 
+        Map<Long, ListingPriceHistory> latestQuotes = latestQuotes(orders);
         return orders.stream().map(order -> {
-            ListingDto listingDto = listingMapper.toDto(order.getListing(),
-                    listingPriceHistoryRepository.findTopByListingOrderByDateDesc(order.getListing()));
+            ListingDto listingDto = listingMapper.toDto(order.getListing(), latestQuote(latestQuotes, order));
             return OrderMapper.toDto(order, listingDto, "", order.getAccountNumber());
         }).collect(Collectors.toList());
     }
 
+    private Map<Long, ListingPriceHistory> latestQuotes(List<Order> orders) {
+        return latestQuoteService.getAll(orders.stream().map(Order::getListing).toList());
+    }
+
+    private ListingPriceHistory latestQuote(Map<Long, ListingPriceHistory> latestQuotes, Order order) {
+        return order.getListing() != null ? latestQuotes.get(order.getListing().getId()) : null;
+    }
+
     private String getClientName(Order order) {
         try {
             ClientDto client = userClient.getClientById(order.getUserId());
@@ -122,6 +137,8 @@ public class OrderService {
         order.setStatus(OrderStatus.CANCELLED);
         order.setLastModification(LocalDateTime.now());
         orderRepository.save(order);
+        orderBookService.remove(order.getId());
+        orderTriggerService.unregister(order.getId());
     }
 
     public void approveOrder(Long id, String authHeader) {
@@ -151,6 +168,11 @@ public class OrderService {
 
         if(order.getOrderType() == OrderType.MARKET)
             executeOrder(order);
+        else {
+            orderTriggerService.register(order);
+            if (orderBookService.accepts(order))
+                matchInOrderBook(order);
+        }
     }
 
     public void declineOrder(Long id, String authHeader) {
@@ -245,10 +267,14 @@ public class OrderService {
 
             if (order.getOrderType() == OrderType.MARKET)
                 executeOrder(order);
+            else {
+                orderTriggerService.register(order);
+                if (orderBookService.accepts(order))
+                    matchInOrderBook(order);
+            }
         }
 
-        ListingDto listingDto = listingMapper.toDto(listing,
-                listingPriceHistoryRepository.findTopByListingOrderByDateDesc(listing));
+        ListingDto listingDto = listingMapper.toDto(listing, latestQuoteService.get(listing));
 
         return OrderMapper.toDto(order, listingDto, getClientName(order), order.getAccountNumber());
     }
@@ -263,6 +289,23 @@ public class OrderService {
 
 ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+    /// Uparuje nalog sa suprotnim nalozima u knjizi; svaki fill postaje po jedna transakcija za kupca i prodavca,
+    /// upisana pre nego sto se pokrene placanje
+    private void matchInOrderBook(Order order) {
+        List<OrderBook.Fill> fills = orderBookService.submit(order);
+        if (fills.isEmpty()) return;
+
+        List<Transaction> transactions;
+        try {
+            transactions = orderBookService.record(fills);
+        } catch (Exception e) {
+            log.error("Recording order book fills for order {} failed", order.getId(), e);
+            orderBookService.discard(fills);
+            return;
+        }
+        transactions.forEach(this::transferMoney);
+    }
+
     @Async
     public void executeOrder(Order order) {
         if (order.getStatus() != OrderStatus.APPROVED) return;
@@ -274,21 +317,29 @@ public class OrderService {
     }
 
     private void executeTransaction(Order order){
-        Random random = new Random();
-        long extraTime = order.getAfterHours() ? 300000L : 0L;
-        long volume = order.getListing() instanceof Stock ? Math.max(200000, ((Stock) order.getListing()).getVolume()) : 1000000;
+        if (!order.isAllOrNone() && order.getRemainingPortions() < order.getQuantity()) {
+            long extraTime = Boolean.TRUE.equals(order.getAfterHours()) ? 300000L : 0L;
+            long volume = order.getListing() instanceof Stock ? Math.max(200000, ((Stock) order.getListing()).getVolume()) : 1000000;
+            double randomTime = new Random().nextDouble(0, 1440.0 * order.getRemainingPortions() / volume) * 1000;
 
-        try {
-            if (!order.isAllOrNone() && order.getRemainingPortions() < order.getQuantity()) {
-                Double randomTime = random.nextDouble(0, 1440.0 * order.getRemainingPortions() / volume) * 1000;
-                System.out.println("Sleeping for " + randomTime);
-                Thread.sleep(randomTime.longValue() + extraTime);
-            }
-
-        } catch (InterruptedException e) {
-            e.printStackTrace();
+            fillScheduler.schedule(order.getId(), (long) randomTime + extraTime);
+            return;
         }
 
+        executeSimulatedFill(order);
+    }
+
+    /// Sledeci fill naloga posle cekanja koje je zakazao FillScheduler
+    @EventListener
+    public void onFillDue(FillDueEvent event) {
+        Order order = orderRepository.findById(event.getOrderId()).orElse(null);
+        if (order == null || order.getIsDone() || order.getStatus() != OrderStatus.PROCESSING) return;
+
+        executeSimulatedFill(order);
+    }
+
+    private void executeSimulatedFill(Order order){
+        Random random = new Random();
         int batchSize = order.isAllOrNone() ? order.getRemainingPortions()
                 : random.nextInt(1, Math.min(Math.max(order.getQuantity() / 10, 2), order.getRemainingPortions() + 1));
 
@@ -359,11 +410,23 @@ public class OrderService {
 
         portfolioService.updateHoldingsOnOrderExecution(transaction);
 
+        // nalog koji je jos u knjizi ceka sledece uparivanje, ne ide na simulirano trziste
+        boolean inOrderBook = orderBookService.settled(order.getId(), transaction.getQuantity());
+
         if(order.getRemainingPortions() == 0)
             finaliseExecution(order);
         else {
             orderRepository.save(order);
-            executeTransaction(order);
+            if (inOrderBook) return;
+
+            if (order.getStatus() == OrderStatus.PROCESSING)
+                executeTransaction(order);
+            else {
+                // ostatak koji nije ostao u knjizi (self-trade) je i dalje APPROVED limit nalog i ceka svoj prag
+                log.info("Order {} left the order book with {} remaining, back to limit checks", order.getId(), order.getRemainingPortions());
+                checkLimitOrder(order);
+                orderTriggerService.register(order);
+            }
         }
     }
 
@@ -376,6 +439,7 @@ public class OrderService {
 
         transaction.getOrder().getTransactions().remove(transaction);
         transactionRepository.delete(transaction);
+        orderBookService.remove(transaction.getOrder().getId());
 
         finaliseExecution(transaction.getOrder());
     }
@@ -474,6 +538,27 @@ public class OrderService {
 
 ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+    /// Proverava samo naloge ciji je prag nova cena presla; nalog koji se ne izvrsi vraca se u indeks sa
+    /// pragom za svoju sledecu fazu (STOP_LIMIT posle stop-a prelazi na limit)
+    @EventListener
+    public void onListingPriceChanged(ListingPriceChangedEvent event) {
+        for (Long orderId : orderTriggerService.fire(event.getListingId(), event.getPrice(), event.getAsk())) {
+            Order order = orderRepository.findById(orderId).orElse(null);
+            if (order == null || order.getIsDone() || order.getStatus() != OrderStatus.APPROVED) continue;
+
+            if (order.getOrderType() == OrderType.LIMIT || order.isStopFulfilled())
+                checkLimitOrder(order);
+            else
+                checkStopOrder(order);
+
+            orderTriggerService.register(order);
+        }
+    }
+
+    /// Puna provera svih otvorenih stop i limit naloga, retko, za promene cene koje TriggerBook nije video
+    /// (npr. cena upisana mimo DataRefreshService/updateListing). Nalozi koji ostaju otvoreni se ponovo naoruzavaju.
+    @Scheduled(initialDelayString = "${orders.reconcile.interval-ms:3600000}",
+            fixedDelayString = "${orders.reconcile.interval-ms:3600000}")
     public void checkOrders() {
         checkStopOrders();
         checkStopLimitOrders();
@@ -485,6 +570,7 @@ public class OrderService {
 
         for (Order order : orders) {
             checkStopOrder(order);
+            orderTriggerService.register(order);
         }
     }
 
@@ -497,6 +583,7 @@ public class OrderService {
             } else {
                checkLimitOrder(order);
             }
+            orderTriggerService.register(order);
         }
     }
 
@@ -505,6 +592,7 @@ public class OrderService {
 
         for (Order order : orders) {
            checkLimitOrder(order);
+           orderTriggerService.register(order);
         }
     }
 
@@ -523,8 +611,11 @@ public class OrderService {
             order.setStopFulfilled(true);
             if (order.getOrderType() == OrderType.STOP)
                 executeOrder(order);
-            else
+            else {
                 orderRepository.save(order);
+                if (orderBookService.accepts(order))
+                    matchInOrderBook(order);
+            }
         }
     }
 
@@ -532,16 +623,21 @@ public class OrderService {
         if (order.getDirection() == OrderDirection.BUY){
             BigDecimal askPrice = order.getListing().getAsk() == null ? order.getListing().getPrice() : order.getListing().getAsk();
 
-            if(askPrice.compareTo(order.getPricePerUnit()) <= 0) {
+            if(askPrice.compareTo(order.getPricePerUnit()) <= 0 && leaveOrderBook(order)) {
                 order.setPricePerUnit(order.getPricePerUnit().min(askPrice));
                 executeOrder(order);
             }
-        } else if (order.getListing().getPrice().compareTo(order.getPricePerUnit()) >= 0) {
+        } else if (order.getListing().getPrice().compareTo(order.getPricePerUnit()) >= 0 && leaveOrderBook(order)) {
             order.setPricePerUnit(order.getPricePerUnit().max(order.getListing().getPrice()));
             executeOrder(order);
         }
     }
 
+    /// Trzisna cena je presla limit, nalog prelazi iz knjige na simulirano trziste (ako nema fill-ova u obradi)
+    private boolean leaveOrderBook(Order order) {
+        return orderBookService.withdraw(order);
+    }
+
     public BigDecimal getCommissionProfit() {
         return bankClient.convert(
                 new ConvertDto("USD", "RSD", orderRepository.getBankProfitFromOrders())
@@ -0,0 +1,100 @@
+package rs.raf.stock_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import rs.raf.stock_service.domain.entity.Order;
+import rs.raf.stock_service.domain.enums.OrderStatus;
+import rs.raf.stock_service.domain.enums.OrderType;
+import rs.raf.stock_service.repository.OrderRepository;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/// TriggerBook po listingu za odobrene STOP, STOP_LIMIT i LIMIT naloge. Na startu se indeks puni iz baze,
+/// a posle toga ga OrderService odrzava pri kreiranju, odobravanju, otkazivanju i aktiviranju naloga.
+@Slf4j
+@Service
+public class OrderTriggerService {
+
+    private final OrderRepository orderRepository;
+
+    private final Map<Long, TriggerBook> books = new ConcurrentHashMap<>();
+    private final Map<Long, Long> listingByOrder = new ConcurrentHashMap<>();
+    private final Counter firedCounter;
+
+    public OrderTriggerService(OrderRepository orderRepository, MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.firedCounter = meterRegistry.counter("order.trigger.fired");
+        Gauge.builder("order.trigger.armed", listingByOrder, Map::size).register(meterRegistry);
+    }
+
+    /// Postavlja prag naloga prema njegovoj trenutnoj fazi; nalozi bez praga se samo uklanjaju iz indeksa
+    public void register(Order order) {
+        unregister(order.getId());
+        if (order.getStatus() != OrderStatus.APPROVED || Boolean.TRUE.equals(order.getIsDone())) {
+            return;
+        }
+
+        TriggerBook.Kind kind;
+        BigDecimal threshold;
+        if (order.getOrderType() == OrderType.STOP
+                || (order.getOrderType() == OrderType.STOP_LIMIT && !order.isStopFulfilled())) {
+            kind = TriggerBook.Kind.STOP;
+            threshold = order.getStopPrice();
+        } else if (order.getOrderType() == OrderType.LIMIT || order.getOrderType() == OrderType.STOP_LIMIT) {
+            kind = TriggerBook.Kind.LIMIT;
+            threshold = order.getPricePerUnit();
+        } else {
+            return;
+        }
+        if (threshold == null) {
+            return;
+        }
+
+        Long listingId = order.getListing().getId();
+        books.computeIfAbsent(listingId, id -> new TriggerBook())
+                .arm(order.getId(), order.getDirection(), kind, OrderBook.toTicks(threshold));
+        listingByOrder.put(order.getId(), listingId);
+    }
+
+    public void unregister(Long orderId) {
+        Long listingId = listingByOrder.remove(orderId);
+        if (listingId != null) {
+            TriggerBook book = books.get(listingId);
+            if (book != null) {
+                book.disarm(orderId);
+            }
+        }
+    }
+
+    /// Vraca naloge ciji su pragovi preseceni novom cenom; oni vise nisu u indeksu dok ih OrderService ne vrati
+    public List<Long> fire(Long listingId, BigDecimal price, BigDecimal ask) {
+        TriggerBook book = books.get(listingId);
+        if (book == null || price == null) {
+            return Collections.emptyList();
+        }
+        long priceTicks = OrderBook.toTicks(price);
+        long askTicks = ask == null ? priceTicks : OrderBook.toTicks(ask);
+
+        List<Long> fired = book.fire(priceTicks, askTicks);
+        fired.forEach(listingByOrder::remove);
+        firedCounter.increment(fired.size());
+        return fired;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        for (OrderType type : List.of(OrderType.STOP, OrderType.STOP_LIMIT, OrderType.LIMIT)) {
+            orderRepository.findByIsDoneAndStatusAndOrderType(false, OrderStatus.APPROVED, type).forEach(this::register);
+        }
+        log.info("Armed {} stop/limit triggers on {} listings", listingByOrder.size(), books.size());
+    }
+}
@@ -47,6 +47,7 @@ public class PortfolioService {
     private final BankClient bankClient;
     private final JwtTokenUtil jwtTokenUtil;
 
+    @Transactional(readOnly = true)
     public List<PortfolioEntryDto> getPortfolioForUser(Long userId) {
         return portfolioEntryRepository.findAllByUserId(userId).stream()
                 .map(entry -> {
@@ -89,6 +90,7 @@ public class PortfolioService {
         portfolioEntryRepository.save(entry);
     }
 
+    @Transactional(readOnly = true)
     public List<PublicStockDto> getAllPublicStocks(Long userId, String role) {
         if (!role.equals("CLIENT")) {
             return Collections.emptyList();
@@ -0,0 +1,141 @@
+package rs.raf.stock_service.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import rs.raf.stock_service.domain.dto.TimeSeriesDto;
+import rs.raf.stock_service.domain.entity.Listing;
+import rs.raf.stock_service.domain.entity.ListingPriceHistory;
+import rs.raf.stock_service.repository.ListingPriceHistoryRepository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/// Upis 5min svecica u listing_price_history preko high-water mark-a po listingu. Watermark je najnoviji upisan datum
+/// (prvi put max(date) iz baze, jedan lookup po indeksu), svece koje nisu novije od njega se odbacuju, a ostale idu
+/// jednim INSERT ... ON CONFLICT DO NOTHING. Cena osvezavanja zato ne zavisi od duzine istorije listinga.
+/// Upisane svece se odmah spajaju u rollup-ove (PriceRollupService) i pomeraju snapshot poslednje svece (LatestQuoteService),
+/// sve u istoj transakciji: svece odbijene na konfliktu se ne vracaju iz RETURNING, pa upis bez rollup-a ne bi mogao da se ponovi.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PriceHistoryIngestService {
+
+    private static final int MAX_ROWS_PER_STATEMENT = 1000;
+    private static final String INSERT_PREFIX =
+            "INSERT INTO listing_price_history (listing_id, date, open, high, low, close, change, volume) VALUES ";
+    private static final String INSERT_ROW = "(?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_SUFFIX =
+            " ON CONFLICT (listing_id, date) DO NOTHING RETURNING date, open, high, low, close, change, volume";
+    private static final int[] ROW_TYPES = {Types.BIGINT, Types.TIMESTAMP, Types.NUMERIC, Types.NUMERIC,
+            Types.NUMERIC, Types.NUMERIC, Types.NUMERIC, Types.BIGINT};
+
+    private static final RowMapper<ListingPriceHistory> INSERTED_ROW = (rs, rowNum) -> ListingPriceHistory.builder()
+            .date(rs.getTimestamp("date").toLocalDateTime())
+            .open(rs.getBigDecimal("open"))
+            .high(rs.getBigDecimal("high"))
+            .low(rs.getBigDecimal("low"))
+            .close(rs.getBigDecimal("close"))
+            .change(rs.getBigDecimal("change"))
+            .volume(rs.getObject("volume", Long.class))
+            .build();
+
+    private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ListingPriceHistoryRepository priceHistoryRepository;
+    private final PriceRollupService priceRollupService;
+    private final LatestQuoteService latestQuoteService;
+
+    private final Map<Long, LocalDateTime> watermarks = new ConcurrentHashMap<>();
+
+    /// Upisuje svece novije od watermark-a listinga i vraca broj stvarno dodatih redova
+    @Transactional
+    public int ingest(Listing listing, TimeSeriesDto series) {
+        if (series == null || series.getValues() == null || series.getValues().isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime watermark = getWatermark(listing.getId());
+        LocalDateTime newest = watermark;
+        List<Object> rows = new ArrayList<>();
+        for (TimeSeriesDto.TimeSeriesValueDto value : series.getValues()) {
+            LocalDateTime date = LocalDateTime.parse(value.getDatetime(), formatter);
+            if (watermark != null && !date.isAfter(watermark)) continue;
+
+            rows.add(listing.getId());
+            rows.add(Timestamp.valueOf(date));
+            rows.add(value.getOpen());
+            rows.add(value.getHigh());
+            rows.add(value.getLow());
+            rows.add(value.getClose());
+            rows.add(value.getClose().subtract(value.getOpen()));
+            rows.add(value.getVolume());
+            if (newest == null || date.isAfter(newest)) newest = date;
+        }
+
+        List<ListingPriceHistory> inserted = new ArrayList<>();
+        int chunkSize = MAX_ROWS_PER_STATEMENT * ROW_TYPES.length;
+        for (int from = 0; from < rows.size(); from += chunkSize) {
+            List<Object> chunk = rows.subList(from, Math.min(from + chunkSize, rows.size()));
+            int rowCount = chunk.size() / ROW_TYPES.length;
+            inserted.addAll(jdbcTemplate.query(insertSql(rowCount), chunk.toArray(), argTypes(rowCount), INSERTED_ROW));
+        }
+        // u rollup ulaze samo svece koje su zaista upisane, duplikat odbijen na konfliktu bi duplirao volume
+        priceRollupService.apply(listing.getId(), inserted);
+        latestQuoteService.update(listing.getId(), inserted);
+
+        if (newest != null) {
+            advanceWatermark(listing.getId(), newest);
+        }
+        return inserted.size();
+    }
+
+    public LocalDateTime getWatermark(Long listingId) {
+        return watermarks.computeIfAbsent(listingId, priceHistoryRepository::findMaxDateByListingId);
+    }
+
+    /// Watermark se pomera tek posle commit-a, inace bi svece iz vracene transakcije bile preskocene
+    private void advanceWatermark(Long listingId, LocalDateTime newest) {
+        Runnable advance = () -> watermarks.merge(listingId, newest, (current, candidate) -> candidate.isAfter(current) ? candidate : current);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            advance.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                advance.run();
+            }
+        });
+    }
+
+    private static int[] argTypes(int rowCount) {
+        int[] types = new int[rowCount * ROW_TYPES.length];
+        for (int i = 0; i < rowCount; i++) {
+            System.arraycopy(ROW_TYPES, 0, types, i * ROW_TYPES.length, ROW_TYPES.length);
+        }
+        return types;
+    }
+
+    private static String insertSql(int rowCount) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rowCount * (INSERT_ROW.length() + 2) + INSERT_SUFFIX.length());
+        sql.append(INSERT_PREFIX);
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) sql.append(", ");
+            sql.append(INSERT_ROW);
+        }
+        return sql.append(INSERT_SUFFIX).toString();
+    }
+}
@@ -0,0 +1,135 @@
+package rs.raf.stock_service.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import rs.raf.stock_service.domain.entity.ListingPriceHistory;
+import rs.raf.stock_service.domain.enums.PriceResolution;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/// Odrzava satne, dnevne i nedeljne OHLCV rollup-ove u listing_price_rollup. Svece koje PriceHistoryIngestService
+/// stvarno upise se spajaju u postojece intervale jednim upsert-om po intervalu (high/low se prosiruju, volume sabira,
+/// open i close se uzimaju od najranije i najkasnije svece), pa se nista ne racuna ponovo iz sirove istorije. Sirove 5min svece
+/// starije od price.history.raw.retention-days se brisu, grafikoni za duze periode idu preko rollup-ova.
+/// Sirova tabela nije particionisana po datumu: listing_price_history pravi Hibernate (create-drop) pri svakom startu,
+/// a Flyway migracija se izvrsava samo jednom, pa particionisana tabela ne bi prezivela restart. Brisanje ide preko
+/// indeksa po date (V2) i za 30 dana 5min sveca je jedan kratak DELETE nocu.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PriceRollupService {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO listing_price_rollup (listing_id, resolution, bucket_start, open, high, low, close, volume, first_at, last_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (listing_id, resolution, bucket_start) DO UPDATE SET " +
+            "open = CASE WHEN EXCLUDED.first_at < listing_price_rollup.first_at THEN EXCLUDED.open ELSE listing_price_rollup.open END, " +
+            "close = CASE WHEN EXCLUDED.last_at > listing_price_rollup.last_at THEN EXCLUDED.close ELSE listing_price_rollup.close END, " +
+            "high = GREATEST(listing_price_rollup.high, EXCLUDED.high), " +
+            "low = LEAST(listing_price_rollup.low, EXCLUDED.low), " +
+            "volume = COALESCE(listing_price_rollup.volume, 0) + COALESCE(EXCLUDED.volume, 0), " +
+            "first_at = LEAST(listing_price_rollup.first_at, EXCLUDED.first_at), " +
+            "last_at = GREATEST(listing_price_rollup.last_at, EXCLUDED.last_at)";
+
+    private static final int[] UPSERT_TYPES = {Types.BIGINT, Types.VARCHAR, Types.TIMESTAMP, Types.NUMERIC, Types.NUMERIC,
+            Types.NUMERIC, Types.NUMERIC, Types.BIGINT, Types.TIMESTAMP, Types.TIMESTAMP};
+
+    /// Listinzi koji nemaju nijedan rollup (npr. istorija iz BootstrapData) se racunaju iz sirovih sveca jednim upitom
+    private static final String BACKFILL_SQL =
+            "INSERT INTO listing_price_rollup (listing_id, resolution, bucket_start, open, high, low, close, volume, first_at, last_at) " +
+            "SELECT h.listing_id, ?, date_trunc('%1$s', h.date), " +
+            "(array_agg(h.open ORDER BY h.date))[1], MAX(h.high), MIN(h.low), (array_agg(h.close ORDER BY h.date DESC))[1], " +
+            "SUM(h.volume), MIN(h.date), MAX(h.date) " +
+            "FROM listing_price_history h " +
+            "WHERE NOT EXISTS (SELECT 1 FROM listing_price_rollup r WHERE r.listing_id = h.listing_id AND r.resolution = ?) " +
+            "GROUP BY h.listing_id, date_trunc('%1$s', h.date) " +
+            "ON CONFLICT (listing_id, resolution, bucket_start) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${price.history.raw.retention-days:30}")
+    private int rawRetentionDays;
+
+    /// Spaja nove 5min svece listinga u rollup-ove svih rezolucija
+    public void apply(Long listingId, List<ListingPriceHistory> candles) {
+        if (candles.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>();
+        for (PriceResolution resolution : PriceResolution.values()) {
+            if (!resolution.isRollup()) continue;
+            for (Bucket bucket : aggregate(resolution, candles)) {
+                batch.add(new Object[]{listingId, resolution.name(), Timestamp.valueOf(bucket.start),
+                        bucket.open, bucket.high, bucket.low, bucket.close, bucket.volume,
+                        Timestamp.valueOf(bucket.firstAt), Timestamp.valueOf(bucket.lastAt)});
+            }
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, batch, UPSERT_TYPES);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        for (PriceResolution resolution : PriceResolution.values()) {
+            if (!resolution.isRollup()) continue;
+            int buckets = jdbcTemplate.update(String.format(BACKFILL_SQL, resolution.getTruncUnit()), resolution.name(), resolution.name());
+            if (buckets > 0) {
+                log.info("Backfilled {} {} price rollups", buckets, resolution);
+            }
+        }
+    }
+
+    @Scheduled(cron = "${price.history.raw.prune-cron:0 30 3 * * *}")
+    public void pruneRawCandles() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(rawRetentionDays);
+        int deleted = jdbcTemplate.update("DELETE FROM listing_price_history WHERE date < ?", Timestamp.valueOf(cutoff));
+        log.info("Pruned {} raw price candles older than {}", deleted, cutoff);
+    }
+
+    private static List<Bucket> aggregate(PriceResolution resolution, List<ListingPriceHistory> candles) {
+        Map<LocalDateTime, Bucket> buckets = new TreeMap<>();
+        for (ListingPriceHistory candle : candles) {
+            buckets.computeIfAbsent(resolution.bucketStart(candle.getDate()), Bucket::new).add(candle);
+        }
+        return new ArrayList<>(buckets.values());
+    }
+
+    private static class Bucket {
+        private final LocalDateTime start;
+        private BigDecimal open;
+        private BigDecimal high;
+        private BigDecimal low;
+        private BigDecimal close;
+        private long volume;
+        private LocalDateTime firstAt;
+        private LocalDateTime lastAt;
+
+        private Bucket(LocalDateTime start) {
+            this.start = start;
+        }
+
+        private void add(ListingPriceHistory candle) {
+            if (firstAt == null || candle.getDate().isBefore(firstAt)) {
+                firstAt = candle.getDate();
+                open = candle.getOpen();
+            }
+            if (lastAt == null || candle.getDate().isAfter(lastAt)) {
+                lastAt = candle.getDate();
+                close = candle.getClose();
+            }
+            high = high == null || candle.getHigh().compareTo(high) > 0 ? candle.getHigh() : high;
+            low = low == null || candle.getLow().compareTo(low) < 0 ? candle.getLow() : low;
+            volume += candle.getVolume() != null ? candle.getVolume() : 0;
+        }
+    }
+}
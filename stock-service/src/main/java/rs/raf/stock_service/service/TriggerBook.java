@@ -0,0 +1,81 @@
+package rs.raf.stock_service.service;
+
+import rs.raf.stock_service.domain.enums.OrderDirection;
+
+import java.util.*;
+
+/// Pragovi stop i limit naloga jednog listinga, sortirani po ceni u tick-ovima (OrderBook.toTicks).
+/// Na promenu cene skida se samo opseg koji je cena presla, pa je cena O(log n + aktiviranih) umesto
+/// provere svih otvorenih naloga. Uslovi su isti kao u OrderService.checkStopOrder / checkLimitOrder:
+/// BUY stop kada ask > stop, SELL stop kada price < stop, BUY limit kada ask <= limit, SELL limit kada price >= limit.
+public class TriggerBook {
+
+    public enum Kind { STOP, LIMIT }
+
+    private final NavigableMap<Long, Set<Long>> buyStops = new TreeMap<>();
+    private final NavigableMap<Long, Set<Long>> sellStops = new TreeMap<>();
+    private final NavigableMap<Long, Set<Long>> buyLimits = new TreeMap<>();
+    private final NavigableMap<Long, Set<Long>> sellLimits = new TreeMap<>();
+    private final Map<Long, Armed> armed = new HashMap<>();
+
+    private static class Armed {
+        private final NavigableMap<Long, Set<Long>> index;
+        private final long thresholdTicks;
+
+        private Armed(NavigableMap<Long, Set<Long>> index, long thresholdTicks) {
+            this.index = index;
+            this.thresholdTicks = thresholdTicks;
+        }
+    }
+
+    /// Postavlja (ili pomera) prag naloga
+    public synchronized void arm(long orderId, OrderDirection direction, Kind kind, long thresholdTicks) {
+        disarm(orderId);
+        NavigableMap<Long, Set<Long>> index = kind == Kind.STOP
+                ? (direction == OrderDirection.BUY ? buyStops : sellStops)
+                : (direction == OrderDirection.BUY ? buyLimits : sellLimits);
+        index.computeIfAbsent(thresholdTicks, t -> new LinkedHashSet<>()).add(orderId);
+        armed.put(orderId, new Armed(index, thresholdTicks));
+    }
+
+    public synchronized void disarm(long orderId) {
+        Armed previous = armed.remove(orderId);
+        if (previous == null) {
+            return;
+        }
+        Set<Long> orders = previous.index.get(previous.thresholdTicks);
+        if (orders != null) {
+            orders.remove(orderId);
+            if (orders.isEmpty()) {
+                previous.index.remove(previous.thresholdTicks);
+            }
+        }
+    }
+
+    /// Skida i vraca naloge cije je uslove presla nova cena
+    public synchronized List<Long> fire(long priceTicks, long askTicks) {
+        List<Long> fired = new ArrayList<>();
+        pop(buyStops.headMap(askTicks, false), fired);
+        pop(sellStops.tailMap(priceTicks, false), fired);
+        pop(buyLimits.tailMap(askTicks, true), fired);
+        pop(sellLimits.headMap(priceTicks, true), fired);
+        return fired;
+    }
+
+    public synchronized int size() {
+        return armed.size();
+    }
+
+    private void pop(NavigableMap<Long, Set<Long>> crossed, List<Long> fired) {
+        if (crossed.isEmpty()) {
+            return;
+        }
+        for (Set<Long> orders : crossed.values()) {
+            for (Long orderId : orders) {
+                armed.remove(orderId);
+                fired.add(orderId);
+            }
+        }
+        crossed.clear();
+    }
+}
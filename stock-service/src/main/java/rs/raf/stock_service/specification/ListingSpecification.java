@@ -6,7 +6,6 @@ import rs.raf.stock_service.domain.entity.*;
 
 import javax.persistence.criteria.*;
 import java.math.BigDecimal;
-import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -16,18 +15,8 @@ public class ListingSpecification {
         return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
-            // Pridružujemo ListingDailyPriceInfo koristeći podupit da nađemo najnoviji zapis
-            Subquery<LocalDate> subquery = query.subquery(LocalDate.class);
-            Root<ListingPriceHistory> subRoot = subquery.from(ListingPriceHistory.class);
-            subquery.select(cb.greatest(subRoot.<LocalDate>get("date")));
-            subquery.where(cb.equal(subRoot.get("listing"), root));
-
-            // Join sa ListingDailyPriceInfo
-            Join<Listing, ListingPriceHistory> dailyInfoJoin = root.join("listingPriceHistories", JoinType.LEFT);
-            predicates.add(cb.or(
-                    cb.isNull(dailyInfoJoin.get("date")),
-                    cb.equal(dailyInfoJoin.get("date"), subquery)
-            ));
+            // Poslednja sveca je denormalizovana u listing (quote_* kolone), bez join-a i podupita po redu
+            Path<LatestQuote> latestQuote = root.get("latestQuote");
 
             // Ograničenje prikaza po roli
             if ("CLIENT".equalsIgnoreCase(role)) {
@@ -71,18 +60,18 @@ public class ListingSpecification {
 
             // Filtriranje po Low (Bid)
             if (filter.getMinBid() != null) {
-                predicates.add(cb.greaterThanOrEqualTo(dailyInfoJoin.get("low"), filter.getMinBid()));
+                predicates.add(cb.greaterThanOrEqualTo(latestQuote.get("low"), filter.getMinBid()));
             }
             if (filter.getMaxBid() != null) {
-                predicates.add(cb.lessThanOrEqualTo(dailyInfoJoin.get("low"), filter.getMaxBid()));
+                predicates.add(cb.lessThanOrEqualTo(latestQuote.get("low"), filter.getMaxBid()));
             }
 
             // Filtriranje po Volume
             if (filter.getMinVolume() != null) {
-                predicates.add(cb.greaterThanOrEqualTo(dailyInfoJoin.get("volume"), filter.getMinVolume()));
+                predicates.add(cb.greaterThanOrEqualTo(latestQuote.get("volume"), filter.getMinVolume()));
             }
             if (filter.getMaxVolume() != null) {
-                predicates.add(cb.lessThanOrEqualTo(dailyInfoJoin.get("volume"), filter.getMaxVolume()));
+                predicates.add(cb.lessThanOrEqualTo(latestQuote.get("volume"), filter.getMaxVolume()));
             }
 
             // Filtriranje po Maintenance Margin (price * 0.1)
@@ -105,11 +94,11 @@ public class ListingSpecification {
             if (filter.getSortBy() != null && !filter.getSortBy().isEmpty()) {
                 Expression<?> sortExpression;
                 if ("volume".equalsIgnoreCase(filter.getSortBy())) {
-                    sortExpression = dailyInfoJoin.get("volume");
+                    sortExpression = latestQuote.get("volume");
                 } else if ("maintenanceMargin".equalsIgnoreCase(filter.getSortBy())) {
                     sortExpression = maintenanceMarginExp;
                 } else if ("low".equalsIgnoreCase(filter.getSortBy())) {
-                    sortExpression = dailyInfoJoin.get("low");
+                    sortExpression = latestQuote.get("low");
                 } else {
                     sortExpression = root.get(filter.getSortBy());
                 }
@@ -0,0 +1,14 @@
+-- Indeksi za kolone po kojima filtriraju repository metode i specifikacije (vidi load/QueryPlanTest).
+-- Iste definicije su i u @Table(indexes) entiteta, pa IF NOT EXISTS preskace one koje je vec napravio Hibernate.
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_price_history_listing_date ON listing_price_history (listing_id, date);
+
+CREATE INDEX IF NOT EXISTS idx_orders_done_status_type ON orders (is_done, status, order_type);
+CREATE INDEX IF NOT EXISTS idx_orders_status ON orders (status);
+CREATE INDEX IF NOT EXISTS idx_orders_user_id ON orders (user_id);
+
+CREATE INDEX IF NOT EXISTS idx_portfolio_entry_user_listing ON portfolio_entry (user_id, listing_id);
+
+CREATE INDEX IF NOT EXISTS idx_listing_ticker ON listing (ticker);
+
+CREATE INDEX IF NOT EXISTS idx_transaction_order_id ON transaction (order_id);
@@ -0,0 +1,5 @@
+CREATE UNIQUE INDEX IF NOT EXISTS idx_scheduled_fill_order ON scheduled_fill (order_id);
+
+CREATE INDEX IF NOT EXISTS idx_price_history_date ON listing_price_history (date);
+CREATE UNIQUE INDEX IF NOT EXISTS idx_price_rollup_listing_resolution_bucket
+    ON listing_price_rollup (listing_id, resolution, bucket_start);
@@ -0,0 +1,5 @@
+-- Filteri sa liste listinga koji idu na SQL (price, ask, bid = quote_low, volume = quote_volume)
+CREATE INDEX IF NOT EXISTS idx_listing_price ON listing (price);
+CREATE INDEX IF NOT EXISTS idx_listing_ask ON listing (ask);
+CREATE INDEX IF NOT EXISTS idx_listing_quote_low ON listing (quote_low);
+CREATE INDEX IF NOT EXISTS idx_listing_quote_volume ON listing (quote_volume);
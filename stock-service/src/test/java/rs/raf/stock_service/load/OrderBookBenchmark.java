@@ -0,0 +1,82 @@
+package rs.raf.stock_service.load;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import rs.raf.stock_service.domain.enums.OrderDirection;
+import rs.raf.stock_service.service.OrderBook;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/// JMH merenje OrderBook-a: naizmenicni BUY/SELL nalozi oko srednje cene, pa otprilike polovina odmah uparuje,
+/// a ostatak ostaje u knjizi. Rezultat je broj submit poziva u sekundi.
+/// Pokretanje: mvn test -Dload.enabled=true -Dtest=OrderBookBenchmark
+@EnabledIfSystemProperty(named = "load.enabled", matches = "true")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderBookBenchmark {
+
+    private static final long MID = OrderBook.toTicks(BigDecimal.valueOf(150));
+    private static final long TICK = OrderBook.toTicks(new BigDecimal("0.01"));
+
+    @Param({"50", "500"})
+    public int priceLevels;
+
+    private OrderBook book;
+    private SplittableRandom random;
+    private long nextOrderId;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        book = new OrderBook();
+        random = new SplittableRandom(42);
+        nextOrderId = 1;
+        // pocetna dubina sa obe strane, svaki nalog ima svog vlasnika pa nema self-trade prekida
+        for (int i = 1; i <= priceLevels; i++) {
+            long buyId = nextOrderId++;
+            long sellId = nextOrderId++;
+            book.rest(buyId, buyId, OrderDirection.BUY, MID - i * TICK, 100);
+            book.rest(sellId, sellId, OrderDirection.SELL, MID + i * TICK, 100);
+        }
+    }
+
+    @Benchmark
+    public void submit(Blackhole blackhole) {
+        OrderDirection direction = random.nextBoolean() ? OrderDirection.BUY : OrderDirection.SELL;
+        long offset = random.nextInt(-priceLevels, priceLevels + 1) * TICK;
+        long orderId = nextOrderId++;
+        blackhole.consume(book.submit(orderId, orderId, direction, MID + offset, 1 + random.nextInt(200)));
+        // knjiga ne sme beskonacno da raste tokom iteracije
+        if (book.size() > priceLevels * 20) {
+            book.cancel(nextOrderId - priceLevels * 10L);
+        }
+    }
+
+    @Test
+    public void runBenchmark() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(OrderBookBenchmark.class.getSimpleName())
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        assertFalse(results.isEmpty());
+        for (RunResult result : results) {
+            System.out.printf("OrderBook submit, %s levels: %.0f ops/s%n",
+                    result.getParams().getParam("priceLevels"), result.getPrimaryResult().getScore());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package rs.raf.stock_service.load;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import rs.raf.stock_service.bootstrap.BootstrapData;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/// EXPLAIN regresija za najcesce upite stock-service-a. Potrebna je samo baza (stock_db iz docker-compose),
+/// BootstrapData se ne pokrece. Pokretanje: mvn test -Dload.enabled=true -Dtest=QueryPlanTest
+@EnabledIfSystemProperty(named = "load.enabled", matches = "true")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+public class QueryPlanTest {
+
+    @MockBean
+    private BootstrapData bootstrapData;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void latestPriceForListing_usesListingDateIndex() {
+        assertUsesIndex("SELECT * FROM listing_price_history WHERE listing_id = 1 ORDER BY date DESC LIMIT 1",
+                "idx_price_history_listing_date");
+    }
+
+    @Test
+    public void ordersToExecute_useDoneStatusTypeIndex() {
+        assertUsesIndex("SELECT * FROM orders WHERE is_done = false AND status = 'APPROVED' AND order_type = 'MARKET'",
+                "idx_orders_done_status_type");
+    }
+
+    @Test
+    public void ordersByStatus_useStatusIndex() {
+        assertUsesIndex("SELECT * FROM orders WHERE status = 'PENDING' ORDER BY id LIMIT 20", "idx_orders_status");
+    }
+
+    @Test
+    public void portfolioEntryForUserAndListing_usesUserListingIndex() {
+        assertUsesIndex("SELECT * FROM portfolio_entry WHERE user_id = 1 AND listing_id = 1", "idx_portfolio_entry_user_listing");
+    }
+
+    @Test
+    public void listingByTicker_usesTickerIndex() {
+        assertUsesIndex("SELECT * FROM listing WHERE ticker = 'AAPL'", "idx_listing_ticker");
+    }
+
+    @Test
+    public void listingsByBid_useDenormalizedQuoteIndex() {
+        assertUsesIndex("SELECT * FROM listing WHERE quote_low >= 100 AND quote_low <= 120", "idx_listing_quote_low");
+    }
+
+    @Test
+    public void listingsByVolume_useDenormalizedQuoteIndex() {
+        assertUsesIndex("SELECT * FROM listing WHERE quote_volume >= 1000000", "idx_listing_quote_volume");
+    }
+
+    private void assertUsesIndex(String sql, String index) {
+        String plan = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            StringBuilder lines = new StringBuilder();
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+                try (ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+                    while (rs.next()) {
+                        lines.append(rs.getString(1)).append('\n');
+                    }
+                } finally {
+                    statement.execute("RESET enable_seqscan");
+                }
+            }
+            return lines.toString();
+        });
+        assertTrue(plan.contains(index), "Expected " + index + " in plan:\n" + plan);
+    }
+}
@@ -0,0 +1,144 @@
+package rs.raf.stock_service.unit;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import rs.raf.stock_service.client.CoalescingFeignClient;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoalescingFeignClientTest {
+
+    private static final String USD_ACCOUNT_URL = "http://localhost:8082/api/account/company/4/usd-account-number";
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static Request request(Request.HttpMethod method, String url, String token) {
+        Map<String, Collection<String>> headers = Map.of("Authorization", List.of("Bearer " + token));
+        return Request.create(method, url, headers, null, StandardCharsets.UTF_8, null);
+    }
+
+    private static Response ok(Request request, String body) {
+        return Response.builder().status(200).request(request).headers(Map.of())
+                .body(body, StandardCharsets.UTF_8).build();
+    }
+
+    /// Delegat koji broji pozive i drzi ih otvorenim dok test ne pusti latch
+    private static Client blockingDelegate(AtomicInteger calls, CountDownLatch release) {
+        return (request, options) -> {
+            calls.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ok(request, "111000100000000400");
+        };
+    }
+
+    @Test
+    void execute_identicalConcurrentGets_sendOneRemoteCall() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CoalescingFeignClient client = new CoalescingFeignClient(blockingDelegate(calls, release), Map.of(), 32, 500);
+
+        List<Future<Response>> responses = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            responses.add(executor.submit(() -> client.execute(request(Request.HttpMethod.GET, USD_ACCOUNT_URL, "admin"), new Request.Options())));
+        }
+        Thread.sleep(200);
+        release.countDown();
+
+        for (Future<Response> response : responses) {
+            assertEquals("111000100000000400", Util.toString(response.get(5, TimeUnit.SECONDS).body().asReader(StandardCharsets.UTF_8)));
+        }
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_differentTokens_notCoalesced() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CoalescingFeignClient client = new CoalescingFeignClient(blockingDelegate(calls, release), Map.of(), 32, 500);
+
+        Future<Response> first = executor.submit(() -> client.execute(request(Request.HttpMethod.GET, USD_ACCOUNT_URL, "admin"), new Request.Options()));
+        Future<Response> second = executor.submit(() -> client.execute(request(Request.HttpMethod.GET, USD_ACCOUNT_URL, "client"), new Request.Options()));
+        Thread.sleep(200);
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void execute_posts_neverCoalesced() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CoalescingFeignClient client = new CoalescingFeignClient(blockingDelegate(calls, new CountDownLatch(0)), Map.of(), 32, 500);
+
+        client.execute(request(Request.HttpMethod.POST, "http://localhost:8082/api/payment", "admin"), new Request.Options());
+        client.execute(request(Request.HttpMethod.POST, "http://localhost:8082/api/payment", "admin"), new Request.Options());
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void execute_bulkheadFull_failsFast() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CoalescingFeignClient client = new CoalescingFeignClient(blockingDelegate(calls, release), Map.of("localhost", 1), 32, 50);
+
+        Future<Response> holder = executor.submit(() -> client.execute(request(Request.HttpMethod.POST, "http://localhost:8082/api/payment", "admin"), new Request.Options()));
+        Thread.sleep(100);
+
+        assertThrows(IOException.class, () -> client.execute(request(Request.HttpMethod.POST, "http://localhost:8082/api/payment/tax", "admin"), new Request.Options()));
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_leaderFails_followersGetSameError() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        Client failing = (request, options) -> {
+            calls.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("connection refused");
+        };
+        CoalescingFeignClient client = new CoalescingFeignClient(failing, Map.of(), 32, 500);
+
+        Future<Response> first = executor.submit(() -> client.execute(request(Request.HttpMethod.GET, USD_ACCOUNT_URL, "admin"), new Request.Options()));
+        Future<Response> second = executor.submit(() -> client.execute(request(Request.HttpMethod.GET, USD_ACCOUNT_URL, "admin"), new Request.Options()));
+        Thread.sleep(200);
+        release.countDown();
+
+        ExecutionException firstError = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+        ExecutionException secondError = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertEquals("connection refused", firstError.getCause().getMessage());
+        assertEquals("connection refused", secondError.getCause().getMessage());
+        assertEquals(1, calls.get());
+    }
+}
@@ -3,6 +3,7 @@ package rs.raf.stock_service.unit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.util.ReflectionTestUtils;
 import rs.raf.stock_service.domain.dto.*;
 import rs.raf.stock_service.domain.entity.*;
@@ -41,6 +42,10 @@ public class DataRefreshServiceTest {
     @Mock private OrderService orderService;
     @Mock private ListingMapper listingMapper;
     @Mock private ListingRedisService listingRedisService;
+    @Mock private PriceHistoryIngestService priceHistoryIngestService;
+    @Mock private LatestQuoteService latestQuoteService;
+    @Mock private ListingSearchIndex listingSearchIndex;
+    @Mock private ApplicationEventPublisher eventPublisher;
 
 
     @BeforeEach
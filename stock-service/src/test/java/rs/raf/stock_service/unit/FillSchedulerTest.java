@@ -0,0 +1,144 @@
+package rs.raf.stock_service.unit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import rs.raf.stock_service.domain.entity.Order;
+import rs.raf.stock_service.domain.entity.ScheduledFill;
+import rs.raf.stock_service.domain.enums.OrderStatus;
+import rs.raf.stock_service.domain.event.FillDueEvent;
+import rs.raf.stock_service.repository.OrderRepository;
+import rs.raf.stock_service.repository.ScheduledFillRepository;
+import rs.raf.stock_service.repository.TransactionRepository;
+import rs.raf.stock_service.service.FillScheduler;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+public class FillSchedulerTest {
+
+    private final ScheduledFillRepository scheduledFillRepository = mock(ScheduledFillRepository.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private FillScheduler fillScheduler;
+
+    @BeforeEach
+    void setUp() {
+        fillScheduler = fillScheduler(Runnable::run);
+    }
+
+    private FillScheduler fillScheduler(Executor taskExecutor) {
+        return new FillScheduler(scheduledFillRepository, orderRepository, transactionRepository, eventPublisher,
+                taskExecutor, meterRegistry);
+    }
+
+    private static Order processingOrder(long id, int quantity, int remainingPortions) {
+        return Order.builder().id(id).status(OrderStatus.PROCESSING).isDone(false)
+                .quantity(quantity).remainingPortions(remainingPortions).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fillScheduler.shutdown();
+    }
+
+    @Test
+    void schedule_persistsDueTimeAndDoesNotFireEarly() {
+        when(scheduledFillRepository.findByOrderId(1L)).thenReturn(Optional.empty());
+
+        fillScheduler.schedule(1L, 60_000);
+
+        verify(scheduledFillRepository).save(argThat(fill -> fill.getOrderId() == 1L
+                && fill.getDueAt().isAfter(LocalDateTime.now().plusSeconds(50))));
+        verify(eventPublisher, after(100).never()).publishEvent((Object) any());
+        assertEquals(1, fillScheduler.size());
+        assertEquals(1.0, meterRegistry.get("order.fill.scheduled").gauge().value());
+    }
+
+    @Test
+    void schedule_dueFill_publishesEventAndDeletesRow() {
+        ScheduledFill row = ScheduledFill.builder().id(5L).orderId(1L).build();
+        when(scheduledFillRepository.findByOrderId(1L)).thenReturn(Optional.empty(), Optional.of(row));
+
+        fillScheduler.schedule(1L, 10);
+
+        verify(eventPublisher, timeout(1000)).publishEvent((Object) argThat((FillDueEvent event) -> event.getOrderId() == 1L));
+        verify(scheduledFillRepository).delete(row);
+        assertEquals(0, fillScheduler.size());
+        assertEquals(1.0, meterRegistry.get("order.fill.fired").counter().count());
+    }
+
+    @Test
+    void restore_overdueFillsFireImmediately() {
+        ScheduledFill overdue = ScheduledFill.builder().id(5L).orderId(2L).dueAt(LocalDateTime.now().minusMinutes(1)).build();
+        ScheduledFill later = ScheduledFill.builder().id(6L).orderId(3L).dueAt(LocalDateTime.now().plusMinutes(5)).build();
+        when(scheduledFillRepository.findAll()).thenReturn(List.of(overdue, later));
+        when(scheduledFillRepository.findByOrderId(2L)).thenReturn(Optional.of(overdue));
+
+        fillScheduler.restore();
+
+        verify(eventPublisher, timeout(1000)).publishEvent((Object) argThat((FillDueEvent event) -> event.getOrderId() == 2L));
+        verify(eventPublisher, after(100).times(1)).publishEvent((Object) any());
+        assertEquals(1, fillScheduler.size());
+    }
+
+    @Test
+    void restore_processingOrderWithoutRowOrUnpaidTransaction_isRescheduled() {
+        // 10 komada, 4 placena, nijedna transakcija ne ceka placanje: pao je izmedju brisanja termina i fill-a
+        when(scheduledFillRepository.findAll()).thenReturn(List.of());
+        when(orderRepository.findByIsDoneAndStatus(false, OrderStatus.PROCESSING)).thenReturn(List.of(processingOrder(1L, 10, 6)));
+        when(transactionRepository.sumQuantityByOrderIdIn(List.of(1L))).thenReturn(List.<Object[]>of(new Object[]{1L, 4L}));
+        when(scheduledFillRepository.findByOrderId(1L)).thenReturn(Optional.empty());
+
+        fillScheduler.restore();
+
+        verify(scheduledFillRepository).save(argThat(fill -> fill.getOrderId() == 1L));
+        verify(eventPublisher, timeout(1000)).publishEvent((Object) argThat((FillDueEvent event) -> event.getOrderId() == 1L));
+    }
+
+    @Test
+    void restore_processingOrderAwaitingPayment_isLeftToCallback() {
+        ScheduledFill scheduled = ScheduledFill.builder().id(5L).orderId(3L).dueAt(LocalDateTime.now().plusMinutes(5)).build();
+        when(scheduledFillRepository.findAll()).thenReturn(List.of(scheduled));
+        when(orderRepository.findByIsDoneAndStatus(false, OrderStatus.PROCESSING))
+                .thenReturn(List.of(processingOrder(2L, 10, 6), processingOrder(3L, 10, 10)));
+        when(transactionRepository.sumQuantityByOrderIdIn(List.of(2L))).thenReturn(List.<Object[]>of(new Object[]{2L, 7L}));
+
+        fillScheduler.restore();
+
+        verify(scheduledFillRepository, never()).save(any());
+        verify(eventPublisher, after(100).never()).publishEvent((Object) any());
+        assertEquals(1, fillScheduler.size());
+    }
+
+    @Test
+    void schedule_executorRejects_retriesInsteadOfDroppingFill() {
+        fillScheduler.shutdown();
+        AtomicInteger attempts = new AtomicInteger();
+        fillScheduler = fillScheduler(task -> {
+            if (attempts.getAndIncrement() == 0) throw new RejectedExecutionException("pool full");
+            task.run();
+        });
+        ScheduledFill row = ScheduledFill.builder().id(5L).orderId(1L).build();
+        when(scheduledFillRepository.findByOrderId(1L)).thenReturn(Optional.empty(), Optional.of(row));
+
+        fillScheduler.schedule(1L, 0);
+
+        verify(eventPublisher, timeout(3000)).publishEvent((Object) argThat((FillDueEvent event) -> event.getOrderId() == 1L));
+        assertEquals(2, attempts.get());
+        assertEquals(1.0, meterRegistry.get("order.fill.rejected").counter().count());
+    }
+}
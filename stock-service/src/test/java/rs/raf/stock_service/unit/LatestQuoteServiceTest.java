@@ -0,0 +1,110 @@
+package rs.raf.stock_service.unit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import rs.raf.stock_service.domain.entity.Listing;
+import rs.raf.stock_service.domain.entity.ListingPriceHistory;
+import rs.raf.stock_service.domain.entity.Stock;
+import rs.raf.stock_service.repository.ListingPriceHistoryRepository;
+import rs.raf.stock_service.service.LatestQuoteService;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class LatestQuoteServiceTest {
+
+    private final ListingPriceHistoryRepository priceHistoryRepository = mock(ListingPriceHistoryRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final LatestQuoteService latestQuoteService =
+            new LatestQuoteService(priceHistoryRepository, jdbcTemplate);
+
+    private static Stock stock(long id) {
+        Stock stock = new Stock();
+        stock.setId(id);
+        return stock;
+    }
+
+    private static ListingPriceHistory candle(Listing listing, String datetime, String close) {
+        return ListingPriceHistory.builder()
+                .listing(listing)
+                .date(LocalDateTime.parse(datetime))
+                .open(BigDecimal.ONE).high(BigDecimal.TEN).low(BigDecimal.ONE).close(new BigDecimal(close))
+                .change(BigDecimal.ONE)
+                .volume(100L)
+                .build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void load_servesSnapshotFromListingColumnsWithoutQueryingHistory() {
+        ListingPriceHistory quote = ListingPriceHistory.builder()
+                .date(LocalDateTime.parse("2024-03-05T10:00:00"))
+                .close(new BigDecimal("150"))
+                .build();
+        when(jdbcTemplate.query(contains("FROM listing WHERE quote_date IS NOT NULL"), any(RowMapper.class)))
+                .thenReturn(List.of(Map.entry(1L, quote)));
+
+        latestQuoteService.load();
+        ListingPriceHistory result = latestQuoteService.get(stock(1L));
+
+        assertEquals(new BigDecimal("150"), result.getClose());
+        verifyNoInteractions(priceHistoryRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getAll_fetchesMissesInOneQueryAndPersistsThem() {
+        Stock first = stock(1L);
+        Stock second = stock(2L);
+        Stock withoutHistory = stock(3L);
+        when(priceHistoryRepository.findLatestByListingIds(Set.of(1L, 2L, 3L))).thenReturn(List.of(
+                candle(first, "2024-03-05T10:00:00", "150"),
+                candle(second, "2024-03-05T10:05:00", "90")));
+
+        Map<Long, ListingPriceHistory> result = latestQuoteService.getAll(List.of(first, second, withoutHistory));
+
+        assertEquals(2, result.size());
+        assertEquals(new BigDecimal("90"), result.get(2L).getClose());
+        assertNull(result.get(2L).getListing());
+        verify(jdbcTemplate).batchUpdate(contains("UPDATE listing SET quote_date"),
+                argThat((List<Object[]> rows) -> rows.size() == 2), any(int[].class));
+
+        latestQuoteService.getAll(List.of(first, second, withoutHistory));
+
+        verify(priceHistoryRepository, times(1)).findLatestByListingIds(anyCollection());
+    }
+
+    @Test
+    void update_onlyMovesSnapshotForward() {
+        Stock listing = stock(1L);
+        latestQuoteService.update(1L, List.of(
+                candle(listing, "2024-03-05T10:00:00", "150"),
+                candle(listing, "2024-03-05T10:05:00", "151")));
+
+        latestQuoteService.update(1L, List.of(candle(listing, "2024-03-05T09:55:00", "149")));
+
+        assertEquals(new BigDecimal("151"), latestQuoteService.get(listing).getClose());
+        verify(jdbcTemplate, times(1)).update(anyString(), any(Object[].class), any(int[].class));
+        verifyNoInteractions(priceHistoryRepository);
+    }
+
+    @Test
+    void update_afterListingWithoutHistory_isServedFromMemory() {
+        Stock listing = stock(1L);
+        when(priceHistoryRepository.findLatestByListingIds(anyCollection())).thenReturn(List.of());
+        assertNull(latestQuoteService.get(listing));
+
+        latestQuoteService.update(1L, List.of(candle(listing, "2024-03-05T10:00:00", "150")));
+
+        assertEquals(new BigDecimal("150"), latestQuoteService.get(listing).getClose());
+        verify(priceHistoryRepository, times(1)).findLatestByListingIds(anyCollection());
+    }
+}
@@ -1,79 +1,89 @@
 package rs.raf.stock_service.unit;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.HashOperations;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import rs.raf.stock_service.domain.dto.ListingDto;
-import rs.raf.stock_service.domain.entity.Listing;
-import rs.raf.stock_service.domain.entity.ListingPriceHistory;
-import rs.raf.stock_service.domain.entity.Stock;
+import rs.raf.stock_service.domain.mapper.ListingDtoCodec;
 import rs.raf.stock_service.domain.mapper.ListingMapper;
-import rs.raf.stock_service.repository.ListingPriceHistoryRepository;
+import rs.raf.stock_service.service.LatestQuoteService;
 import rs.raf.stock_service.service.ListingRedisService;
 
 import java.math.BigDecimal;
-import java.time.Duration;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class ListingRedisServiceTest {
 
+    private static final byte[] ENCODED = {1, 2, 3};
+
+    @Mock
+    private RedisTemplate<String, byte[]> redisTemplate;
+
     @Mock
-    private RedisTemplate<String, String> redisTemplate;
+    private HashOperations<String, String, byte[]> hashOperations;
 
     @Mock
-    private ValueOperations<String, String> valueOperations;
+    private RedisMessageListenerContainer listenerContainer;
 
     @Mock
-    private ObjectMapper objectMapper;
+    private ListingDtoCodec codec;
 
     @Mock
     private ListingMapper listingMapper;
 
     @Mock
-    private ListingPriceHistoryRepository priceHistoryRepository;
+    private LatestQuoteService latestQuoteService;
 
-    @InjectMocks
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
     private ListingRedisService listingRedisService;
-
-    private Listing listing;
     private ListingDto listingDto;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-
-        listing = new Stock();
-        listing.setId(1L);
-        listing.setTicker("AAPL");
+        listingRedisService = new ListingRedisService(redisTemplate, listenerContainer, codec, listingMapper,
+                latestQuoteService, meterRegistry, 2, 60);
 
         listingDto = new ListingDto();
         listingDto.setTicker("AAPL");
         listingDto.setPrice(BigDecimal.valueOf(150.00));
 
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisTemplate.<String, byte[]>opsForHash()).thenReturn(hashOperations);
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            invocation.<SessionCallback<?>>getArgument(0).execute(redisTemplate);
+            return List.of();
+        });
+        when(codec.encode(any())).thenReturn(ENCODED);
+        when(codec.decode(ENCODED)).thenReturn(listingDto);
     }
 
-    @Test
-    void testSaveByTicker() throws JsonProcessingException {
-        when(objectMapper.writeValueAsString(listingDto)).thenReturn("{\"ticker\":\"AAPL\"}");
+    private double hitRatio(String level) {
+        return meterRegistry.get("listing.cache.hit.ratio").tag("level", level).gauge().value();
+    }
 
+    @Test
+    void testSaveByTicker() {
         listingRedisService.saveByTicker(listingDto);
 
-        verify(valueOperations).set(eq("listing:AAPL"), anyString(), eq(Duration.ofHours(6)));      }
+        verify(hashOperations).put("listings", "AAPL", ENCODED);
+    }
 
     @Test
-    void testGetByTicker() throws JsonProcessingException {
-        String json = "{\"ticker\":\"AAPL\"}";
-        when(valueOperations.get("listing:AAPL")).thenReturn(json);
-        when(objectMapper.readValue(json, ListingDto.class)).thenReturn(listingDto);
+    void testGetByTicker() {
+        when(hashOperations.get("listings", "AAPL")).thenReturn(ENCODED);
 
         ListingDto result = listingRedisService.getByTicker("AAPL");
 
@@ -82,35 +92,112 @@ class ListingRedisServiceTest {
     }
 
     @Test
-    void testSaveAll() throws JsonProcessingException {
-        when(objectMapper.writeValueAsString(any())).thenReturn("{\"ticker\":\"AAPL\"}");
+    void getByTicker_secondReadServedFromL1() {
+        when(hashOperations.get("listings", "AAPL")).thenReturn(ENCODED);
+
+        listingRedisService.getByTicker("AAPL");
+        ListingDto result = listingRedisService.getByTicker("AAPL");
+
+        assertNotSame(listingDto, result);
+        assertEquals(listingDto.getPrice(), result.getPrice());
+        verify(hashOperations, times(1)).get("listings", "AAPL");
+        verify(codec, times(1)).decode(ENCODED);
+        assertEquals(0.5, hitRatio("l1"));
+        assertEquals(1.0, hitRatio("l2"));
+    }
+
+    @Test
+    void getByTicker_callerMutation_doesNotLeakIntoL1() {
+        when(hashOperations.get("listings", "AAPL")).thenReturn(ENCODED);
+
+        listingRedisService.getByTicker("AAPL").setPrice(BigDecimal.ONE);
+        listingRedisService.getByTicker("AAPL").setPrice(BigDecimal.TEN);
+
+        assertEquals(BigDecimal.valueOf(150.00), listingRedisService.getByTicker("AAPL").getPrice());
+    }
+
+    @Test
+    void getByTicker_unreadableEntry_isEvictedAndTreatedAsMiss() {
+        byte[] json = "{\"ticker\":\"AAPL\"}".getBytes(StandardCharsets.UTF_8);
+        when(hashOperations.get("listings", "AAPL")).thenReturn(json);
+        when(codec.decode(json)).thenThrow(new RuntimeException("Failed to deserialize ListingDto"));
 
+        assertNull(listingRedisService.getByTicker("AAPL"));
+
+        verify(hashOperations).delete("listings", "AAPL");
+        assertEquals(0.0, hitRatio("l2"));
+    }
+
+    @Test
+    void getByTicker_l1IsBounded() {
+        when(hashOperations.get(eq("listings"), anyString())).thenReturn(ENCODED);
+
+        listingRedisService.getByTicker("AAPL");
+        listingRedisService.getByTicker("MSFT");
+        listingRedisService.getByTicker("GOOG");
+        listingRedisService.getByTicker("AAPL");
+
+        verify(hashOperations, times(2)).get("listings", "AAPL");
+    }
+
+    @Test
+    void invalidationMessage_evictsFromL1() {
+        when(hashOperations.get("listings", "AAPL")).thenReturn(ENCODED);
+        listingRedisService.subscribe();
+        ArgumentCaptor<MessageListener> listener = ArgumentCaptor.forClass(MessageListener.class);
+        verify(listenerContainer).addMessageListener(listener.capture(), any(ChannelTopic.class));
+
+        listingRedisService.getByTicker("AAPL");
+        listener.getValue().onMessage(new DefaultMessage("listings:invalidate".getBytes(StandardCharsets.UTF_8),
+                "MSFT\nAAPL".getBytes(StandardCharsets.UTF_8)), null);
+        listingRedisService.getByTicker("AAPL");
+
+        verify(hashOperations, times(2)).get("listings", "AAPL");
+    }
+
+    @Test
+    void publishInvalidation_sendsAllTickersInOneMessage() {
+        listingRedisService.publishInvalidation(List.of("AAPL", "EUR/USD"));
+
+        verify(redisTemplate, times(1)).convertAndSend("listings:invalidate",
+                "AAPL\nEUR/USD".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testSaveAll() {
         listingRedisService.saveAll(List.of(listingDto));
 
-        verify(valueOperations).set(anyString(), anyString(), eq(Duration.ofHours(6)));
+        verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+        verify(hashOperations).putAll("listings", Map.of("AAPL", ENCODED));
     }
 
     @Test
-    void testGetAllListings() throws JsonProcessingException {
-        when(redisTemplate.keys("listing:*")).thenReturn(Set.of("listing:AAPL"));
-        when(valueOperations.get("listing:AAPL")).thenReturn("{\"ticker\":\"AAPL\"}");
-        when(objectMapper.readValue(anyString(), eq(ListingDto.class))).thenReturn(listingDto);
+    void testReplaceAll_writesStagingHashAndRenamesItInOnePipeline() {
+        listingRedisService.replaceAll(List.of(listingDto));
+
+        InOrder inOrder = inOrder(redisTemplate, hashOperations);
+        inOrder.verify(redisTemplate).delete("listings:staging");
+        inOrder.verify(hashOperations).putAll("listings:staging", Map.of("AAPL", ENCODED));
+        inOrder.verify(redisTemplate).rename("listings:staging", "listings");
+        verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+    }
+
+    @Test
+    void testGetAllListings() {
+        when(hashOperations.values("listings")).thenReturn(List.of(ENCODED));
 
         List<ListingDto> results = listingRedisService.getAllListings();
 
         assertEquals(1, results.size());
         assertEquals("AAPL", results.get(0).getTicker());
+        verify(redisTemplate, never()).keys(anyString());
     }
 
     @Test
     void testClear() {
-        Set<String> keys = Set.of("listing:AAPL", "listing:GOOGL");
-        when(redisTemplate.keys("*")).thenReturn(keys);
-
         listingRedisService.clear();
 
-        for (String key : keys) {
-            verify(redisTemplate).delete(key);
-        }
+        verify(redisTemplate).unlink("listings");
+        verify(redisTemplate, never()).keys(anyString());
     }
 }
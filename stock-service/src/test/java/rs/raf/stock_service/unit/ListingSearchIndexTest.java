@@ -0,0 +1,126 @@
+package rs.raf.stock_service.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import rs.raf.stock_service.domain.dto.ListingDto;
+import rs.raf.stock_service.domain.dto.ListingFilterDto;
+import rs.raf.stock_service.domain.entity.*;
+import rs.raf.stock_service.domain.mapper.ListingMapper;
+import rs.raf.stock_service.repository.ListingRepository;
+import rs.raf.stock_service.service.LatestQuoteService;
+import rs.raf.stock_service.service.ListingSearchIndex;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ListingSearchIndexTest {
+
+    private final ListingRepository listingRepository = mock(ListingRepository.class);
+    private final LatestQuoteService latestQuoteService = mock(LatestQuoteService.class);
+    private final ListingMapper listingMapper = mock(ListingMapper.class);
+    private final ListingSearchIndex index = new ListingSearchIndex(listingRepository, latestQuoteService, listingMapper);
+
+    private static <T extends Listing> T listing(T listing, long id, String ticker, String name, String price, String ask) {
+        listing.setId(id);
+        listing.setTicker(ticker);
+        listing.setName(name);
+        listing.setPrice(new BigDecimal(price));
+        listing.setAsk(ask != null ? new BigDecimal(ask) : null);
+        return listing;
+    }
+
+    @BeforeEach
+    void setUp() {
+        Stock apple = listing(new Stock(), 1L, "AAPL", "Apple Inc.", "150.50", "151");
+        Stock applied = listing(new Stock(), 2L, "AMAT", "Applied Materials", "120", null);
+        ForexPair eurUsd = listing(new ForexPair(), 3L, "EUR/USD", "Euro / US Dollar", "1.08", "1.09");
+        Option option = listing(new Option(), 4L, "AAPL240119C00150000", "Apple call", "5", "5.1");
+        when(listingRepository.findAll()).thenReturn(List.of(eurUsd, applied, apple, option));
+
+        ListingPriceHistory appleQuote = ListingPriceHistory.builder().low(new BigDecimal("149")).build();
+        when(latestQuoteService.getAll(anyCollection())).thenReturn(Map.of(1L, appleQuote));
+        when(listingMapper.toDto(any(Listing.class), any())).thenAnswer(invocation -> {
+            Listing listing = invocation.getArgument(0);
+            ListingDto dto = new ListingDto();
+            dto.setId(listing.getId());
+            dto.setTicker(listing.getTicker());
+            return dto;
+        });
+
+        index.rebuild();
+    }
+
+    private List<Long> search(ListingFilterDto filter, String role) {
+        return index.search(filter, role).stream().map(ListingDto::getId).toList();
+    }
+
+    @Test
+    void search_matchesTickerOrNameSubstringCaseInsensitive() {
+        ListingFilterDto filter = new ListingFilterDto();
+
+        filter.setSearch("appl");
+        assertEquals(List.of(1L, 2L), search(filter, "EMPLOYEE"));
+
+        filter.setSearch("USD");
+        assertEquals(List.of(3L), search(filter, "EMPLOYEE"));
+
+        filter.setSearch("am");
+        assertEquals(List.of(2L), search(filter, "EMPLOYEE"));
+
+        filter.setSearch("xyz");
+        assertTrue(search(filter, "EMPLOYEE").isEmpty());
+    }
+
+    @Test
+    void search_excludesOptionsAndRestrictsClients() {
+        ListingFilterDto filter = new ListingFilterDto();
+        filter.setSearch("");
+
+        assertEquals(List.of(1L, 2L, 3L), search(filter, "EMPLOYEE"));
+        assertEquals(List.of(1L, 2L), search(filter, "CLIENT"));
+    }
+
+    @Test
+    void search_priceAskAndBidRangesAreInclusiveAndSkipMissingValues() {
+        ListingFilterDto filter = new ListingFilterDto();
+        filter.setMinPrice(new BigDecimal("120"));
+        filter.setMaxPrice(new BigDecimal("150.5"));
+        assertEquals(List.of(1L, 2L), search(filter, "EMPLOYEE"));
+
+        filter.setMinAsk(new BigDecimal("1"));
+        assertEquals(List.of(1L), search(filter, "EMPLOYEE"));
+
+        ListingFilterDto bidFilter = new ListingFilterDto();
+        bidFilter.setMaxBid(new BigDecimal("149"));
+        assertEquals(List.of(1L), search(bidFilter, "EMPLOYEE"));
+    }
+
+    @Test
+    void search_maintenanceMarginIsTenthOfPrice() {
+        ListingFilterDto filter = new ListingFilterDto();
+        filter.setMinMaintenanceMargin(new BigDecimal("12.05"));
+
+        assertEquals(List.of(1L), search(filter, "EMPLOYEE"));
+    }
+
+    @Test
+    void supports_rareFiltersFallBackToSql() {
+        ListingFilterDto filter = new ListingFilterDto();
+        filter.setSearch("aapl");
+        filter.setMinPrice(BigDecimal.ONE);
+        assertTrue(ListingSearchIndex.supports(filter));
+
+        filter.setSettlementDate(LocalDate.now());
+        assertFalse(ListingSearchIndex.supports(filter));
+
+        ListingFilterDto sorted = new ListingFilterDto();
+        sorted.setSortBy("volume");
+        assertFalse(ListingSearchIndex.supports(sorted));
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.util.ReflectionTestUtils;
 import rs.raf.stock_service.client.AlphavantageClient;
@@ -13,16 +14,21 @@ import rs.raf.stock_service.domain.dto.*;
 import rs.raf.stock_service.domain.entity.Exchange;
 import rs.raf.stock_service.domain.entity.Listing;
 import rs.raf.stock_service.domain.entity.ListingPriceHistory;
+import rs.raf.stock_service.domain.entity.ListingPriceRollup;
 import rs.raf.stock_service.domain.entity.Stock;
 import rs.raf.stock_service.domain.enums.ListingType;
+import rs.raf.stock_service.domain.enums.PriceResolution;
 import rs.raf.stock_service.domain.mapper.ListingMapper;
 import rs.raf.stock_service.domain.mapper.TimeSeriesMapper;
 import rs.raf.stock_service.exceptions.ListingNotFoundException;
 import rs.raf.stock_service.exceptions.UnauthorizedException;
 import rs.raf.stock_service.repository.ListingPriceHistoryRepository;
+import rs.raf.stock_service.repository.ListingPriceRollupRepository;
 import rs.raf.stock_service.repository.ListingRepository;
 import rs.raf.stock_service.repository.OptionRepository;
+import rs.raf.stock_service.service.LatestQuoteService;
 import rs.raf.stock_service.service.ListingRedisService;
+import rs.raf.stock_service.service.ListingSearchIndex;
 import rs.raf.stock_service.service.ListingService;
 import rs.raf.stock_service.utils.JwtTokenUtil;
 
@@ -31,6 +37,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -69,6 +76,14 @@ class ListingServiceTest {
     private ListingPriceHistoryRepository dailyPriceInfoRepository;
     @Mock
     private AlphavantageClient alphavantageClient;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private ListingPriceRollupRepository priceRollupRepository;
+    @Mock
+    private LatestQuoteService latestQuoteService;
+    @Mock
+    private ListingSearchIndex listingSearchIndex;
 
     @BeforeEach
     void setUp() {
@@ -103,7 +118,7 @@ class ListingServiceTest {
         );
 
         when(listingRepository.findAll(any(Specification.class))).thenReturn(List.of(stock));
-        when(priceHistoryRepository.findTopByListingOrderByDateDesc(stock)).thenReturn(dailyInfo);
+        when(latestQuoteService.getAll(any())).thenReturn(Map.of(1L, dailyInfo));
         when(listingMapper.toDto(stock, dailyInfo)).thenReturn(expectedDto);
 
         List<ListingDto> result = listingService.getListings(filter, "CLIENT");
@@ -112,6 +127,34 @@ class ListingServiceTest {
         assertEquals(expectedDto, result.get(0));
     }
 
+    @Test
+    void getListings_searchServedFromIndexWhenReady() {
+        ListingFilterDto filter = new ListingFilterDto();
+        filter.setSearch("AAPL");
+        ListingDto dto = new ListingDto();
+        when(listingSearchIndex.isReady()).thenReturn(true);
+        when(listingSearchIndex.search(filter, "CLIENT")).thenReturn(List.of(dto));
+
+        List<ListingDto> result = listingService.getListings(filter, "CLIENT");
+
+        assertEquals(List.of(dto), result);
+        verify(listingRepository, never()).findAll(any(Specification.class));
+    }
+
+    @Test
+    void getListings_rareFilterFallsBackToSql() {
+        ListingFilterDto filter = new ListingFilterDto();
+        filter.setSearch("AAPL");
+        filter.setSortBy("volume");
+        when(listingSearchIndex.isReady()).thenReturn(true);
+        when(listingRepository.findAll(any(Specification.class))).thenReturn(List.of());
+
+        listingService.getListings(filter, "CLIENT");
+
+        verify(listingSearchIndex, never()).search(any(), any());
+        verify(listingRepository).findAll(any(Specification.class));
+    }
+
     @Test
     void getListingDetails_ShouldReturnListingDetailsDto() {
         // Mock podaci za Stock
@@ -177,7 +220,9 @@ class ListingServiceTest {
 
         // Mock ponašanje repozitorijuma
         when(listingRepository.findById(1L)).thenReturn(Optional.of(stock));
-        when(priceHistoryRepository.findAllByListingOrderByDateDesc(stock)).thenReturn(priceHistory);
+        when(latestQuoteService.get(stock)).thenReturn(dailyInfo2);
+        when(priceHistoryRepository.findAllByListingAndDateBetweenOrderByDateDesc(
+                stock, LocalDateTime.of(2024, 3, 1, 14, 30), LocalDateTime.of(2024, 3, 2, 14, 30))).thenReturn(priceHistory);
         when(listingMapper.toDetailsDto(stock, priceHistory)).thenReturn(expectedDto);
         when(optionRepository.findAllByUnderlyingStock(stock)).thenReturn(List.of());
 
@@ -194,10 +239,54 @@ class ListingServiceTest {
 
         // Verifikacija poziva
         verify(listingRepository, times(1)).findById(1L);
-        verify(priceHistoryRepository, times(1)).findAllByListingOrderByDateDesc(stock);
+        verify(priceHistoryRepository, times(1)).findAllByListingAndDateBetweenOrderByDateDesc(
+                stock, LocalDateTime.of(2024, 3, 1, 14, 30), LocalDateTime.of(2024, 3, 2, 14, 30));
+        verify(priceHistoryRepository, never()).findAllByListingOrderByDateDesc(any());
         verify(listingMapper, times(1)).toDetailsDto(stock, priceHistory);
     }
 
+    @Test
+    void getHistory_rollupResolution_defaultsRangeToLatestBucket() {
+        Stock stock = new Stock();
+        stock.setId(1L);
+
+        LocalDateTime latestBucket = LocalDateTime.of(2024, 3, 4, 0, 0);
+        ListingPriceRollup latest = ListingPriceRollup.builder().bucketStart(latestBucket).build();
+        ListingPriceRollup previous = ListingPriceRollup.builder().bucketStart(latestBucket.minusDays(1)).build();
+
+        when(listingRepository.findById(1L)).thenReturn(Optional.of(stock));
+        when(priceRollupRepository.findTopByListingAndResolutionOrderByBucketStartDesc(stock, PriceResolution.DAY)).thenReturn(latest);
+        when(priceRollupRepository.findAllByListingAndResolutionAndBucketStartBetweenOrderByBucketStartDesc(
+                stock, PriceResolution.DAY, latestBucket.minusDays(365), latestBucket)).thenReturn(List.of(latest, previous));
+        when(listingMapper.toPriceHistoryDto(any(ListingPriceRollup.class)))
+                .thenAnswer(invocation -> new PriceHistoryDto(((ListingPriceRollup) invocation.getArgument(0)).getBucketStart(),
+                        null, null, null, null, null));
+
+        List<PriceHistoryDto> result = listingService.getHistory(1L, PriceResolution.DAY, null, null);
+
+        assertEquals(2, result.size());
+        assertEquals(latestBucket, result.get(0).getDatetime());
+        verifyNoInteractions(priceHistoryRepository);
+    }
+
+    @Test
+    void getHistory_fiveMinutes_readsRawCandlesInRange() {
+        Stock stock = new Stock();
+        stock.setId(1L);
+        LocalDateTime from = LocalDateTime.of(2024, 3, 1, 10, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+        when(listingRepository.findById(1L)).thenReturn(Optional.of(stock));
+        when(priceHistoryRepository.findAllByListingAndDateBetweenOrderByDateDesc(stock, from, to))
+                .thenReturn(List.of(new ListingPriceHistory()));
+
+        List<PriceHistoryDto> result = listingService.getHistory(1L, PriceResolution.FIVE_MINUTES, from, to);
+
+        assertEquals(1, result.size());
+        verifyNoInteractions(latestQuoteService);
+        verifyNoInteractions(priceRollupRepository);
+    }
+
 
     @Test
     void getListingDetails_ShouldThrowListingNotFoundException() {
@@ -245,7 +334,7 @@ class ListingServiceTest {
         when(jwtTokenUtil.getUserRoleFromAuthHeader(fakeToken)).thenReturn("SUPERVISOR");
 
         when(listingRepository.findById(listingId)).thenReturn(Optional.of(listing));
-        when(priceHistoryRepository.findTopByListingOrderByDateDesc(listing)).thenReturn(dailyInfo);
+        when(latestQuoteService.get(listing)).thenReturn(dailyInfo);
         when(listingMapper.toDto(listing, dailyInfo)).thenReturn(expectedDto);
 
         ListingDto result = listingService.updateListing(listingId, updateDto, fakeToken);
@@ -422,7 +511,7 @@ class ListingServiceTest {
         Listing listing = new Stock();
         when(listingRepository.findByTicker(TEST_TICKER)).thenReturn(Optional.of(listing));
 
-        when(dailyPriceInfoRepository.findTopByListingOrderByDateDesc(listing)).thenReturn(null);
+        when(latestQuoteService.get(listing)).thenReturn(null);
 
         ListingDto expectedDto = new ListingDto();
         when(listingMapper.toDto(listing, null)).thenReturn(expectedDto);
@@ -0,0 +1,133 @@
+package rs.raf.stock_service.unit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import rs.raf.stock_service.domain.entity.Order;
+import rs.raf.stock_service.domain.entity.Stock;
+import rs.raf.stock_service.domain.entity.Transaction;
+import rs.raf.stock_service.domain.enums.OrderDirection;
+import rs.raf.stock_service.domain.enums.OrderStatus;
+import rs.raf.stock_service.domain.enums.OrderType;
+import rs.raf.stock_service.repository.OrderRepository;
+import rs.raf.stock_service.repository.TransactionRepository;
+import rs.raf.stock_service.service.OrderBook;
+import rs.raf.stock_service.service.OrderBookService;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class OrderBookServiceTest {
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private OrderBookService orderBookService;
+
+    private final Stock listing = new Stock();
+
+    @BeforeEach
+    void setUp() {
+        orderBookService = new OrderBookService(orderRepository, transactionRepository, meterRegistry);
+        ReflectionTestUtils.setField(orderBookService, "enabled", true);
+        listing.setId(1L);
+    }
+
+    private Order order(long id, long userId, OrderDirection direction, String price, int quantity) {
+        Order order = new Order(userId, "CLIENT", listing, OrderType.LIMIT, direction, false, 1, quantity,
+                new BigDecimal(price), "ACC" + userId, null, false);
+        order.setId(id);
+        order.setStatus(OrderStatus.APPROVED);
+        return order;
+    }
+
+    @Test
+    void submit_sameUserOnOppositeSide_doesNotSelfTrade() {
+        orderBookService.submit(order(1, 7, OrderDirection.SELL, "100", 5));
+
+        List<OrderBook.Fill> fills = orderBookService.submit(order(2, 7, OrderDirection.BUY, "100", 5));
+
+        assertTrue(fills.isEmpty());
+        assertTrue(orderBookService.isBusy(1L));
+        assertFalse(orderBookService.isBusy(2L));
+        assertEquals(1.0, meterRegistry.get("order.book.self.trade.prevented").counter().count());
+    }
+
+    @Test
+    void withdraw_makerWithUnsettledFill_isRejected() {
+        Order sell = order(1, 7, OrderDirection.SELL, "100", 5);
+        orderBookService.submit(sell);
+        orderBookService.submit(order(2, 8, OrderDirection.BUY, "100", 2));
+
+        assertFalse(orderBookService.withdraw(sell));
+        assertEquals(3, orderBookService.getDepth(1L, 5).getAsks().get(0).getQuantity());
+    }
+
+    @Test
+    void withdraw_staleRemainingAboveBookQuantity_isRejected() {
+        Order sell = order(1, 7, OrderDirection.SELL, "100", 5);
+        orderBookService.submit(sell);
+        orderBookService.submit(order(2, 8, OrderDirection.BUY, "100", 2));
+        orderBookService.settled(1L, 2);
+
+        // nalog ucitan pre nego sto je placanje smanjilo remainingPortions
+        assertFalse(orderBookService.withdraw(sell));
+
+        sell.setRemainingPortions(3);
+        assertTrue(orderBookService.withdraw(sell));
+        assertFalse(orderBookService.isBusy(1L));
+        assertTrue(orderBookService.getDepth(1L, 5).getAsks().isEmpty());
+    }
+
+    @Test
+    void record_savesBuyerAndSellerTransactionBeforePayment() {
+        Order sell = order(1, 7, OrderDirection.SELL, "100", 5);
+        Order buy = order(2, 8, OrderDirection.BUY, "100", 3);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(sell));
+        when(orderRepository.findById(2L)).thenReturn(Optional.of(buy));
+        when(transactionRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        orderBookService.submit(sell);
+
+        List<Transaction> transactions = orderBookService.record(orderBookService.submit(buy));
+
+        assertEquals(List.of(buy, sell), transactions.stream().map(Transaction::getOrder).toList());
+        assertTrue(transactions.stream().allMatch(transaction -> transaction.getQuantity() == 3
+                && new BigDecimal("300").compareTo(transaction.getTotalPrice()) == 0));
+    }
+
+    @Test
+    void restore_recordedButUnsettledQuantity_isNotMatchedAgain() {
+        // 10 komada, 2 placena, 3 uparena pre restarta a placanje jos nije stiglo
+        Order sell = order(1, 7, OrderDirection.SELL, "100", 10);
+        sell.setRemainingPortions(8);
+        when(orderRepository.findByIsDoneAndStatusAndOrderType(false, OrderStatus.APPROVED, OrderType.LIMIT)).thenReturn(List.of(sell));
+        when(orderRepository.findByIsDoneAndStatusAndOrderType(false, OrderStatus.APPROVED, OrderType.STOP_LIMIT)).thenReturn(List.of());
+        when(transactionRepository.sumQuantityByOrderIdIn(List.of(1L))).thenReturn(List.<Object[]>of(new Object[]{1L, 5L}));
+
+        orderBookService.restore();
+
+        assertEquals(5, orderBookService.getDepth(1L, 5).getAsks().get(0).getQuantity());
+        assertFalse(orderBookService.withdraw(sell));
+        assertTrue(orderBookService.settled(1L, 3));
+    }
+
+    @Test
+    void restore_allRemainingQuantityUnsettled_staysBusyOutOfBook() {
+        Order sell = order(1, 7, OrderDirection.SELL, "100", 4);
+        when(orderRepository.findByIsDoneAndStatusAndOrderType(false, OrderStatus.APPROVED, OrderType.LIMIT)).thenReturn(List.of(sell));
+        when(orderRepository.findByIsDoneAndStatusAndOrderType(false, OrderStatus.APPROVED, OrderType.STOP_LIMIT)).thenReturn(List.of());
+        when(transactionRepository.sumQuantityByOrderIdIn(List.of(1L))).thenReturn(List.<Object[]>of(new Object[]{1L, 4L}));
+
+        orderBookService.restore();
+
+        assertTrue(orderBookService.getDepth(1L, 5).getAsks().isEmpty());
+        assertTrue(orderBookService.isBusy(1L));
+        assertFalse(orderBookService.settled(1L, 4));
+    }
+}
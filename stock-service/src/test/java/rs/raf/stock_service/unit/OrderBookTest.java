@@ -0,0 +1,110 @@
+package rs.raf.stock_service.unit;
+
+import org.junit.jupiter.api.Test;
+import rs.raf.stock_service.domain.enums.OrderDirection;
+import rs.raf.stock_service.service.OrderBook;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderBookTest {
+
+    private final OrderBook book = new OrderBook();
+
+    private static long ticks(String price) {
+        return OrderBook.toTicks(new BigDecimal(price));
+    }
+
+    @Test
+    void submit_noOppositeSide_rests() {
+        List<OrderBook.Fill> fills = book.submit(1, 1, OrderDirection.BUY, ticks("100"), 10);
+
+        assertTrue(fills.isEmpty());
+        assertTrue(book.contains(1));
+        assertEquals(10, book.depth(OrderDirection.BUY, 5).get(0).getQuantity());
+    }
+
+    @Test
+    void submit_crossingBuy_fillsAtMakerPriceBestPriceFirst() {
+        book.submit(1, 1, OrderDirection.SELL, ticks("101"), 5);
+        book.submit(2, 2, OrderDirection.SELL, ticks("100"), 5);
+
+        List<OrderBook.Fill> fills = book.submit(3, 3, OrderDirection.BUY, ticks("102"), 8);
+
+        assertEquals(2, fills.size());
+        assertEquals(2, fills.get(0).getSellOrderId());
+        assertEquals(0, new BigDecimal("100").compareTo(fills.get(0).getPrice()));
+        assertEquals(5, fills.get(0).getQuantity());
+        assertEquals(1, fills.get(1).getSellOrderId());
+        assertEquals(3, fills.get(1).getQuantity());
+        assertFalse(book.contains(3));
+        assertEquals(2, book.depth(OrderDirection.SELL, 5).get(0).getQuantity());
+    }
+
+    @Test
+    void submit_samePrice_olderOrderFilledFirst() {
+        book.submit(1, 1, OrderDirection.BUY, ticks("50"), 3);
+        book.submit(2, 2, OrderDirection.BUY, ticks("50"), 3);
+
+        List<OrderBook.Fill> fills = book.submit(3, 3, OrderDirection.SELL, ticks("50"), 4);
+
+        assertEquals(1, fills.get(0).getBuyOrderId());
+        assertEquals(3, fills.get(0).getQuantity());
+        assertEquals(2, fills.get(1).getBuyOrderId());
+        assertEquals(1, fills.get(1).getQuantity());
+        assertEquals(2, book.depth(OrderDirection.BUY, 5).get(0).getQuantity());
+    }
+
+    @Test
+    void submit_limitNotReached_restsWithoutFill() {
+        book.submit(1, 1, OrderDirection.SELL, ticks("100.5"), 5);
+
+        assertTrue(book.submit(2, 2, OrderDirection.BUY, ticks("100.4"), 5).isEmpty());
+        assertEquals(2, book.size());
+    }
+
+    @Test
+    void cancel_removesOrderAndEmptyLevel() {
+        book.submit(1, 1, OrderDirection.SELL, ticks("100"), 5);
+        book.submit(2, 2, OrderDirection.SELL, ticks("99"), 5);
+
+        assertEquals(5, book.cancel(2));
+        assertEquals(0, book.cancel(2));
+
+        List<OrderBook.Level> asks = book.depth(OrderDirection.SELL, 5);
+        assertEquals(1, asks.size());
+        assertEquals(0, new BigDecimal("100").compareTo(asks.get(0).getPrice()));
+    }
+
+    @Test
+    void depth_bidsHighestFirstAsksLowestFirst() {
+        for (int i = 1; i <= 40; i++) {
+            book.submit(i, i, OrderDirection.BUY, ticks(String.valueOf(i)), 1);
+            book.submit(100 + i, 100 + i, OrderDirection.SELL, ticks(String.valueOf(100 + i)), 1);
+        }
+
+        List<OrderBook.Level> bids = book.depth(OrderDirection.BUY, 3);
+        List<OrderBook.Level> asks = book.depth(OrderDirection.SELL, 3);
+
+        assertEquals(List.of(ticks("40"), ticks("39"), ticks("38")), bids.stream().map(OrderBook.Level::getPriceTicks).toList());
+        assertEquals(List.of(ticks("101"), ticks("102"), ticks("103")), asks.stream().map(OrderBook.Level::getPriceTicks).toList());
+    }
+
+    @Test
+    void submit_sameOwnerOnBestLevel_stopsWithoutSelfTradeAndDoesNotRest() {
+        book.submit(1, 7, OrderDirection.SELL, ticks("100"), 5);
+        book.submit(2, 8, OrderDirection.SELL, ticks("100"), 5);
+        book.submit(3, 9, OrderDirection.SELL, ticks("99"), 2);
+
+        List<OrderBook.Fill> fills = book.submit(4, 7, OrderDirection.BUY, ticks("100"), 10);
+
+        assertEquals(1, fills.size());
+        assertEquals(3, fills.get(0).getSellOrderId());
+        assertFalse(book.contains(4));
+        assertTrue(book.contains(1));
+        assertTrue(book.depth(OrderDirection.BUY, 5).isEmpty());
+        assertEquals(10, book.depth(OrderDirection.SELL, 5).get(0).getQuantity());
+    }
+}
@@ -15,6 +15,8 @@ import rs.raf.stock_service.client.UserClient;
 import rs.raf.stock_service.domain.dto.*;
 import rs.raf.stock_service.domain.entity.*;
 import rs.raf.stock_service.domain.enums.*;
+import rs.raf.stock_service.domain.event.FillDueEvent;
+import rs.raf.stock_service.domain.event.ListingPriceChangedEvent;
 import rs.raf.stock_service.domain.mapper.ListingMapper;
 import rs.raf.stock_service.domain.mapper.OrderMapper;
 import rs.raf.stock_service.exceptions.*;
@@ -29,7 +31,11 @@ import rs.raf.stock_service.exceptions.UnauthorizedException;
 import rs.raf.stock_service.repository.ListingPriceHistoryRepository;
 import rs.raf.stock_service.repository.ListingRepository;
 import rs.raf.stock_service.repository.OrderRepository;
+import rs.raf.stock_service.service.FillScheduler;
+import rs.raf.stock_service.service.LatestQuoteService;
+import rs.raf.stock_service.service.OrderBookService;
 import rs.raf.stock_service.service.OrderService;
+import rs.raf.stock_service.service.OrderTriggerService;
 import rs.raf.stock_service.service.PortfolioService;
 import rs.raf.stock_service.service.TrackedPaymentService;
 import rs.raf.stock_service.utils.JwtTokenUtil;
@@ -88,6 +94,18 @@ public class OrderServiceTest {
     @Mock
     private TrackedPaymentService trackedPaymentService;
 
+    @Mock
+    private OrderBookService orderBookService;
+
+    @Mock
+    private OrderTriggerService orderTriggerService;
+
+    @Mock
+    private FillScheduler fillScheduler;
+
+    @Mock
+    private LatestQuoteService latestQuoteService;
+
     @InjectMocks
     private OrderService orderService;
 
@@ -167,6 +185,9 @@ public class OrderServiceTest {
         stopLimitOrder = OrderMapper.toOrder(createStopLimitOrderDto, userId, "ADMIN", listing);
         stopLimitOrder.setId(3L);
         stopLimitOrder.setStatus(OrderStatus.APPROVED);
+
+        // nalozi van knjige slobodno prelaze na simulirano trziste
+        when(orderBookService.withdraw(any())).thenReturn(true);
     }
 
     @Test
@@ -176,7 +197,7 @@ public class OrderServiceTest {
         List<Order> orderList = Arrays.asList(stopOrder, limitOrder);
         Page<Order> orderPage = new PageImpl<>(orderList);
 
-        when(listingPriceHistoryRepository.findTopByListingOrderByDateDesc(listing)).thenReturn(dailyPriceInfo);
+        when(latestQuoteService.getAll(any())).thenReturn(Map.of(listing.getId(), dailyPriceInfo));
         when(orderRepository.findByStatus(OrderStatus.APPROVED, PageRequest.of(1, 10))).thenReturn(orderPage);
 
         Page<OrderDto> result = orderService.getOrdersByStatus(OrderStatus.APPROVED, PageRequest.of(1, 10));
@@ -667,6 +688,45 @@ public class OrderServiceTest {
         assertEquals(false, stopLimitOrder.getIsDone());
     }
 
+    @Test
+    void checkOrders_openOrderNotTriggered_isRearmedInTriggerBook() {
+        when(orderRepository.findByIsDoneAndStatusAndOrderType(false, OrderStatus.APPROVED, OrderType.LIMIT))
+                .thenReturn(Arrays.asList(limitOrder));
+
+        orderService.checkOrders();
+
+        assertEquals(OrderStatus.APPROVED, limitOrder.getStatus());
+        verify(orderTriggerService).register(limitOrder);
+    }
+
+    @Test
+    void priceChange_firedStopOrder_executesAndIsNotRearmed() {
+        when(orderTriggerService.fire(1L, new BigDecimal(250), null)).thenReturn(List.of(stopOrder.getId()));
+        when(orderRepository.findById(stopOrder.getId())).thenReturn(Optional.of(stopOrder));
+        when(bankClient.getUSDAccountNumberByCompanyId(4L)).thenReturn(ResponseEntity.ok("1"));
+        when(trackedPaymentService.createTrackedPayment(any(), any())).thenReturn(new TrackedPayment());
+        listing.setPrice(new BigDecimal(250));
+
+        orderService.onListingPriceChanged(new ListingPriceChangedEvent(1L, new BigDecimal(250), null));
+
+        assertEquals(OrderStatus.PROCESSING, stopOrder.getStatus());
+        verify(transactionRepository, times(1)).save(any(Transaction.class));
+        verify(orderRepository, never()).findByIsDoneAndStatusAndOrderType(anyBoolean(), any(), any());
+    }
+
+    @Test
+    void priceChange_stopLimitStopFired_rearmedForLimitPhase() {
+        when(orderTriggerService.fire(1L, new BigDecimal(250), null)).thenReturn(List.of(stopLimitOrder.getId()));
+        when(orderRepository.findById(stopLimitOrder.getId())).thenReturn(Optional.of(stopLimitOrder));
+        listing.setPrice(new BigDecimal(250));
+
+        orderService.onListingPriceChanged(new ListingPriceChangedEvent(1L, new BigDecimal(250), null));
+
+        assertTrue(stopLimitOrder.isStopFulfilled());
+        assertEquals(OrderStatus.APPROVED, stopLimitOrder.getStatus());
+        verify(orderTriggerService).register(stopLimitOrder);
+    }
+
     @Test
     void shouldReturnOrderDtosWhenUserIsAuthorized() {
         Long userId = 1L;
@@ -710,7 +770,7 @@ public class OrderServiceTest {
         when(jwtTokenUtil.getUserIdFromAuthHeader(authHeader)).thenReturn(userId);
         when(jwtTokenUtil.getUserRoleFromAuthHeader(authHeader)).thenReturn("USER");
         when(orderRepository.findAllByUserId(userId)).thenReturn(List.of(order));
-        when(listingPriceHistoryRepository.findTopByListingOrderByDateDesc(listing)).thenReturn(listingPriceHistory);
+        when(latestQuoteService.getAll(any())).thenReturn(Map.of(listing.getId(), listingPriceHistory));
         when(listingMapper.toDto(listing, listingPriceHistory)).thenReturn(listingDto);
 
         try (MockedStatic<OrderMapper> mocked = mockStatic(OrderMapper.class)) {
@@ -772,7 +832,7 @@ public class OrderServiceTest {
         when(jwtTokenUtil.getUserIdFromAuthHeader(authHeader)).thenReturn(supervisorId);
         when(jwtTokenUtil.getUserRoleFromAuthHeader(authHeader)).thenReturn("SUPERVISOR");
         when(orderRepository.findAllByUserId(userId)).thenReturn(List.of(order));
-        when(listingPriceHistoryRepository.findTopByListingOrderByDateDesc(listing)).thenReturn(listingPriceHistory);
+        when(latestQuoteService.getAll(any())).thenReturn(Map.of(listing.getId(), listingPriceHistory));
         when(listingMapper.toDto(listing, listingPriceHistory)).thenReturn(listingDto);
 
         try (MockedStatic<OrderMapper> mocked = mockStatic(OrderMapper.class)) {
@@ -834,7 +894,7 @@ public class OrderServiceTest {
         when(jwtTokenUtil.getUserIdFromAuthHeader(authHeader)).thenReturn(adminId);
         when(jwtTokenUtil.getUserRoleFromAuthHeader(authHeader)).thenReturn("ADMIN");
         when(orderRepository.findAllByUserId(userId)).thenReturn(List.of(order));
-        when(listingPriceHistoryRepository.findTopByListingOrderByDateDesc(listing)).thenReturn(listingPriceHistory);
+        when(latestQuoteService.getAll(any())).thenReturn(Map.of(listing.getId(), listingPriceHistory));
         when(listingMapper.toDto(listing, listingPriceHistory)).thenReturn(listingDto);
 
         try (MockedStatic<OrderMapper> mocked = mockStatic(OrderMapper.class)) {
@@ -890,7 +950,7 @@ public class OrderServiceTest {
         when(jwtTokenUtil.getUserIdFromAuthHeader(authHeader)).thenReturn(userId);
         when(jwtTokenUtil.getUserRoleFromAuthHeader(authHeader)).thenReturn("USER");
         when(orderRepository.findAllByUserId(userId)).thenReturn(List.of(order));
-        when(listingPriceHistoryRepository.findTopByListingOrderByDateDesc(null)).thenReturn(null);
+        when(latestQuoteService.getAll(any())).thenReturn(Map.of());
         when(listingMapper.toDto(null, null)).thenReturn(null);
 
         try (MockedStatic<OrderMapper> mocked = mockStatic(OrderMapper.class)) {
@@ -1091,6 +1151,97 @@ public class OrderServiceTest {
         verify(transactionRepository).findById(transaction.getId());
     }
 
+    @Test
+    void handleTransactionSuccessfulPayment_partialFill_schedulesNextFillWithoutBlocking() {
+        Order order = Order.builder()
+                .id(1L)
+                .userId(userId)
+                .status(OrderStatus.PROCESSING)
+                .userRole("CLIENT")
+                .contractSize(1)
+                .quantity(10)
+                .remainingPortions(8)
+                .afterHours(true)
+                .allOrNone(false)
+                .totalPrice(BigDecimal.ZERO)
+                .listing(listing)
+                .transactions(new ArrayList<>())
+                .build();
+
+        Transaction transaction = new Transaction(3, new BigDecimal("100"), new BigDecimal("300"), order);
+        transaction.setId(100L);
+
+        TrackedPayment trackedPayment = new TrackedPayment();
+        trackedPayment.setTrackedEntityId(transaction.getId());
+
+        when(trackedPaymentService.getTrackedPayment(anyLong())).thenReturn(trackedPayment);
+        when(transactionRepository.findById(transaction.getId())).thenReturn(Optional.of(transaction));
+
+        orderService.handleTransactionSuccessfulPayment(1L);
+
+        verify(fillScheduler).schedule(eq(1L), longThat(delay -> delay >= 300000L));
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    @Test
+    void handleTransactionSuccessfulPayment_approvedRemainderOutOfBook_returnsToLimitChecks() {
+        listing.setPrice(new BigDecimal("120"));
+        Order order = Order.builder()
+                .id(1L)
+                .userId(userId)
+                .status(OrderStatus.APPROVED)
+                .orderType(OrderType.LIMIT)
+                .direction(OrderDirection.BUY)
+                .pricePerUnit(new BigDecimal("100"))
+                .userRole("CLIENT")
+                .contractSize(1)
+                .quantity(10)
+                .remainingPortions(8)
+                .totalPrice(BigDecimal.ZERO)
+                .listing(listing)
+                .transactions(new ArrayList<>())
+                .build();
+
+        Transaction transaction = new Transaction(3, new BigDecimal("100"), new BigDecimal("300"), order);
+        transaction.setId(100L);
+
+        TrackedPayment trackedPayment = new TrackedPayment();
+        trackedPayment.setTrackedEntityId(transaction.getId());
+
+        when(trackedPaymentService.getTrackedPayment(anyLong())).thenReturn(trackedPayment);
+        when(transactionRepository.findById(transaction.getId())).thenReturn(Optional.of(transaction));
+        when(orderBookService.settled(1L, 3)).thenReturn(false);
+
+        orderService.handleTransactionSuccessfulPayment(1L);
+
+        verify(fillScheduler, never()).schedule(anyLong(), anyLong());
+        verify(orderTriggerService).register(order);
+        assertEquals(OrderStatus.APPROVED, order.getStatus());
+    }
+
+    @Test
+    void onFillDue_processingOrder_executesNextFill() {
+        stopOrder.setStatus(OrderStatus.PROCESSING);
+        when(orderRepository.findById(stopOrder.getId())).thenReturn(Optional.of(stopOrder));
+        when(bankClient.getUSDAccountNumberByCompanyId(4L)).thenReturn(ResponseEntity.ok("1"));
+        when(trackedPaymentService.createTrackedPayment(any(), any())).thenReturn(new TrackedPayment());
+
+        orderService.onFillDue(new FillDueEvent(stopOrder.getId()));
+
+        verify(transactionRepository, times(1)).save(any(Transaction.class));
+        verify(bankClient, times(1)).executeSystemPayment(any(ExecutePaymentDto.class));
+    }
+
+    @Test
+    void onFillDue_cancelledOrder_isIgnored() {
+        stopOrder.setStatus(OrderStatus.CANCELLED);
+        when(orderRepository.findById(stopOrder.getId())).thenReturn(Optional.of(stopOrder));
+
+        orderService.onFillDue(new FillDueEvent(stopOrder.getId()));
+
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
     @Test
     void getCommissionProfit_ShouldReturnExpectedProfit() {
         BigDecimal expectedProfit = new BigDecimal("1234.56");
@@ -0,0 +1,124 @@
+package rs.raf.stock_service.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import rs.raf.stock_service.domain.dto.TimeSeriesDto;
+import rs.raf.stock_service.domain.entity.ListingPriceHistory;
+import rs.raf.stock_service.domain.entity.Stock;
+import rs.raf.stock_service.repository.ListingPriceHistoryRepository;
+import rs.raf.stock_service.service.LatestQuoteService;
+import rs.raf.stock_service.service.PriceHistoryIngestService;
+import rs.raf.stock_service.service.PriceRollupService;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class PriceHistoryIngestServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ListingPriceHistoryRepository priceHistoryRepository = mock(ListingPriceHistoryRepository.class);
+    private final PriceRollupService priceRollupService = mock(PriceRollupService.class);
+    private final LatestQuoteService latestQuoteService = mock(LatestQuoteService.class);
+    private PriceHistoryIngestService ingestService;
+    private Stock stock;
+
+    @BeforeEach
+    void setUp() {
+        ingestService = new PriceHistoryIngestService(jdbcTemplate, priceHistoryRepository, priceRollupService, latestQuoteService);
+        stock = new Stock();
+        stock.setId(1L);
+    }
+
+    private static TimeSeriesDto series(String... datetimes) {
+        TimeSeriesDto dto = new TimeSeriesDto();
+        dto.setValues(Arrays.stream(datetimes).map(datetime -> {
+            TimeSeriesDto.TimeSeriesValueDto value = new TimeSeriesDto.TimeSeriesValueDto();
+            value.setDatetime(datetime);
+            value.setOpen(BigDecimal.TEN);
+            value.setHigh(BigDecimal.TEN);
+            value.setLow(BigDecimal.ONE);
+            value.setClose(BigDecimal.ONE);
+            value.setVolume(100L);
+            return value;
+        }).toList());
+        return dto;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void databaseInserts(List<ListingPriceHistory> inserted) {
+        when(jdbcTemplate.query(anyString(), any(Object[].class), any(int[].class), any(RowMapper.class))).thenReturn(inserted);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void ingest_filtersByWatermarkAndInsertsInOneStatement() {
+        when(priceHistoryRepository.findMaxDateByListingId(1L)).thenReturn(LocalDateTime.of(2024, 1, 1, 10, 0));
+        List<ListingPriceHistory> inserted = List.of(new ListingPriceHistory(), new ListingPriceHistory());
+        databaseInserts(inserted);
+
+        int count = ingestService.ingest(stock, series("2024-01-01 10:10:00", "2024-01-01 10:05:00", "2024-01-01 10:00:00"));
+
+        assertEquals(2, count);
+        verify(jdbcTemplate, times(1)).query(
+                argThat((String sql) -> sql.contains("ON CONFLICT (listing_id, date) DO NOTHING") && sql.split("\\(\\?").length == 3),
+                argThat((Object[] args) -> args.length == 16),
+                argThat((int[] types) -> types.length == 16),
+                any(RowMapper.class));
+        verify(priceRollupService).apply(1L, inserted);
+        verify(latestQuoteService).update(1L, inserted);
+        assertEquals(LocalDateTime.of(2024, 1, 1, 10, 10), ingestService.getWatermark(1L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void ingest_nothingNewerThanWatermark_skipsDatabase() {
+        when(priceHistoryRepository.findMaxDateByListingId(1L)).thenReturn(LocalDateTime.of(2024, 1, 1, 10, 0));
+
+        assertEquals(0, ingestService.ingest(stock, series("2024-01-01 10:00:00", "2024-01-01 09:55:00")));
+
+        verify(jdbcTemplate, never()).query(anyString(), any(Object[].class), any(int[].class), any(RowMapper.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void ingest_watermarkLoadedOnceAndAdvanced() {
+        databaseInserts(List.of(new ListingPriceHistory()));
+
+        ingestService.ingest(stock, series("2024-01-01 10:00:00"));
+        ingestService.ingest(stock, series("2024-01-01 10:00:00", "2024-01-01 10:05:00"));
+
+        verify(priceHistoryRepository, times(1)).findMaxDateByListingId(1L);
+        verify(jdbcTemplate, times(2)).query(anyString(), argThat((Object[] args) -> args.length == 8), any(int[].class), any(RowMapper.class));
+    }
+
+    @Test
+    void ingest_rollupFailsInTransaction_watermarkStaysForRetry() {
+        when(priceHistoryRepository.findMaxDateByListingId(1L)).thenReturn(LocalDateTime.of(2024, 1, 1, 10, 0));
+        databaseInserts(List.of(new ListingPriceHistory()));
+        doThrow(new RuntimeException("rollup")).when(priceRollupService).apply(eq(1L), anyList());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThrows(RuntimeException.class, () -> ingestService.ingest(stock, series("2024-01-01 10:05:00")));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(LocalDateTime.of(2024, 1, 1, 10, 0), ingestService.getWatermark(1L));
+    }
+
+    @Test
+    void ingest_emptySeries_doesNothing() {
+        assertEquals(0, ingestService.ingest(stock, new TimeSeriesDto()));
+        verifyNoInteractions(jdbcTemplate, priceHistoryRepository, priceRollupService, latestQuoteService);
+    }
+}
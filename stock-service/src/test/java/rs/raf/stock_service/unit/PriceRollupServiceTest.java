@@ -0,0 +1,79 @@
+package rs.raf.stock_service.unit;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import rs.raf.stock_service.domain.entity.ListingPriceHistory;
+import rs.raf.stock_service.domain.enums.PriceResolution;
+import rs.raf.stock_service.service.PriceRollupService;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class PriceRollupServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PriceRollupService rollupService = new PriceRollupService(jdbcTemplate);
+
+    private static ListingPriceHistory candle(String datetime, String open, String high, String low, String close, long volume) {
+        return ListingPriceHistory.builder()
+                .date(LocalDateTime.parse(datetime))
+                .open(new BigDecimal(open)).high(new BigDecimal(high)).low(new BigDecimal(low)).close(new BigDecimal(close))
+                .volume(volume)
+                .build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void apply_mergesCandlesIntoOneRowPerBucket() {
+        // API vraca svece od najnovije ka najstarijoj
+        List<ListingPriceHistory> candles = List.of(
+                candle("2024-03-05T11:05:00", "103", "104", "102", "104", 30),
+                candle("2024-03-05T10:55:00", "101", "105", "100", "103", 20),
+                candle("2024-03-05T10:50:00", "100", "101", "99", "101", 10));
+
+        rollupService.apply(1L, candles);
+
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(contains("ON CONFLICT (listing_id, resolution, bucket_start) DO UPDATE"), batch.capture(), any(int[].class));
+
+        List<Object[]> rows = batch.getValue();
+        // 2 sata + 1 dan + 1 nedelja
+        assertEquals(4, rows.size());
+
+        Object[] tenOClock = rows.get(0);
+        assertEquals(PriceResolution.HOUR.name(), tenOClock[1]);
+        assertEquals(Timestamp.valueOf(LocalDateTime.parse("2024-03-05T10:00:00")), tenOClock[2]);
+        assertEquals(new BigDecimal("100"), tenOClock[3]);
+        assertEquals(new BigDecimal("105"), tenOClock[4]);
+        assertEquals(new BigDecimal("99"), tenOClock[5]);
+        assertEquals(new BigDecimal("103"), tenOClock[6]);
+        assertEquals(30L, tenOClock[7]);
+
+        Object[] week = rows.get(3);
+        assertEquals(PriceResolution.WEEK.name(), week[1]);
+        assertEquals(Timestamp.valueOf(LocalDateTime.parse("2024-03-04T00:00:00")), week[2]);
+        assertEquals(new BigDecimal("100"), week[3]);
+        assertEquals(new BigDecimal("104"), week[6]);
+        assertEquals(60L, week[7]);
+    }
+
+    @Test
+    void apply_noCandles_skipsDatabase() {
+        rollupService.apply(1L, List.of());
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void bucketStart_weekStartsOnMonday() {
+        assertEquals(LocalDateTime.parse("2024-03-04T00:00"), PriceResolution.WEEK.bucketStart(LocalDateTime.parse("2024-03-10T23:55")));
+        assertEquals(LocalDateTime.parse("2024-03-10T00:00"), PriceResolution.DAY.bucketStart(LocalDateTime.parse("2024-03-10T23:55")));
+    }
+}
@@ -0,0 +1,71 @@
+package rs.raf.stock_service.unit;
+
+import org.junit.jupiter.api.Test;
+import rs.raf.stock_service.domain.enums.OrderDirection;
+import rs.raf.stock_service.service.OrderBook;
+import rs.raf.stock_service.service.TriggerBook;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TriggerBookTest {
+
+    private final TriggerBook book = new TriggerBook();
+
+    private static long ticks(String price) {
+        return OrderBook.toTicks(new BigDecimal(price));
+    }
+
+    @Test
+    void fire_buyStop_firesOnlyWhenAskAboveStop() {
+        book.arm(1, OrderDirection.BUY, TriggerBook.Kind.STOP, ticks("200"));
+
+        assertTrue(book.fire(ticks("190"), ticks("200")).isEmpty());
+        assertEquals(List.of(1L), book.fire(ticks("195"), ticks("200.01")));
+        assertEquals(0, book.size());
+    }
+
+    @Test
+    void fire_sellStop_firesWhenPriceBelowStop() {
+        book.arm(1, OrderDirection.SELL, TriggerBook.Kind.STOP, ticks("100"));
+
+        assertTrue(book.fire(ticks("100"), ticks("101")).isEmpty());
+        assertEquals(List.of(1L), book.fire(ticks("99.99"), ticks("101")));
+    }
+
+    @Test
+    void fire_limits_inclusiveThresholds() {
+        book.arm(1, OrderDirection.BUY, TriggerBook.Kind.LIMIT, ticks("100"));
+        book.arm(2, OrderDirection.SELL, TriggerBook.Kind.LIMIT, ticks("120"));
+
+        assertEquals(List.of(1L), book.fire(ticks("99"), ticks("100")));
+        assertEquals(List.of(2L), book.fire(ticks("120"), ticks("121")));
+    }
+
+    @Test
+    void fire_popsOnlyCrossedRange() {
+        book.arm(1, OrderDirection.SELL, TriggerBook.Kind.LIMIT, ticks("110"));
+        book.arm(2, OrderDirection.SELL, TriggerBook.Kind.LIMIT, ticks("120"));
+        book.arm(3, OrderDirection.SELL, TriggerBook.Kind.LIMIT, ticks("130"));
+
+        List<Long> fired = book.fire(ticks("125"), ticks("126"));
+
+        assertEquals(List.of(1L, 2L), fired);
+        assertEquals(1, book.size());
+        assertEquals(List.of(3L), book.fire(ticks("130"), ticks("131")));
+    }
+
+    @Test
+    void disarm_and_rearm_movesThreshold() {
+        book.arm(1, OrderDirection.BUY, TriggerBook.Kind.STOP, ticks("200"));
+        book.arm(2, OrderDirection.BUY, TriggerBook.Kind.STOP, ticks("200"));
+        book.disarm(2);
+        book.arm(1, OrderDirection.BUY, TriggerBook.Kind.LIMIT, ticks("150"));
+
+        assertTrue(book.fire(ticks("250"), ticks("250")).isEmpty());
+        assertEquals(List.of(1L), book.fire(ticks("140"), ticks("140")));
+        assertEquals(0, book.size());
+    }
+}
@@ -29,9 +29,20 @@ public class BootstrapData implements CommandLineRunner {
     private final AuthTokenRepository authTokenRepository;
     private final ActuaryLimitRepository actuaryLimitRepository;
     private final AuthorizedPersonelRepository authorizedPersonelRepository;
+    private final SeedSnapshotLoader seedSnapshotLoader;
 
     @Override
-    public void run(String... args) throws ParseException {
+    public void run(String... args) {
+        seedSnapshotLoader.seed(() -> {
+            try {
+                seedData();
+            } catch (ParseException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private void seedData() throws ParseException {
         SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
 
         if (permissionRepository.count() == 0) {
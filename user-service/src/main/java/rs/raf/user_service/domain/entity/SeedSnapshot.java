@@ -0,0 +1,32 @@
+package rs.raf.user_service.domain.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/// Zapis poslednjeg punjenja baze (kljuc snapshot-a, nacin i trajanje), samo za uvid; create-drop ga brise
+/// zajedno sa podacima na svakom startu.
+@Entity
+@Table(name = "seed_snapshot")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SeedSnapshot {
+    @Id
+    private String version;
+
+    private String checksum;
+
+    private String mode;
+
+    private long durationMs;
+
+    private LocalDateTime loadedAt;
+}
@@ -0,0 +1,7 @@
+package rs.raf.user_service.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import rs.raf.user_service.domain.entity.SeedSnapshot;
+
+public interface SeedSnapshotRepository extends JpaRepository<SeedSnapshot, String> {
+}
@@ -5,7 +5,6 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import rs.raf.user_service.utils.JwtTokenUtil;
@@ -37,18 +36,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         String token = getJwtFromRequest(request);
 
-        if (token != null && jwtTokenUtil.validateToken(token)) {
-            Claims claims = jwtTokenUtil.getClaimsFromToken(token);
+        Claims claims = token != null ? parseClaims(token) : null;
+
+        if (claims != null) {
             String email = claims.getSubject();
 
             String role = claims.get("role", String.class);
             GrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + role.toUpperCase());
             List<GrantedAuthority> authorities = List.of(authority);
 
-            UserDetails userDetails = new org.springframework.security.core.userdetails.User(email, "", authorities);
+            // claim-ovi se citaju jednom ovde, servisi ih preuzimaju preko JwtTokenUtil-a
+            JwtPrincipal principal = new JwtPrincipal(email, claims.get("userId", Long.class), role, token, authorities);
 
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                    userDetails, null, authorities);
+                    principal, null, authorities);
             SecurityContextHolder.getContext().setAuthentication(authentication);
         }
 
@@ -57,6 +58,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
 
 
+    private Claims parseClaims(String token) {
+        try {
+            return jwtTokenUtil.getClaimsFromToken(token);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         System.out.println(bearerToken);